@@ -2,15 +2,19 @@ package com.sudoku.adapter;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 
 import com.sudoku.exception.InvalidGameException;
 import com.sudoku.exception.NotFoundException;
 import com.sudoku.exception.SolutionInvalidException;
 import com.sudoku.facade.Viewable;
+import com.sudoku.logic.IngestReport;
+import com.sudoku.logic.SolvedGridGenerator;
 import com.sudoku.model.Catalog;
 import com.sudoku.model.DifficultyEnum;
 import com.sudoku.model.Game;
+import com.sudoku.model.VerificationResult;
 import com.sudoku.view.Controllable;
 import com.sudoku.view.UserAction;
 
@@ -38,6 +42,7 @@ public class ControllerAdapter implements Controllable {
       case 'e': game = controller.getGame(DifficultyEnum.EASY); break;
       case 'm': game = controller.getGame(DifficultyEnum.MEDIUM); break;
       case 'h': game = controller.getGame(DifficultyEnum.HARD); break;
+      case 'x': game = controller.getGame(DifficultyEnum.EXPERT); break;
       case 'c': game = controller.getCurrentGame(); break;
       case 'i': // NEW: Fetch the initial clean board
          try {
@@ -56,8 +61,15 @@ public class ControllerAdapter implements Controllable {
   // --- Keep the rest of the file exactly as it was ---
   @Override
   public void driveGames(String sourcePath) throws SolutionInvalidException {
+    if (sourcePath != null && isBulkSource(Paths.get(sourcePath))) {
+      ingest(Paths.get(sourcePath));
+      return;
+    }
     try {
-      int[][] board = loadBoardFromFile(sourcePath);
+      // No file: build the source solution with the native generator
+      int[][] board = sourcePath == null
+          ? new SolvedGridGenerator().grid(System.nanoTime())
+          : loadBoardFromFile(sourcePath);
       Game sourceGame = new Game(board);
       controller.driveGames(sourceGame);
     } catch (IOException e) {
@@ -66,29 +78,8 @@ public class ControllerAdapter implements Controllable {
   }
 
   @Override
-  public boolean[][] verifyGame(int[][] game) {
-    Game gameObj = new Game(game);
-    String result = controller.verifyGame(gameObj);
-
-    boolean[][] validCells = new boolean[9][9];
-    for (int i = 0; i < 9; i++) {
-      for (int j = 0; j < 9; j++) {
-        validCells[i][j] = true;
-      }
-    }
-
-    if (result.startsWith("invalid")) {
-      String[] parts = result.split(" ");
-      for (int i = 1; i < parts.length; i++) {
-        String[] coords = parts[i].split(",");
-        if (coords.length == 2) {
-          int row = Integer.parseInt(coords[0]);
-          int col = Integer.parseInt(coords[1]);
-          validCells[row][col] = false;
-        }
-      }
-    }
-    return validCells;
+  public VerificationResult verifyGame(int[][] game) {
+    return controller.verifyGame(new Game(game));
   }
 
   @Override
@@ -97,6 +88,11 @@ public class ControllerAdapter implements Controllable {
     return controller.solveGame(gameObj);
   }
 
+  @Override
+  public int[] getHint(int[][] game) {
+    return controller.getHint(new Game(game));
+  }
+
   @Override
   public void logUserAction(UserAction userAction) throws IOException {
     controller.logUserAction(userAction.toString());
@@ -113,6 +109,21 @@ public class ControllerAdapter implements Controllable {
     return controller.undoLastMove();
   }
 
+  @Override
+  public int getMoveCount() throws IOException {
+    return controller.getMoveCount();
+  }
+
+  @Override
+  public int[][] getGameAtMove(int move) throws IOException {
+    return controller.getGameAtMove(move).getBoard();
+  }
+
+  @Override
+  public void rewindToMove(int move) throws IOException {
+    controller.rewindToMove(move);
+  }
+
   @Override
   public void markGameComplete(char level) throws IOException {
     DifficultyEnum difficulty;
@@ -120,11 +131,35 @@ public class ControllerAdapter implements Controllable {
       case 'e': difficulty = DifficultyEnum.EASY; break;
       case 'm': difficulty = DifficultyEnum.MEDIUM; break;
       case 'h': difficulty = DifficultyEnum.HARD; break;
+      case 'x': difficulty = DifficultyEnum.EXPERT; break;
+      // A resumed game; its stored origin says which bank it came from
+      case 'c': difficulty = DifficultyEnum.INITIAL; break;
       default: throw new IOException("Invalid difficulty level: " + level);
     }
     controller.markGameComplete(difficulty);
   }
 
+  // A directory, or a file holding more than one grid, goes through the ingest pipeline
+  private boolean isBulkSource(Path path) {
+    if (Files.isDirectory(path)) return true;
+    try (java.util.stream.Stream<String> lines = Files.lines(path)) {
+      return lines.filter(line -> !line.trim().isEmpty()).limit(10).count() != 9;
+    } catch (IOException | java.io.UncheckedIOException e) {
+      return false;
+    }
+  }
+
+  private void ingest(Path source) throws SolutionInvalidException {
+    try {
+      IngestReport report = controller.ingestGames(source);
+      if (report.getStage("write").getItemsOut() == 0) {
+        throw new SolutionInvalidException("No valid solved grids found in " + source);
+      }
+    } catch (IOException e) {
+      throw new SolutionInvalidException("Failed to ingest " + source + ": " + e.getMessage());
+    }
+  }
+
   private int[][] loadBoardFromFile(String path) throws IOException {
     int[][] board = new int[9][9];
     java.util.List<String> lines = Files.readAllLines(Paths.get(path));
@@ -6,42 +6,171 @@ import com.sudoku.exception.*;
 import com.sudoku.logic.*;
 import com.sudoku.solver.*;
 import com.sudoku.storage.StorageManager;
+import com.sudoku.util.Lazy;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
 
 public class SudokuController implements Viewable {
-  private final SudokuVerifier verifier;
-  private final SudokuSolver solver;
-  private final GameGenerator generator;
-  private final StorageManager storage;
+  // Subsystems are built on first use so the window can paint before any disk work
+  private final Lazy<SudokuVerifier> verifier;
+  private final Lazy<SudokuSolver> solver;
+  private final Lazy<StorageManager> storage;
+  private final Lazy<GameGenerator> generator;
+  private final Lazy<PuzzlePrefetcher> prefetcher;
+  // Solution of the current game, built on a background thread as soon as a game starts or
+  // resumes, so Verify and Hint on the EDT never solve. Until it is ready they fall back to
+  // the plain verifier (and no hint). Only the newest game's future is kept, so a key still
+  // being built for an earlier game is never used.
+  private volatile CompletableFuture<AnswerKey> answerKey = CompletableFuture.completedFuture(null);
 
   public SudokuController() {
-    this.verifier = new SudokuVerifier();
-    this.solver = new SudokuSolver(verifier);
-    this.storage = new StorageManager();
-    this.generator = new GameGenerator(verifier, storage);
+    this(StorageManager::new);
+  }
+
+  public SudokuController(StorageManager storage) {
+    this(() -> storage);
+  }
+
+  private SudokuController(java.util.function.Supplier<StorageManager> storageFactory) {
+    this.verifier = new Lazy<>(SudokuVerifier::new);
+    this.solver = new Lazy<>(() -> new SudokuSolver(verifier.get()));
+    this.storage = new Lazy<>(storageFactory);
+    this.generator = new Lazy<>(() -> new GameGenerator(verifier.get(), storage.get()));
+    this.prefetcher = new Lazy<>(this::createPrefetcher);
+  }
+
+  // Uses the last registered source grid, or freshly generated grids if none was given
+  private PuzzlePrefetcher createPrefetcher() {
+    try {
+      int sourceId = storage.get().latestSourceId();
+      if (sourceId == PuzzleKey.BUNDLED_SOURCE) {
+        return new PuzzlePrefetcher(generator.get(), PuzzleKey.GENERATED_SOURCE, null);
+      }
+      int[][] source = storage.get().loadSource(sourceId);
+      if (verifier.get().verify(source).getState() != VerificationState.VALID) {
+        return null;
+      }
+      return new PuzzlePrefetcher(generator.get(), sourceId, source);
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  // Fills the per-difficulty puzzle queues in the background
+  public void startPrefetch() {
+    Thread starter = new Thread(() -> {
+      PuzzlePrefetcher queue = prefetcher.get();
+      if (queue != null) queue.start();
+    }, "sudoku-prefetch-init");
+    starter.setDaemon(true);
+    starter.setPriority(Thread.MIN_PRIORITY);
+    starter.start();
+  }
+
+  // Runs the verifier and solver a few times on a low-priority thread so the
+  // first interactive Verify/Solve does not run in interpreted mode.
+  public void startWarmUp() {
+    Thread warmUp = new Thread(new WarmUp(verifier.get(), solver.get()), "sudoku-warmup");
+    warmUp.setDaemon(true);
+    warmUp.setPriority(Thread.MIN_PRIORITY);
+    warmUp.start();
   }
 
   @Override
   public Catalog getCatalog() {
-    boolean hasCurrent = storage.hasCurrentGame();
-    boolean hasAllModes = storage.hasAllDifficulties();
+    boolean hasCurrent = storage.get().hasCurrentGame();
+    boolean hasAllModes = prefetcher.get() != null || storage.get().hasAllDifficulties();
     return new Catalog(hasCurrent, hasAllModes);
   }
 
   @Override
   public Game getGame(DifficultyEnum level) throws NotFoundException {
     try {
-      int[][] board = storage.loadGame(level);
+      if (level != DifficultyEnum.INITIAL) {
+        Puzzle puzzle = takePrefetched(level);
+        if (puzzle != null) {
+          storage.get().startGame(puzzle.getBoard(), puzzle.getSolution());
+          startAnswerKey();
+          return new Game(puzzle.getBoard());
+        }
+      }
+      int[][] board = level == DifficultyEnum.INITIAL ? storage.get().loadGame(level) : takeBanked(level);
+      if (level != DifficultyEnum.INITIAL) startAnswerKey();
       return new Game(board);
     } catch (IOException e) {
       throw new NotFoundException("No game found for difficulty: " + level);
     }
   }
 
+  // Puzzles banked as keys are rebuilt first; full game files are the fallback
+  private int[][] takeBanked(DifficultyEnum level) throws IOException {
+    PuzzleKey key = storage.get().peekKey(level);
+    if (key == null) return storage.get().loadGame(level);
+    Puzzle puzzle = generator.get().rebuild(key);
+    storage.get().startGame(puzzle.getBoard(), puzzle.getSolution(), key);
+    return puzzle.getBoard();
+  }
+
+  private Puzzle takePrefetched(DifficultyEnum level) {
+    PuzzlePrefetcher queue = prefetcher.get();
+    if (queue == null) return null;
+    Puzzle puzzle = queue.poll(level);
+    if (puzzle == null && !storage.get().hasGames(level)) {
+      puzzle = queue.generateNow(level);
+    }
+    return puzzle;
+  }
+
+  // Boards saved before solutions were stored are solved once here instead
+  private AnswerKey createAnswerKey(int[][] initial, int[][] solution) {
+    if (solution == null) {
+      SolveResult result = solver.get().solve(initial, SolveOptions.unbounded());
+      if (result.getStatus() != SolveResult.Status.SOLVED) return null;
+      solution = result.getSolution();
+    }
+    boolean unique = solver.get().countSolutions(initial, 2) == 1;
+    AnswerKey key = new AnswerKey(initial, solution, unique);
+    return key.matchesGivens(new Game(solution)) ? key : null;
+  }
+
+  // The current game's key if it is built already; never waits
+  private AnswerKey answerKey() {
+    return answerKey.getNow(null);
+  }
+
+  // Blocks until the current game's key is built; lets tests use it without racing the builder
+  void awaitAnswerKey() {
+    answerKey.join();
+  }
+
+  // Read from initial.txt and solution.txt, so it never shares arrays with a Game the
+  // view is editing
+  private void startAnswerKey() {
+    CompletableFuture<AnswerKey> key = new CompletableFuture<>();
+    answerKey = key;
+    Thread builder = new Thread(() -> {
+      try {
+        key.complete(storage.get().hasCurrentGame()
+            ? createAnswerKey(storage.get().loadGame(DifficultyEnum.INITIAL), storage.get().loadCurrentSolution())
+            : null);
+      } catch (IOException | RuntimeException e) {
+        key.complete(null);
+      }
+    }, "sudoku-answer-key");
+    builder.setDaemon(true);
+    builder.start();
+  }
+
+  private void dropAnswerKey() {
+    answerKey = CompletableFuture.completedFuture(null);
+  }
+
   @Override
   public Game getCurrentGame() throws NotFoundException {
     try {
-      int[][] board = storage.loadCurrentGame();
+      int[][] board = storage.get().loadCurrentGame();
+      startAnswerKey();
       return new Game(board);
     } catch (IOException e) {
       throw new NotFoundException("No current game found");
@@ -51,21 +180,79 @@ public class SudokuController implements Viewable {
   @Override
   public void driveGames(Game sourceGame) throws SolutionInvalidException {
     try {
-      generator.generateFromSolved(sourceGame.getBoard());
+      int sourceId = generator.get().generateFromSolved(sourceGame.getBoard());
+      PuzzlePrefetcher queue = prefetcher.get();
+      if (queue != null) queue.setSourceSolution(sourceId, sourceGame.getBoard());
     } catch (IOException e) {
       throw new SolutionInvalidException("Failed to generate games: " + e.getMessage());
     }
   }
 
   @Override
-  public String verifyGame(Game game) {
-    SudokuVerifier.VerificationResult result = verifier.verify(game.getBoard());
-    return result.toFormattedString();
+  public IngestReport ingestGames(Path source) throws IOException {
+    return new IngestPipeline(verifier.get(), generator.get(), storage.get()).run(source);
+  }
+
+  // With the current game's solution at hand a finished board is recognised by comparison
+  // alone, and entries that differ from a unique solution are flagged before they conflict
+  @Override
+  public VerificationResult verifyGame(Game game) {
+    AnswerKey key = answerKey();
+    if (key == null || !key.matchesGivens(game)) {
+      return verifier.get().verify(game);
+    }
+    if (key.isSolvedBy(game)) {
+      return new VerificationResult(VerificationState.VALID, 0, 0);
+    }
+    VerificationResult result = verifier.get().verify(game);
+    return key.unique ? result.withConflicts(key.wrongLow(game), key.wrongHigh(game)) : result;
   }
 
   @Override
   public int[][] solveGame(Game game) throws InvalidGameException {
-    return solver.solve(game.getBoard());
+    AnswerKey key = answerKey();
+    if (key == null || !key.matchesGivens(game) || (key.wrongLow(game) | key.wrongHigh(game)) != 0) {
+      return solver.get().solve(game.getBoard());
+    }
+    int empty = 0;
+    for (int cell = 0; cell < 81; cell++) {
+      if (game.get(cell / 9, cell % 9) == 0) empty++;
+    }
+    if (empty != 5) {
+      throw new InvalidGameException("Solver requires exactly 5 empty cells, found: " + empty);
+    }
+    int[][] entries = new int[empty][];
+    for (int cell = 0, i = 0; cell < 81; cell++) {
+      if (game.get(cell / 9, cell % 9) == 0) {
+        entries[i++] = new int[] { cell / 9, cell % 9, key.solution[cell / 9][cell % 9] };
+      }
+    }
+    return entries;
+  }
+
+  @Override
+  public int[] getHint(Game game) {
+    AnswerKey key = answerKey();
+    if (key == null || !key.matchesGivens(game)) return null;
+    if (key.unique) {
+      for (int cell = 0; cell < 81; cell++) {
+        int value = game.get(cell / 9, cell % 9);
+        if (value != 0 && value != key.solution[cell / 9][cell % 9]) {
+          return new int[] { cell / 9, cell % 9, key.solution[cell / 9][cell % 9] };
+        }
+      }
+    }
+    for (int cell = 0; cell < 81; cell++) {
+      if (game.get(cell / 9, cell % 9) == 0) {
+        return new int[] { cell / 9, cell % 9, key.solution[cell / 9][cell % 9] };
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public SolveResult solveGame(Game game, SolveOptions options) {
+    return solver.get().solve(game.getBoard(), options);
   }
 
   @Override
@@ -79,23 +266,93 @@ public class SudokuController implements Viewable {
       int newVal = Integer.parseInt(parts[2].trim());
       int oldVal = Integer.parseInt(parts[3].trim());
 
-      storage.logMove(x, y, newVal, oldVal);
+      storage.get().logMove(x, y, newVal, oldVal);
     }
   }
 
   @Override
   public void updateCurrentGame(Game game) throws IOException {
-    storage.saveCurrentGame(game.getBoard());
+    storage.get().saveCurrentGame(game.getBoard());
   }
 
   @Override
   public int[] undoLastMove() throws IOException {
-    return storage.undoLastMove();
+    return storage.get().undoLastMove();
+  }
+
+  @Override
+  public int getMoveCount() throws IOException {
+    return storage.get().getMoveCount();
+  }
+
+  @Override
+  public Game getGameAtMove(int move) throws IOException {
+    return new Game(storage.get().loadBoardAtMove(move));
+  }
+
+  @Override
+  public void rewindToMove(int move) throws IOException {
+    storage.get().rewindToMove(move);
   }
 
   @Override
   public void markGameComplete(DifficultyEnum difficulty) throws IOException {
-    storage.deleteGame(difficulty);
-    storage.clearCurrentGame();
+    // The stored origin decides what leaves the bank, so resumed games are handled too
+    storage.get().completeCurrentGame(difficulty);
+    dropAnswerKey();
+  }
+
+  private static class AnswerKey {
+    final int[][] initial;
+    final int[][] solution;
+    // Entries can only be called wrong when no other completion exists
+    final boolean unique;
+
+    // Copies both boards: callers' arrays may be edited in place later
+    AnswerKey(int[][] initial, int[][] solution, boolean unique) {
+      this.initial = copy(initial);
+      this.solution = copy(solution);
+      this.unique = unique;
+    }
+
+    private static int[][] copy(int[][] board) {
+      int[][] copy = new int[9][];
+      for (int row = 0; row < 9; row++) copy[row] = board[row].clone();
+      return copy;
+    }
+
+    // The board still shows every given of this puzzle, i.e. it is this game
+    boolean matchesGivens(BoardView board) {
+      for (int cell = 0; cell < 81; cell++) {
+        int given = initial[cell / 9][cell % 9];
+        if (given != 0 && board.get(cell / 9, cell % 9) != given) return false;
+      }
+      return true;
+    }
+
+    boolean isSolvedBy(BoardView board) {
+      for (int cell = 0; cell < 81; cell++) {
+        if (board.get(cell / 9, cell % 9) != solution[cell / 9][cell % 9]) return false;
+      }
+      return true;
+    }
+
+    long wrongLow(BoardView board) {
+      long wrong = 0;
+      for (int cell = 0; cell < 64; cell++) {
+        int value = board.get(cell / 9, cell % 9);
+        if (value != 0 && value != solution[cell / 9][cell % 9]) wrong |= 1L << cell;
+      }
+      return wrong;
+    }
+
+    long wrongHigh(BoardView board) {
+      long wrong = 0;
+      for (int cell = 64; cell < 81; cell++) {
+        int value = board.get(cell / 9, cell % 9);
+        if (value != 0 && value != solution[cell / 9][cell % 9]) wrong |= 1L << (cell - 64);
+      }
+      return wrong;
+    }
   }
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.sudoku.controller;
+
+import com.sudoku.exception.InvalidGameException;
+import com.sudoku.logic.SudokuVerifier;
+import com.sudoku.solver.SudokuSolver;
+
+class WarmUp implements Runnable {
+  private static final int VERIFY_ROUNDS = 2000;
+  private static final int SOLVE_ROUNDS = 2;
+
+  private final SudokuVerifier verifier;
+  private final SudokuSolver solver;
+
+  WarmUp(SudokuVerifier verifier, SudokuSolver solver) {
+    this.verifier = verifier;
+    this.solver = solver;
+  }
+
+  @Override
+  public void run() {
+    int[][] solved = patternBoard();
+    for (int i = 0; i < VERIFY_ROUNDS; i++) {
+      verifier.verify(solved);
+    }
+
+    // Same shape the GUI enables Solve for: exactly 5 empty cells
+    int[][] puzzle = patternBoard();
+    for (int i = 0; i < 5; i++) {
+      puzzle[i][(i * 4) % 9] = 0;
+    }
+    for (int i = 0; i < SOLVE_ROUNDS; i++) {
+      try {
+        solver.solve(puzzle);
+      } catch (InvalidGameException e) {
+        return;
+      }
+    }
+  }
+
+  // A fixed valid solution: each row is the previous one shifted by 3 (or 1 at band edges)
+  private static int[][] patternBoard() {
+    int[][] board = new int[9][9];
+    for (int row = 0; row < 9; row++) {
+      for (int col = 0; col < 9; col++) {
+        board[row][col] = (row * 3 + row / 3 + col) % 9 + 1;
+      }
+    }
+    return board;
+  }
+}
@@ -0,0 +1,288 @@
+package com.sudoku.distributed;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.sudoku.logic.BatchVerifier;
+import com.sudoku.model.DifficultyEnum;
+import com.sudoku.model.PuzzleKey;
+import com.sudoku.storage.StorageManager;
+
+// Splits a generation run into seed-range jobs and hands them to worker JVMs over loopback
+// TCP. Each job's puzzles are held until the worker reports it done and only then written to
+// the bank, so when a worker dies mid-job the whole range goes back to the queue and is
+// redone elsewhere without leaving partial or duplicate puzzles behind.
+//
+// Usage: java -cp sudoku-lab10.jar com.sudoku.distributed.GenerationCoordinator
+//   [--workers n] [--count n] [--job-size n] [--difficulty easy|medium|hard|expert]
+//   [--first-seed n] [--dir path] [--crash-one]
+// --crash-one makes the first local worker die partway through its first job.
+public class GenerationCoordinator {
+  public static final int DEFAULT_JOB_SIZE = 256;
+  private static final long POLL_MILLIS = 100;
+
+  private final StorageManager storage;
+  private final int jobSize;
+  private final AtomicInteger connections = new AtomicInteger();
+  private final AtomicInteger reassigned = new AtomicInteger();
+  private final AtomicInteger respawned = new AtomicInteger();
+
+  private ServerSocketChannel server;
+  private BlockingDeque<GenerationJob> pending;
+  private CountDownLatch remaining;
+  private AtomicReference<IOException> failure;
+  private volatile boolean finished;
+
+  public GenerationCoordinator(StorageManager storage) {
+    this(storage, DEFAULT_JOB_SIZE);
+  }
+
+  public GenerationCoordinator(StorageManager storage, int jobSize) {
+    this.storage = storage;
+    this.jobSize = Math.max(1, jobSize);
+  }
+
+  public static void main(String[] args) throws Exception {
+    int workers = Math.max(1, Runtime.getRuntime().availableProcessors());
+    int count = 2000;
+    int jobSize = DEFAULT_JOB_SIZE;
+    DifficultyEnum difficulty = DifficultyEnum.MEDIUM;
+    long firstSeed = 1;
+    Path dir = null;
+    boolean crashOne = false;
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "--workers": workers = Integer.parseInt(args[++i]); break;
+        case "--count": count = Integer.parseInt(args[++i]); break;
+        case "--job-size": jobSize = Integer.parseInt(args[++i]); break;
+        case "--difficulty": difficulty = DifficultyEnum.valueOf(args[++i].toUpperCase()); break;
+        case "--first-seed": firstSeed = Long.parseLong(args[++i]); break;
+        case "--dir": dir = Paths.get(args[++i]); break;
+        case "--crash-one": crashOne = true; break;
+        default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+      }
+    }
+    if (dir == null) dir = Files.createTempDirectory("sudoku-distributed");
+
+    GenerationCoordinator coordinator = new GenerationCoordinator(new StorageManager(dir), jobSize);
+    long start = System.nanoTime();
+    coordinator.generate(PuzzleKey.GENERATED_SOURCE, null, difficulty, firstSeed, count,
+        workers, crashOne ? Math.min(jobSize, count) / 2 : 0);
+    double seconds = (System.nanoTime() - start) / 1e9;
+
+    System.out.printf("generated %d %s puzzles in %.2f s (%.0f/s) into %s%n",
+        count, difficulty, seconds, count / seconds, dir);
+    System.out.printf("connections %d, jobs reassigned %d, workers respawned %d%n",
+        coordinator.getConnections(), coordinator.getReassigned(), coordinator.getRespawned());
+  }
+
+  // Generates count puzzles with seeds firstSeed.. from the given solved source (null for
+  // GENERATED_SOURCE) using localWorkers worker processes on this machine. When crashAfter
+  // is positive the first worker halts after that many puzzles. Remote workers may also
+  // connect to getPort() while a run is in progress.
+  public void generate(int sourceId, int[][] source, DifficultyEnum difficulty, long firstSeed, int count,
+      int localWorkers, int crashAfter) throws IOException {
+    pending = new LinkedBlockingDeque<>();
+    for (int id = 0, done = 0; done < count; id++, done += jobSize) {
+      PuzzleKey key = new PuzzleKey(sourceId, firstSeed + done, difficulty);
+      pending.add(new GenerationJob(id, key, Math.min(jobSize, count - done)));
+    }
+    remaining = new CountDownLatch(pending.size());
+    failure = new AtomicReference<>();
+    finished = false;
+
+    ByteBuffer jobTemplate = ByteBuffer.allocate(1 + BatchVerifier.BOARD_BYTES);
+    if (source != null) {
+      byte[] packed = new byte[BatchVerifier.BOARD_BYTES];
+      BatchVerifier.pack(source, packed, 0);
+      jobTemplate.put((byte) 1).put(packed);
+    } else {
+      jobTemplate.put((byte) 0);
+    }
+    jobTemplate.flip();
+
+    server = ServerSocketChannel.open();
+    server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    Thread acceptor = daemon(() -> accept(jobTemplate), "sudoku-coordinator-accept");
+    acceptor.start();
+
+    List<Process> processes = new ArrayList<>();
+    try {
+      for (int i = 0; i < localWorkers; i++) {
+        processes.add(spawn(i == 0 ? crashAfter : 0));
+      }
+      while (!remaining.await(POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+        IOException error = failure.get();
+        if (error != null) throw error;
+        superviseWorkers(processes, localWorkers);
+      }
+      IOException error = failure.get();
+      if (error != null) throw error;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Generation interrupted");
+    } finally {
+      finished = true;
+      server.close();
+      stopWorkers(processes);
+    }
+  }
+
+  public int getPort() {
+    return server.socket().getLocalPort();
+  }
+
+  public int getConnections() {
+    return connections.get();
+  }
+
+  public int getReassigned() {
+    return reassigned.get();
+  }
+
+  public int getRespawned() {
+    return respawned.get();
+  }
+
+  private void accept(ByteBuffer jobTemplate) {
+    while (!finished) {
+      try {
+        SocketChannel channel = server.accept();
+        connections.incrementAndGet();
+        daemon(() -> serve(channel, jobTemplate.duplicate()), "sudoku-coordinator-" + connections.get()).start();
+      } catch (ClosedChannelException e) {
+        return;
+      } catch (IOException e) {
+        if (!finished) failure.compareAndSet(null, e);
+        return;
+      }
+    }
+  }
+
+  // One thread per worker connection: hand out a job, collect its puzzles, commit, repeat
+  private void serve(SocketChannel channel, ByteBuffer sourceBytes) {
+    try (SocketChannel worker = channel) {
+      while (!finished) {
+        GenerationJob job;
+        try {
+          job = pending.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+          return;
+        }
+        if (job == null) continue;
+        List<int[][]> boards = new ArrayList<>(job.count);
+        List<int[][]> solutions = new ArrayList<>(job.count);
+        try {
+          runJob(worker, job, sourceBytes.duplicate(), boards, solutions);
+        } catch (IOException e) {
+          // Worker crashed or sent garbage: its range goes to the front for the next worker
+          pending.addFirst(job);
+          reassigned.incrementAndGet();
+          return;
+        }
+        try {
+          storage.saveGames(job.firstKey.getDifficulty(), boards, solutions);
+        } catch (IOException e) {
+          failure.compareAndSet(null, e);
+          return;
+        }
+        remaining.countDown();
+      }
+      ByteBuffer stop = ByteBuffer.allocate(1).put(Protocol.STOP);
+      Protocol.send(worker, stop);
+    } catch (IOException e) {
+      // Stopping a worker that already went away is fine
+    }
+  }
+
+  private static void runJob(SocketChannel worker, GenerationJob job, ByteBuffer sourceBytes,
+      List<int[][]> boards, List<int[][]> solutions) throws IOException {
+    ByteBuffer request = ByteBuffer.allocate(1 + 4 + PuzzleKey.BYTES + 4 + sourceBytes.remaining());
+    request.put(Protocol.JOB).putInt(job.id);
+    job.firstKey.writeTo(request);
+    request.putInt(job.count).put(sourceBytes);
+    Protocol.send(worker, request);
+
+    while (true) {
+      ByteBuffer message = Protocol.receive(worker);
+      byte type = message.get();
+      int jobId = message.getInt();
+      if (jobId != job.id) throw new IOException("Reply for job " + jobId + " while running " + job);
+      if (type == Protocol.DONE) break;
+      if (type != Protocol.RESULT) throw new IOException("Unexpected message type " + type);
+      int n = message.getInt();
+      byte[] packed = new byte[2 * n * BatchVerifier.BOARD_BYTES];
+      message.get(packed);
+      for (int i = 0; i < n; i++) {
+        boards.add(BatchVerifier.unpack(packed, 2 * i));
+        solutions.add(BatchVerifier.unpack(packed, 2 * i + 1));
+      }
+    }
+    if (boards.size() != job.count) {
+      throw new IOException(job + " returned " + boards.size() + " puzzles");
+    }
+  }
+
+  // Local workers that died while work is left are replaced, up to one extra start each
+  private void superviseWorkers(List<Process> processes, int localWorkers) throws IOException {
+    boolean anyAlive = false;
+    for (int i = 0; i < processes.size(); i++) {
+      if (!processes.get(i).isAlive() && pending.size() > 0 && respawned.get() < localWorkers) {
+        processes.set(i, spawn(0));
+        respawned.incrementAndGet();
+      }
+      anyAlive |= processes.get(i).isAlive();
+    }
+    if (localWorkers > 0 && !anyAlive && connections.get() > 0 && server.isOpen() && pending.size() > 0) {
+      throw new IOException("All local workers exited with " + remaining.getCount() + " jobs left");
+    }
+  }
+
+  private Process spawn(int crashAfter) throws IOException {
+    String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+    List<String> command = new ArrayList<>(List.of(java, "-cp", System.getProperty("java.class.path"),
+        GenerationWorker.class.getName(), "127.0.0.1", Integer.toString(getPort()),
+        "--dir", storage.getBasePath().toAbsolutePath().toString()));
+    if (crashAfter > 0) {
+      command.add("--exit-after");
+      command.add(Integer.toString(crashAfter));
+    }
+    return new ProcessBuilder(command)
+        .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+        .redirectError(ProcessBuilder.Redirect.INHERIT)
+        .start();
+  }
+
+  private static void stopWorkers(List<Process> processes) {
+    for (Process process : processes) {
+      try {
+        if (!process.waitFor(5, TimeUnit.SECONDS)) process.destroyForcibly();
+      } catch (InterruptedException e) {
+        process.destroyForcibly();
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private static Thread daemon(Runnable task, String name) {
+    Thread thread = new Thread(task, name);
+    thread.setDaemon(true);
+    return thread;
+  }
+}
@@ -0,0 +1,21 @@
+package com.sudoku.distributed;
+
+import com.sudoku.model.PuzzleKey;
+
+// A contiguous seed range; puzzle i of the job is generated from firstKey's seed + i
+final class GenerationJob {
+  final int id;
+  final PuzzleKey firstKey;
+  final int count;
+
+  GenerationJob(int id, PuzzleKey firstKey, int count) {
+    this.id = id;
+    this.firstKey = firstKey;
+    this.count = count;
+  }
+
+  @Override
+  public String toString() {
+    return "job " + id + " (seeds " + firstKey.getSeed() + ".." + (firstKey.getSeed() + count - 1) + ")";
+  }
+}
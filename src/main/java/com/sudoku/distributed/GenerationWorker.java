@@ -0,0 +1,95 @@
+package com.sudoku.distributed;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import com.sudoku.logic.BatchVerifier;
+import com.sudoku.logic.GameGenerator;
+import com.sudoku.logic.SudokuVerifier;
+import com.sudoku.model.Puzzle;
+import com.sudoku.model.PuzzleKey;
+import com.sudoku.storage.StorageManager;
+
+// Worker JVM: takes seed-range jobs from a coordinator and streams back packed puzzles
+// with their solutions. Keys are deterministic, so a range re-run elsewhere after a crash
+// yields exactly the same boards.
+//
+// Usage: java -cp sudoku-lab10.jar com.sudoku.distributed.GenerationWorker host port --dir path
+//   [--exit-after n]
+// --dir is the coordinator's game directory, where keys of registered sources are looked up
+// when a job carries no source grid. Nothing is written there.
+// --exit-after halts the JVM after n puzzles, to exercise the coordinator's crash handling.
+public class GenerationWorker {
+  private static final int BATCH = 64;
+
+  private final GameGenerator generator;
+  private final long exitAfter;
+  private long produced;
+
+  public GenerationWorker(Path dir, long exitAfter) {
+    this.generator = new GameGenerator(new SudokuVerifier(), new StorageManager(dir));
+    this.exitAfter = exitAfter;
+  }
+
+  public static void main(String[] args) throws IOException {
+    Path dir = null;
+    long exitAfter = Long.MAX_VALUE;
+    for (int i = 2; i < args.length; i++) {
+      switch (args[i]) {
+        case "--dir": dir = Paths.get(args[++i]); break;
+        case "--exit-after": exitAfter = Long.parseLong(args[++i]); break;
+        default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+      }
+    }
+    if (dir == null) throw new IllegalArgumentException("--dir is required");
+    new GenerationWorker(dir, exitAfter).run(new InetSocketAddress(args[0], Integer.parseInt(args[1])));
+  }
+
+  public void run(InetSocketAddress coordinator) throws IOException {
+    try (SocketChannel channel = SocketChannel.open(coordinator)) {
+      while (true) {
+        ByteBuffer message = Protocol.receive(channel);
+        byte type = message.get();
+        if (type == Protocol.STOP) return;
+        if (type != Protocol.JOB) throw new IOException("Unexpected message type " + type);
+        runJob(channel, message);
+      }
+    }
+  }
+
+  private void runJob(SocketChannel channel, ByteBuffer message) throws IOException {
+    int jobId = message.getInt();
+    PuzzleKey first = PuzzleKey.readFrom(message);
+    int count = message.getInt();
+    int[][] source = null;
+    if (message.get() != 0) {
+      byte[] packed = new byte[BatchVerifier.BOARD_BYTES];
+      message.get(packed);
+      source = BatchVerifier.unpack(packed, 0);
+    }
+
+    byte[] packed = new byte[2 * BATCH * BatchVerifier.BOARD_BYTES];
+    for (int start = 0; start < count; start += BATCH) {
+      int n = Math.min(BATCH, count - start);
+      for (int i = 0; i < n; i++) {
+        PuzzleKey key = new PuzzleKey(first.getSourceId(), first.getSeed() + start + i, first.getDifficulty());
+        Puzzle puzzle = source != null ? generator.generatePuzzle(source, key) : generator.rebuild(key);
+        BatchVerifier.pack(puzzle.getBoard(), packed, 2 * i);
+        BatchVerifier.pack(puzzle.getSolution(), packed, 2 * i + 1);
+        if (++produced >= exitAfter) {
+          Runtime.getRuntime().halt(3);
+        }
+      }
+      ByteBuffer result = ByteBuffer.allocate(9 + 2 * n * BatchVerifier.BOARD_BYTES);
+      result.put(Protocol.RESULT).putInt(jobId).putInt(n).put(packed, 0, 2 * n * BatchVerifier.BOARD_BYTES);
+      Protocol.send(channel, result);
+    }
+    ByteBuffer done = ByteBuffer.allocate(5);
+    done.put(Protocol.DONE).putInt(jobId);
+    Protocol.send(channel, done);
+  }
+}
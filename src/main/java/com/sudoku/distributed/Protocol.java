@@ -0,0 +1,50 @@
+package com.sudoku.distributed;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+// Length-prefixed binary frames exchanged between coordinator and workers.
+//
+// Coordinator -> worker:
+//   JOB     jobId:int key:PuzzleKey(16) count:int hasSource:byte [source:81 bytes]
+//   STOP
+// Worker -> coordinator:
+//   RESULT  jobId:int n:int n * (puzzle:81 bytes, solution:81 bytes)
+//   DONE    jobId:int
+final class Protocol {
+  static final byte JOB = 1;
+  static final byte STOP = 2;
+  static final byte RESULT = 3;
+  static final byte DONE = 4;
+
+  static final int MAX_FRAME = 1 << 24;
+
+  private Protocol() {
+  }
+
+  static void send(SocketChannel channel, ByteBuffer payload) throws IOException {
+    payload.flip();
+    ByteBuffer header = ByteBuffer.allocate(4).putInt(payload.remaining());
+    header.flip();
+    while (header.hasRemaining() || payload.hasRemaining()) {
+      channel.write(new ByteBuffer[] { header, payload });
+    }
+  }
+
+  static ByteBuffer receive(SocketChannel channel) throws IOException {
+    ByteBuffer header = readFully(channel, ByteBuffer.allocate(4));
+    int length = header.getInt();
+    if (length <= 0 || length > MAX_FRAME) throw new IOException("Bad frame length: " + length);
+    return readFully(channel, ByteBuffer.allocate(length));
+  }
+
+  private static ByteBuffer readFully(SocketChannel channel, ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer) < 0) throw new EOFException("Connection closed");
+    }
+    buffer.flip();
+    return buffer;
+  }
+}
@@ -0,0 +1,46 @@
+package com.sudoku.events;
+
+import com.sudoku.model.BoardSnapshot;
+
+// One user edit together with the immutable board it produced
+public final class BoardChange {
+  private final long sequence;
+  private final int row;
+  private final int col;
+  private final int value;
+  private final int oldValue;
+  private final BoardSnapshot snapshot;
+
+  public BoardChange(long sequence, int row, int col, int value, int oldValue, BoardSnapshot snapshot) {
+    this.sequence = sequence;
+    this.row = row;
+    this.col = col;
+    this.value = value;
+    this.oldValue = oldValue;
+    this.snapshot = snapshot;
+  }
+
+  public long getSequence() {
+    return sequence;
+  }
+
+  public int getRow() {
+    return row;
+  }
+
+  public int getCol() {
+    return col;
+  }
+
+  public int getValue() {
+    return value;
+  }
+
+  public int getOldValue() {
+    return oldValue;
+  }
+
+  public BoardSnapshot getSnapshot() {
+    return snapshot;
+  }
+}
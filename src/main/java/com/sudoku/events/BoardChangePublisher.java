@@ -0,0 +1,165 @@
+package com.sudoku.events;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+
+// Fans board changes out to subscribers, each with its own bounded buffer.
+// submit() never blocks: a full buffer coalesces according to the subscriber's policy,
+// so a slow subscriber (disk, verification) cannot back up into the input path.
+// Deliveries to one subscriber are serial; different subscribers run in parallel.
+public class BoardChangePublisher implements Flow.Publisher<BoardChange>, AutoCloseable {
+
+  public enum Policy {
+    // Keep only the newest change; for consumers that need the current board, not each step
+    LATEST,
+    // Keep up to the buffer capacity; when full, the oldest pending change is dropped
+    DROP_OLDEST
+  }
+
+  public static final int DEFAULT_CAPACITY = 256;
+
+  private final CopyOnWriteArrayList<Delivery> deliveries = new CopyOnWriteArrayList<>();
+  private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+    Thread thread = new Thread(r, "board-events");
+    thread.setDaemon(true);
+    return thread;
+  });
+  private volatile boolean closed;
+
+  @Override
+  public void subscribe(Flow.Subscriber<? super BoardChange> subscriber) {
+    subscribe(subscriber, Policy.DROP_OLDEST, DEFAULT_CAPACITY);
+  }
+
+  public void subscribe(Flow.Subscriber<? super BoardChange> subscriber, Policy policy, int capacity) {
+    if (capacity < 1) throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    Delivery delivery = new Delivery(subscriber, policy, policy == Policy.LATEST ? 1 : capacity);
+    deliveries.add(delivery);
+    subscriber.onSubscribe(delivery);
+    if (closed) delivery.complete();
+  }
+
+  public void submit(BoardChange change) {
+    if (closed) throw new IllegalStateException("Publisher is closed");
+    for (Delivery delivery : deliveries) {
+      delivery.offer(change);
+    }
+  }
+
+  public int getSubscriberCount() {
+    return deliveries.size();
+  }
+
+  // Completes every subscriber once its pending changes are delivered
+  @Override
+  public void close() {
+    closed = true;
+    for (Delivery delivery : deliveries) {
+      delivery.complete();
+    }
+    executor.shutdown();
+  }
+
+  private class Delivery implements Flow.Subscription, Runnable {
+    private final Flow.Subscriber<? super BoardChange> subscriber;
+    private final Policy policy;
+    private final int capacity;
+    private final ArrayDeque<BoardChange> buffer = new ArrayDeque<>();
+    private long demand;
+    private long dropped;
+    private boolean running;
+    private boolean completing;
+    private boolean cancelled;
+
+    Delivery(Flow.Subscriber<? super BoardChange> subscriber, Policy policy, int capacity) {
+      this.subscriber = subscriber;
+      this.policy = policy;
+      this.capacity = capacity;
+    }
+
+    synchronized void offer(BoardChange change) {
+      if (cancelled || completing) return;
+      if (policy == Policy.LATEST) {
+        dropped += buffer.size();
+        buffer.clear();
+      } else if (buffer.size() == capacity) {
+        buffer.pollFirst();
+        dropped++;
+      }
+      buffer.addLast(change);
+      schedule();
+    }
+
+    synchronized void complete() {
+      completing = true;
+      schedule();
+    }
+
+    @Override
+    public synchronized void request(long n) {
+      if (cancelled) return;
+      if (n <= 0) {
+        cancelled = true;
+        deliveries.remove(this);
+        executor.execute(() -> subscriber.onError(new IllegalArgumentException("Non-positive request: " + n)));
+        return;
+      }
+      demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+      schedule();
+    }
+
+    @Override
+    public synchronized void cancel() {
+      cancelled = true;
+      buffer.clear();
+      deliveries.remove(this);
+    }
+
+    // Caller holds the lock
+    private void schedule() {
+      if (running || cancelled) return;
+      boolean ready = (demand > 0 && !buffer.isEmpty()) || (completing && buffer.isEmpty());
+      if (!ready) return;
+      running = true;
+      executor.execute(this);
+    }
+
+    @Override
+    public void run() {
+      while (true) {
+        BoardChange next;
+        synchronized (this) {
+          if (cancelled) {
+            running = false;
+            return;
+          }
+          if (buffer.isEmpty() && completing) {
+            cancelled = true;
+            deliveries.remove(this);
+            next = null;
+          } else if (demand == 0 || buffer.isEmpty()) {
+            running = false;
+            return;
+          } else {
+            next = buffer.pollFirst();
+            if (demand != Long.MAX_VALUE) demand--;
+          }
+        }
+        if (next == null) {
+          subscriber.onComplete();
+          return;
+        }
+        try {
+          subscriber.onNext(next);
+        } catch (RuntimeException e) {
+          cancel();
+          subscriber.onError(e);
+          return;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,42 @@
+package com.sudoku.events;
+
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+
+// Pulls one change at a time, so the publisher's buffer (and its policy) absorbs bursts
+public abstract class BoardChangeSubscriber implements Flow.Subscriber<BoardChange> {
+  private final Consumer<Throwable> errorHandler;
+  private Flow.Subscription subscription;
+
+  // The publisher stops delivering after onError, so the failure goes to errorHandler
+  // rather than going unnoticed
+  protected BoardChangeSubscriber(Consumer<Throwable> errorHandler) {
+    this.errorHandler = errorHandler;
+  }
+
+  @Override
+  public void onSubscribe(Flow.Subscription subscription) {
+    this.subscription = subscription;
+    subscription.request(1);
+  }
+
+  @Override
+  public void onNext(BoardChange change) {
+    try {
+      handle(change);
+    } finally {
+      subscription.request(1);
+    }
+  }
+
+  protected abstract void handle(BoardChange change);
+
+  @Override
+  public void onError(Throwable throwable) {
+    errorHandler.accept(throwable);
+  }
+
+  @Override
+  public void onComplete() {
+  }
+}
@@ -0,0 +1,36 @@
+package com.sudoku.events;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// Counts edits seen on the stream; a gap in sequence numbers means changes were coalesced away
+public class BoardMetrics extends BoardChangeSubscriber {
+  private final AtomicLong received = new AtomicLong();
+  private final AtomicLong skipped = new AtomicLong();
+  private volatile long lastSequence = -1;
+
+  public BoardMetrics(Consumer<Throwable> errorHandler) {
+    super(errorHandler);
+  }
+
+  @Override
+  protected void handle(BoardChange change) {
+    received.incrementAndGet();
+    if (lastSequence >= 0 && change.getSequence() > lastSequence + 1) {
+      skipped.addAndGet(change.getSequence() - lastSequence - 1);
+    }
+    lastSequence = change.getSequence();
+  }
+
+  public long getReceived() {
+    return received.get();
+  }
+
+  public long getSkipped() {
+    return skipped.get();
+  }
+
+  public long getLastSequence() {
+    return lastSequence;
+  }
+}
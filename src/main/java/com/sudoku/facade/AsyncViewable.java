@@ -0,0 +1,196 @@
+package com.sudoku.facade;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sudoku.logic.IngestReport;
+import com.sudoku.model.Catalog;
+import com.sudoku.model.DifficultyEnum;
+import com.sudoku.model.Game;
+import com.sudoku.model.VerificationResult;
+import com.sudoku.solver.CancellationToken;
+import com.sudoku.solver.SolveOptions;
+import com.sudoku.solver.SolveResult;
+
+// Non-blocking companion to Viewable. Every call runs on the configured executor and
+// returns a CompletableFuture. Cancelling a future, or letting it time out, completes it
+// at once; a task that has not started yet is skipped. Reads and solves that are already
+// running are interrupted. Calls that write game files are not: an interrupt inside NIO
+// closes the channel part way through and could leave game.txt or the move journal half
+// written, so a write that has started runs to the end and only its result is dropped.
+// Checked exceptions from the Viewable (NotFoundException, IOException, ...) complete the
+// future exceptionally.
+public class AsyncViewable {
+  private final Viewable delegate;
+  private final ExecutorService executor;
+  private final Duration timeout;
+  private final boolean ownsExecutor;
+
+  public AsyncViewable(Viewable delegate) {
+    this(delegate, defaultExecutor(), null, true);
+  }
+
+  public AsyncViewable(Viewable delegate, ExecutorService executor) {
+    this(delegate, executor, null, false);
+  }
+
+  public AsyncViewable(Viewable delegate, ExecutorService executor, Duration timeout) {
+    this(delegate, executor, timeout, false);
+  }
+
+  private AsyncViewable(Viewable delegate, ExecutorService executor, Duration timeout, boolean ownsExecutor) {
+    this.delegate = delegate;
+    this.executor = executor;
+    this.timeout = timeout;
+    this.ownsExecutor = ownsExecutor;
+  }
+
+  // Same delegate and executor, but every call fails with a TimeoutException after the given time
+  public AsyncViewable withTimeout(Duration timeout) {
+    return new AsyncViewable(delegate, executor, timeout, false);
+  }
+
+  public CompletableFuture<Catalog> getCatalog() {
+    return submit(delegate::getCatalog);
+  }
+
+  public CompletableFuture<Game> getGame(DifficultyEnum level) {
+    // Starting a game rewrites the current game files
+    return write(() -> delegate.getGame(level));
+  }
+
+  public CompletableFuture<Game> getCurrentGame() {
+    return submit(delegate::getCurrentGame);
+  }
+
+  public CompletableFuture<Void> driveGames(Game sourceGame) {
+    return write(() -> {
+      delegate.driveGames(sourceGame);
+      return null;
+    });
+  }
+
+  public CompletableFuture<IngestReport> ingestGames(Path source) {
+    return write(() -> delegate.ingestGames(source));
+  }
+
+  public CompletableFuture<VerificationResult> verifyGame(Game game) {
+    return submit(() -> delegate.verifyGame(game));
+  }
+
+  public CompletableFuture<int[][]> solveGame(Game game) {
+    return submit(() -> delegate.solveGame(game));
+  }
+
+  public CompletableFuture<int[]> getHint(Game game) {
+    return submit(() -> delegate.getHint(game));
+  }
+
+  // Cancelling the future (or a timeout) also cancels the solver's token
+  public CompletableFuture<SolveResult> solveGame(Game game, SolveOptions options) {
+    CancellationToken token = options.getCancellation() != null
+        ? options.getCancellation()
+        : new CancellationToken();
+    SolveOptions bounded = options.withCancellation(token);
+    CompletableFuture<SolveResult> result = submit(() -> delegate.solveGame(game, bounded));
+    result.whenComplete((value, error) -> {
+      if (error != null) token.cancel();
+    });
+    return result;
+  }
+
+  public CompletableFuture<Void> logUserAction(String userAction) {
+    return write(() -> {
+      delegate.logUserAction(userAction);
+      return null;
+    });
+  }
+
+  public CompletableFuture<Void> updateCurrentGame(Game game) {
+    return write(() -> {
+      delegate.updateCurrentGame(game);
+      return null;
+    });
+  }
+
+  public CompletableFuture<int[]> undoLastMove() {
+    return write(delegate::undoLastMove);
+  }
+
+  public CompletableFuture<Integer> getMoveCount() {
+    return submit(delegate::getMoveCount);
+  }
+
+  public CompletableFuture<Game> getGameAtMove(int move) {
+    return submit(() -> delegate.getGameAtMove(move));
+  }
+
+  public CompletableFuture<Void> rewindToMove(int move) {
+    return write(() -> {
+      delegate.rewindToMove(move);
+      return null;
+    });
+  }
+
+  public CompletableFuture<Void> markGameComplete(DifficultyEnum difficulty) {
+    return write(() -> {
+      delegate.markGameComplete(difficulty);
+      return null;
+    });
+  }
+
+  // Only shuts down the executor created by the single-argument constructor
+  public void shutdown() {
+    if (ownsExecutor) {
+      executor.shutdownNow();
+    }
+  }
+
+  private <T> CompletableFuture<T> submit(Callable<T> task) {
+    return submit(task, true);
+  }
+
+  private <T> CompletableFuture<T> write(Callable<T> task) {
+    return submit(task, false);
+  }
+
+  // The timeout applies to the future; whether the running task is interrupted as well
+  // depends on interruptible
+  private <T> CompletableFuture<T> submit(Callable<T> task, boolean interruptible) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    Future<?> running = executor.submit(() -> {
+      if (result.isDone()) return;
+      try {
+        result.complete(task.call());
+      } catch (Throwable e) {
+        result.completeExceptionally(e);
+      }
+    });
+    result.whenComplete((value, error) -> {
+      if (result.isCancelled() || error instanceof TimeoutException) {
+        running.cancel(interruptible);
+      }
+    });
+    if (timeout != null) {
+      result.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+    return result;
+  }
+
+  private static ExecutorService defaultExecutor() {
+    AtomicInteger counter = new AtomicInteger();
+    return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), task -> {
+      Thread thread = new Thread(task, "sudoku-async-" + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+}
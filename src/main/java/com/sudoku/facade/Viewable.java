@@ -1,10 +1,15 @@
 package com.sudoku.facade;
 
+import com.sudoku.logic.IngestReport;
 import com.sudoku.model.Catalog;
 import com.sudoku.model.Game;
 import com.sudoku.model.DifficultyEnum;
+import com.sudoku.model.VerificationResult;
 import com.sudoku.exception.*;
+import com.sudoku.solver.SolveOptions;
+import com.sudoku.solver.SolveResult;
 import java.io.IOException;
+import java.nio.file.Path;
 
 public interface Viewable {
 
@@ -16,15 +21,31 @@ public interface Viewable {
 
   void driveGames(Game sourceGame) throws SolutionInvalidException;
 
-  String verifyGame(Game game);
+  IngestReport ingestGames(Path source) throws IOException;
+
+  VerificationResult verifyGame(Game game);
 
   int[][] solveGame(Game game) throws InvalidGameException;
 
+  SolveResult solveGame(Game game, SolveOptions options);
+
+  // {row, col, value} for one cell to fill or correct, or null when nothing is known
+  int[] getHint(Game game);
+
   void logUserAction(String userAction) throws IOException;
 
   void updateCurrentGame(Game game) throws IOException;
 
   int[] undoLastMove() throws IOException;
 
+  // Moves logged for the current game, the range of getGameAtMove
+  int getMoveCount() throws IOException;
+
+  // The current game after the given number of logged moves, 0 being the start
+  Game getGameAtMove(int move) throws IOException;
+
+  // Drops the moves after the given one and makes that position the current game
+  void rewindToMove(int move) throws IOException;
+
   void markGameComplete(DifficultyEnum difficulty) throws IOException;
 }
\ No newline at end of file
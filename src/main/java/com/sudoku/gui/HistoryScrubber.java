@@ -0,0 +1,52 @@
+package com.sudoku.gui;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import javax.swing.SwingUtilities;
+
+import com.sudoku.view.Controllable;
+
+// Loads past positions of the current game off the EDT while the history slider moves.
+// Only the newest request matters: queued requests that a later one has overtaken are
+// skipped without touching the disk, and a board that arrives after the slider moved on
+// is dropped instead of shown.
+class HistoryScrubber {
+  private final Controllable controller;
+  private final Consumer<int[][]> display;
+  private final Consumer<String> errors;
+  private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+    Thread thread = new Thread(r, "history-scrubber");
+    thread.setDaemon(true);
+    return thread;
+  });
+  private volatile int latest = -1;
+
+  HistoryScrubber(Controllable controller, Consumer<int[][]> display, Consumer<String> errors) {
+    this.controller = controller;
+    this.display = display;
+    this.errors = errors;
+  }
+
+  void show(int move) {
+    latest = move;
+    executor.execute(() -> {
+      if (latest != move) return;
+      try {
+        int[][] board = controller.getGameAtMove(move);
+        SwingUtilities.invokeLater(() -> {
+          if (latest == move) display.accept(board);
+        });
+      } catch (IOException | IndexOutOfBoundsException e) {
+        SwingUtilities.invokeLater(() -> errors.accept("Cannot show move " + move + ": " + e.getMessage()));
+      }
+    });
+  }
+
+  // Drops whatever is still pending; later results are ignored until the next show()
+  void cancel() {
+    latest = -1;
+  }
+}
@@ -0,0 +1,42 @@
+package com.sudoku.gui;
+
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import javax.swing.SwingUtilities;
+
+import com.sudoku.events.BoardChange;
+import com.sudoku.events.BoardChangeSubscriber;
+import com.sudoku.model.VerificationResult;
+import com.sudoku.view.Controllable;
+
+// Verifies the newest board in the background and repaints conflicts on the EDT,
+// skipping results that a later edit has already made obsolete
+class LiveVerifier extends BoardChangeSubscriber {
+  private final Controllable controller;
+  private final SudokuGrid grid;
+  private final LongSupplier latestSequence;
+  private volatile boolean enabled;
+
+  LiveVerifier(Controllable controller, SudokuGrid grid, LongSupplier latestSequence, Consumer<String> errorHandler) {
+    super(e -> errorHandler.accept("Live check stopped: " + e.getMessage()));
+    this.controller = controller;
+    this.grid = grid;
+    this.latestSequence = latestSequence;
+  }
+
+  void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  @Override
+  protected void handle(BoardChange change) {
+    if (!enabled) return;
+    VerificationResult result = controller.verifyGame(change.getSnapshot().toArray());
+    SwingUtilities.invokeLater(() -> {
+      if (enabled && change.getSequence() == latestSequence.getAsLong()) {
+        grid.showConflicts(result);
+      }
+    });
+  }
+}
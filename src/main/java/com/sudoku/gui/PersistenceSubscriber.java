@@ -0,0 +1,88 @@
+package com.sudoku.gui;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+import com.sudoku.events.BoardChange;
+import com.sudoku.events.BoardChangeSubscriber;
+import com.sudoku.model.BoardSnapshot;
+import com.sudoku.view.Controllable;
+import com.sudoku.view.UserAction;
+
+// Writes the move log and current game off the EDT. Subscribed with the LATEST policy:
+// during a burst of typing only the newest board is pending, and the moves are recovered
+// by diffing it against the last board written, so the log and game file stay in step.
+// A failed write leaves the baseline at the moves that did reach the log, so the next change
+// logs the rest again, and flush() reports false until a later write succeeds.
+class PersistenceSubscriber extends BoardChangeSubscriber {
+  private final Controllable controller;
+  private final Consumer<String> errorHandler;
+  private BoardSnapshot persisted;
+  private long persistedSequence;
+  private long submittedSequence;
+  private boolean failed;
+
+  PersistenceSubscriber(Controllable controller, BoardSnapshot initial, Consumer<String> errorHandler) {
+    super(e -> errorHandler.accept("Saving moves stopped: " + e.getMessage()));
+    this.controller = controller;
+    this.errorHandler = errorHandler;
+    this.persisted = initial;
+  }
+
+  synchronized void submitted(long sequence) {
+    submittedSequence = sequence;
+  }
+
+  @Override
+  protected void handle(BoardChange change) {
+    BoardSnapshot base;
+    synchronized (this) {
+      base = persisted;
+    }
+    BoardSnapshot target = change.getSnapshot();
+    // The board as far as game.log has it; advances one logged move at a time
+    BoardSnapshot logged = base;
+    boolean written = false;
+    try {
+      for (int row = 0; row < 9; row++) {
+        for (int col = 0; col < 9; col++) {
+          int oldValue = base.get(row, col);
+          int newValue = target.get(row, col);
+          if (oldValue != newValue) {
+            controller.logUserAction(new UserAction(row, col, newValue, oldValue));
+            logged = logged.with(row, col, newValue);
+          }
+        }
+      }
+      controller.updateCurrentGame(target.toArray());
+      written = true;
+    } catch (IOException e) {
+      errorHandler.accept("Failed to log move: " + e.getMessage());
+    }
+    synchronized (this) {
+      persisted = logged;
+      failed = !written;
+      persistedSequence = Math.max(persistedSequence, change.getSequence());
+      notifyAll();
+    }
+  }
+
+  // Blocks until every submitted change is on disk; used before undo and completion.
+  // False on timeout, or when the last write failed and disk lags the board on screen.
+  synchronized boolean flush(long timeoutMillis) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + timeoutMillis;
+    while (persistedSequence < submittedSequence) {
+      long remaining = deadline - System.currentTimeMillis();
+      if (remaining <= 0) return false;
+      wait(remaining);
+    }
+    return !failed;
+  }
+
+  // After a change made outside the stream (undo, solve) has been written directly
+  synchronized void reset(BoardSnapshot board) {
+    persisted = board;
+    persistedSequence = submittedSequence;
+    failed = false;
+  }
+}
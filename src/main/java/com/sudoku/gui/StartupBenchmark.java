@@ -0,0 +1,64 @@
+package com.sudoku.gui;
+
+import java.awt.GraphicsEnvironment;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.swing.SwingUtilities;
+
+import com.sudoku.adapter.ControllerAdapter;
+import com.sudoku.controller.SudokuController;
+import com.sudoku.view.Controllable;
+
+// Measures time to first paint and time to the first Verify a user could trigger.
+// Run with: java -cp sudoku-lab10.jar com.sudoku.gui.StartupBenchmark
+public class StartupBenchmark {
+
+  public static void main(String[] args) throws Exception {
+    long jvmUptimeAtMain = ManagementFactory.getRuntimeMXBean().getUptime();
+    long start = System.nanoTime();
+
+    Controllable controller;
+    if (GraphicsEnvironment.isHeadless()) {
+      System.out.println("Headless environment: skipping first-paint measurement");
+      controller = new ControllerAdapter(new SudokuController());
+    } else {
+      AtomicReference<SudokuGUI> gui = new AtomicReference<>();
+      SwingUtilities.invokeAndWait(() -> gui.set(new SudokuGUI()));
+      if (!gui.get().awaitFirstPaint(30, TimeUnit.SECONDS)) {
+        System.out.println("Window was not painted within 30 s");
+        System.exit(1);
+      }
+      report("first paint", start, jvmUptimeAtMain);
+      controller = gui.get().getController();
+    }
+
+    int[][] board = sampleBoard();
+    controller.verifyGame(board);
+    report("first verify", start, jvmUptimeAtMain);
+
+    long warmStart = System.nanoTime();
+    controller.verifyGame(board);
+    System.out.printf("second verify: %.3f ms%n", (System.nanoTime() - warmStart) / 1e6);
+
+    System.exit(0);
+  }
+
+  private static void report(String label, long start, long jvmUptimeAtMain) {
+    double sinceMain = (System.nanoTime() - start) / 1e6;
+    System.out.printf("%s: %.1f ms after main, %.1f ms after JVM start%n",
+        label, sinceMain, sinceMain + jvmUptimeAtMain);
+  }
+
+  private static int[][] sampleBoard() {
+    int[][] board = new int[9][9];
+    for (int row = 0; row < 9; row++) {
+      for (int col = 0; col < 9; col++) {
+        board[row][col] = (row * 3 + row / 3 + col) % 9 + 1;
+      }
+    }
+    board[4][4] = 0;
+    return board;
+  }
+}
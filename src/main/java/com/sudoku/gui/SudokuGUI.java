@@ -1,58 +1,131 @@
 package com.sudoku.gui;
 
 import java.awt.BorderLayout;
-import java.awt.Color;
 import java.awt.FlowLayout;
 import java.awt.Font;
-import java.awt.GridLayout;
-import java.awt.event.FocusAdapter;
-import java.awt.event.FocusEvent;
-import java.awt.event.KeyAdapter;
-import java.awt.event.KeyEvent;
+import java.awt.Graphics;
 import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
 import javax.swing.JFileChooser;
 import javax.swing.JFrame;
+import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
-import javax.swing.JTextField;
+import javax.swing.JSlider;
+import javax.swing.JToggleButton;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 
 import com.sudoku.adapter.ControllerAdapter;
 import com.sudoku.controller.SudokuController;
+import com.sudoku.events.BoardChange;
+import com.sudoku.events.BoardChangePublisher;
+import com.sudoku.events.BoardMetrics;
 import com.sudoku.exception.InvalidGameException;
 import com.sudoku.exception.NotFoundException;
 import com.sudoku.exception.SolutionInvalidException;
+import com.sudoku.model.BoardSnapshot;
+import com.sudoku.model.VerificationResult;
 import com.sudoku.view.Controllable;
-import com.sudoku.view.UserAction;
 
 public class SudokuGUI extends JFrame {
   private Controllable controller;
-  private JTextField[][] cells;
+  private SudokuGrid grid;
+  private JCheckBox liveCheckBox;
   private JButton verifyButton;
   private JButton solveButton;
   private JButton undoButton;
+  private JButton hintButton;
+  private JToggleButton historyButton;
+  private JSlider historySlider;
+  private JLabel historyLabel;
+  private JButton rewindButton;
+  private HistoryScrubber scrubber;
   
   // DATA
   private int[][] currentBoard;
   private int[][] initialBoard; // Holds the clean puzzle state
   private char currentDifficulty;
 
+  // EVENTS: edits are published here; disk writes and live checks run off the EDT
+  private BoardChangePublisher events;
+  private PersistenceSubscriber persistence;
+  private LiveVerifier liveVerifier;
+  private BoardMetrics metrics;
+  private BoardSnapshot snapshot;
+  private volatile long sequence;
+
+  private final CountDownLatch firstPaint = new CountDownLatch(1);
+
   public SudokuGUI() {
-    this.controller = new ControllerAdapter(new SudokuController());
+    this(new SudokuController());
+  }
+
+  SudokuGUI(SudokuController core) {
+    core.startWarmUp();
+    core.startPrefetch();
+    this.controller = new ControllerAdapter(core);
+    Runtime.getRuntime().addShutdownHook(new Thread(this::flushMoves, "flush-moves"));
 
     setTitle("Sudoku Game - Lab 10");
     setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
     setSize(600, 700);
     setLocationRelativeTo(null);
 
-    initializeGame();
+    // Paint the window first, then scan storage in the background
+    JLabel loading = new JLabel("Loading...", JLabel.CENTER);
+    loading.setFont(new Font("Arial", Font.BOLD, 20));
+    add(loading);
+    setVisible(true);
+
+    loadCatalog();
+  }
+
+  @Override
+  public void paint(Graphics g) {
+    super.paint(g);
+    firstPaint.countDown();
+  }
+
+  boolean awaitFirstPaint(long timeout, TimeUnit unit) throws InterruptedException {
+    return firstPaint.await(timeout, unit);
+  }
+
+  Controllable getController() {
+    return controller;
+  }
+
+  BoardMetrics getMetrics() {
+    return metrics;
+  }
+
+  private void loadCatalog() {
+    new SwingWorker<boolean[], Void>() {
+      @Override
+      protected boolean[] doInBackground() {
+        return controller.getCatalog();
+      }
+
+      @Override
+      protected void done() {
+        try {
+          initializeGame(get());
+        } catch (InterruptedException | ExecutionException e) {
+          showError("Initialization failed: " + e.getMessage());
+          System.exit(1);
+        }
+      }
+    }.execute();
   }
 
-  private void initializeGame() {
-    boolean[] catalog = controller.getCatalog();
+  private void initializeGame(boolean[] catalog) {
     boolean hasCurrent = catalog[0];
     boolean hasAllModes = catalog[1];
 
@@ -80,7 +153,7 @@ public class SudokuGUI extends JFrame {
   }
 
   private void askDifficulty() {
-    String[] options = { "Easy", "Medium", "Hard" };
+    String[] options = { "Easy", "Medium", "Hard", "Expert" };
     int choice = JOptionPane.showOptionDialog(this, "Select difficulty level:",
         "Choose Difficulty", JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE,
         null, options, options[0]);
@@ -90,6 +163,7 @@ public class SudokuGUI extends JFrame {
         case 0: loadGame('e'); break;
         case 1: loadGame('m'); break;
         case 2: loadGame('h'); break;
+        case 3: loadGame('x'); break;
         default: System.exit(0);
       }
     } catch (NotFoundException e) {
@@ -99,21 +173,32 @@ public class SudokuGUI extends JFrame {
   }
 
   private void askForSourceFile() {
-    JFileChooser fileChooser = new JFileChooser();
-    fileChooser.setDialogTitle("Select Solved Sudoku File");
-    int result = fileChooser.showOpenDialog(this);
-    if (result == JFileChooser.APPROVE_OPTION) {
-      String path = fileChooser.getSelectedFile().getAbsolutePath();
-      try {
-        controller.driveGames(path);
-        JOptionPane.showMessageDialog(this, "Games generated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-        askDifficulty();
-      } catch (SolutionInvalidException e) {
-        showError("Invalid source solution: " + e.getMessage());
-        System.exit(1);
-      }
+    String[] options = { "Generate", "Choose File" };
+    int choice = JOptionPane.showOptionDialog(this, "No games available. Generate new puzzles or load a solved Sudoku?",
+        "Create Games", JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE,
+        null, options, options[0]);
+
+    String path;
+    if (choice == 0) {
+      path = null; // built-in generator
+    } else if (choice == 1) {
+      JFileChooser fileChooser = new JFileChooser();
+      fileChooser.setDialogTitle("Select Solved Sudoku File");
+      int result = fileChooser.showOpenDialog(this);
+      if (result != JFileChooser.APPROVE_OPTION) System.exit(0);
+      path = fileChooser.getSelectedFile().getAbsolutePath();
     } else {
       System.exit(0);
+      return;
+    }
+
+    try {
+      controller.driveGames(path);
+      JOptionPane.showMessageDialog(this, "Games generated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+      askDifficulty();
+    } catch (SolutionInvalidException e) {
+      showError("Invalid source solution: " + e.getMessage());
+      System.exit(1);
     }
   }
 
@@ -148,91 +233,59 @@ public class SudokuGUI extends JFrame {
     // Create the grid using the loaded data
     JPanel gridPanel = createGridPanel();
     add(gridPanel, BorderLayout.CENTER);
+    subscribeToEdits();
 
     JPanel controlPanel = createControlPanel();
     add(controlPanel, BorderLayout.SOUTH);
+    add(createHistoryPanel(), BorderLayout.NORTH);
 
     revalidate();
     repaint();
     setVisible(true);
+    grid.requestFocusInWindow();
   }
 
   private JPanel createGridPanel() {
-    JPanel panel = new JPanel(new GridLayout(9, 9, 2, 2));
+    JPanel panel = new JPanel(new BorderLayout());
     panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
-    panel.setBackground(Color.BLACK);
-
-    cells = new JTextField[9][9];
+    grid = new SudokuGrid(currentBoard, initialBoard, this::onCellChanged);
+    panel.add(grid, BorderLayout.CENTER);
+    return panel;
+  }
 
-    for (int row = 0; row < 9; row++) {
-      for (int col = 0; col < 9; col++) {
-        JTextField cell = new JTextField();
-        cell.setHorizontalAlignment(JTextField.CENTER);
-        cell.setFont(new Font("Arial", Font.BOLD, 20));
-
-        int currentValue = currentBoard[row][col];
-        // Check the INITIAL board to see if this cell was originally empty
-        int initialValue = (initialBoard != null) ? initialBoard[row][col] : currentValue;
-
-        if (initialValue != 0) {
-          // It was part of the original puzzle -> LOCK IT
-          cell.setText(String.valueOf(currentValue));
-          cell.setEditable(false);
-          cell.setBackground(Color.LIGHT_GRAY);
-        } else {
-          // It was originally empty -> USER CAN EDIT
-          if (currentValue != 0) {
-             cell.setText(String.valueOf(currentValue));
-          } else {
-             cell.setText("");
-          }
-          cell.setBackground(Color.WHITE);
-          cell.setEditable(true);
-
-          final int r = row;
-          final int c = col;
-
-          cell.addFocusListener(new FocusAdapter() {
-            private String oldValue = "";
-            @Override
-            public void focusGained(FocusEvent e) { oldValue = cell.getText(); }
-            @Override
-            public void focusLost(FocusEvent e) {
-              String newValue = cell.getText().trim();
-              if (!newValue.equals(oldValue)) {
-                int oldVal = oldValue.isEmpty() ? 0 : Integer.parseInt(oldValue);
-                int newVal = newValue.isEmpty() ? 0 : Integer.parseInt(newValue);
-                currentBoard[r][c] = newVal;
-                try {
-                  UserAction action = new UserAction(r, c, newVal, oldVal);
-                  controller.logUserAction(action);
-                  controller.updateCurrentGame(currentBoard);
-                } catch (IOException ex) {
-                  showError("Failed to log move: " + ex.getMessage());
-                }
-                updateSolveButton();
-              }
-            }
-          });
-          
-          cell.addKeyListener(new KeyAdapter() {
-            @Override
-            public void keyTyped(KeyEvent e) {
-              char c = e.getKeyChar();
-              if (!Character.isDigit(c) || c == '0') { e.consume(); }
-            }
-          });
-        }
+  private void subscribeToEdits() {
+    if (events != null) events.close();
+    snapshot = BoardSnapshot.of(currentBoard);
+    sequence = 0;
+    events = new BoardChangePublisher();
+    Consumer<String> errors = message -> SwingUtilities.invokeLater(() -> showError(message));
+    persistence = new PersistenceSubscriber(controller, snapshot, errors);
+    liveVerifier = new LiveVerifier(controller, grid, () -> sequence, errors);
+    metrics = new BoardMetrics(e -> errors.accept("Edit metrics stopped: " + e.getMessage()));
+    events.subscribe(persistence, BoardChangePublisher.Policy.LATEST, 1);
+    events.subscribe(liveVerifier, BoardChangePublisher.Policy.LATEST, 1);
+    events.subscribe(metrics, BoardChangePublisher.Policy.DROP_OLDEST, BoardChangePublisher.DEFAULT_CAPACITY);
+  }
 
-        int top = (row % 3 == 0) ? 3 : 1;
-        int left = (col % 3 == 0) ? 3 : 1;
-        cell.setBorder(BorderFactory.createMatteBorder(top, left, 1, 1, Color.BLACK));
+  private void onCellChanged(int row, int col, int newVal, int oldVal) {
+    snapshot = snapshot.with(row, col, newVal);
+    long next = sequence + 1;
+    sequence = next;
+    persistence.submitted(next);
+    events.submit(new BoardChange(next, row, col, newVal, oldVal, snapshot));
+    updateSolveButton();
+  }
 
-        cells[row][col] = cell;
-        panel.add(cell);
-      }
+  // Waits for pending edits to reach disk; false if they did not within the timeout or the
+  // last write failed (the next edit retries the moves that are missing)
+  private boolean flushMoves() {
+    if (persistence == null) return true;
+    try {
+      return persistence.flush(2000);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
     }
-    return panel;
   }
 
   // --- Standard Control Panel Logic ---
@@ -241,18 +294,129 @@ public class SudokuGUI extends JFrame {
     verifyButton = new JButton("Verify");
     solveButton = new JButton("Solve");
     undoButton = new JButton("Undo");
+    hintButton = new JButton("Hint");
+    JToggleButton pencilButton = new JToggleButton("Pencil");
+    liveCheckBox = new JCheckBox("Live check");
 
     verifyButton.addActionListener(e -> verifyGame());
     solveButton.addActionListener(e -> solveGame());
     undoButton.addActionListener(e -> undoMove());
+    hintButton.addActionListener(e -> showHint());
+    pencilButton.setSelected(grid.isPencilMode());
+    pencilButton.addActionListener(e -> {
+      grid.setPencilMode(pencilButton.isSelected());
+      grid.requestFocusInWindow();
+    });
+    grid.addPropertyChangeListener(SudokuGrid.PENCIL_MODE, e -> pencilButton.setSelected((Boolean) e.getNewValue()));
+    liveCheckBox.addActionListener(e -> {
+      liveVerifier.setEnabled(liveCheckBox.isSelected());
+      if (liveCheckBox.isSelected()) grid.showConflicts(controller.verifyGame(currentBoard));
+      grid.requestFocusInWindow();
+    });
 
     updateSolveButton();
     panel.add(verifyButton);
     panel.add(solveButton);
     panel.add(undoButton);
+    panel.add(hintButton);
+    panel.add(pencilButton);
+    panel.add(liveCheckBox);
+    return panel;
+  }
+
+  // Scrubbing: the slider previews past positions read-only; "Rewind here" makes one current
+  private JPanel createHistoryPanel() {
+    JPanel panel = new JPanel(new FlowLayout());
+    historyButton = new JToggleButton("History");
+    historySlider = new JSlider(0, 0, 0);
+    historyLabel = new JLabel(" ");
+    rewindButton = new JButton("Rewind here");
+    scrubber = new HistoryScrubber(controller, this::showBoard, this::showError);
+    historySlider.setEnabled(false);
+    rewindButton.setEnabled(false);
+
+    historyButton.addActionListener(e -> {
+      if (historyButton.isSelected()) enterHistory();
+      else leaveHistory();
+    });
+    historySlider.addChangeListener(e -> {
+      if (!historyButton.isSelected()) return;
+      int move = historySlider.getValue();
+      historyLabel.setText("Move " + move + " of " + historySlider.getMaximum());
+      scrubber.show(move);
+    });
+    rewindButton.addActionListener(e -> rewindHere());
+
+    panel.add(historyButton);
+    panel.add(historySlider);
+    panel.add(historyLabel);
+    panel.add(rewindButton);
     return panel;
   }
 
+  private void enterHistory() {
+    int moves;
+    try {
+      if (!flushMoves()) throw new IOException("previous moves are not saved yet");
+      moves = controller.getMoveCount();
+    } catch (IOException e) {
+      historyButton.setSelected(false);
+      showError("History unavailable: " + e.getMessage());
+      return;
+    }
+    grid.setReadOnly(true);
+    setEditingEnabled(false);
+    historySlider.setMaximum(moves);
+    historySlider.setValue(moves);
+    historySlider.setEnabled(true);
+    rewindButton.setEnabled(true);
+    historyLabel.setText("Move " + moves + " of " + moves);
+  }
+
+  private void leaveHistory() {
+    scrubber.cancel();
+    historyButton.setSelected(false);
+    historySlider.setEnabled(false);
+    rewindButton.setEnabled(false);
+    historyLabel.setText(" ");
+    showBoard(snapshot.toArray());
+    grid.setReadOnly(false);
+    setEditingEnabled(true);
+    grid.requestFocusInWindow();
+  }
+
+  private void rewindHere() {
+    int move = historySlider.getValue();
+    try {
+      controller.rewindToMove(move);
+      scrubber.cancel();
+      showBoard(controller.getGameAtMove(move));
+    } catch (IOException e) {
+      showError("Rewind failed: " + e.getMessage());
+      return;
+    }
+    snapshot = BoardSnapshot.of(currentBoard);
+    persistence.reset(snapshot);
+    leaveHistory();
+  }
+
+  // Repaints only the cells that differ from what is shown
+  private void showBoard(int[][] board) {
+    for (int row = 0; row < 9; row++) {
+      for (int col = 0; col < 9; col++) {
+        if (currentBoard[row][col] != board[row][col]) grid.setValue(row, col, board[row][col]);
+      }
+    }
+  }
+
+  private void setEditingEnabled(boolean enabled) {
+    verifyButton.setEnabled(enabled);
+    undoButton.setEnabled(enabled);
+    hintButton.setEnabled(enabled);
+    if (enabled) updateSolveButton();
+    else solveButton.setEnabled(false);
+  }
+
   private void updateSolveButton() {
     int emptyCount = 0;
     for (int row = 0; row < 9; row++) {
@@ -264,26 +428,21 @@ public class SudokuGUI extends JFrame {
   }
 
   private void verifyGame() {
-    boolean[][] validCells = controller.verifyGame(currentBoard);
+    VerificationResult result = controller.verifyGame(currentBoard);
     boolean isComplete = true;
     for (int[] row : currentBoard) {
         for (int val : row) if (val == 0) isComplete = false;
     }
 
-    boolean hasInvalid = false;
-    for (int row = 0; row < 9; row++) {
-      for (int col = 0; col < 9; col++) {
-        if (!validCells[row][col]) {
-          cells[row][col].setBackground(Color.RED);
-          hasInvalid = true;
-        } else if (cells[row][col].isEditable()) {
-          cells[row][col].setBackground(Color.WHITE);
-        }
-      }
-    }
+    boolean hasInvalid = result.getConflictCount() > 0;
+    grid.showConflicts(result);
 
     if (isComplete) {
       if (!hasInvalid) {
+        if (!flushMoves()) {
+          showError("Cannot complete the game: previous moves are not saved yet");
+          return;
+        }
         try {
           controller.markGameComplete(currentDifficulty);
           JOptionPane.showMessageDialog(this, "Congratulations! Puzzle solved correctly!", "Success", JOptionPane.INFORMATION_MESSAGE);
@@ -301,23 +460,53 @@ public class SudokuGUI extends JFrame {
   }
 
   private void solveGame() {
+    if (!flushMoves()) {
+      showError("Solve failed: previous moves are not saved yet");
+      return;
+    }
     try {
       int[][] solution = controller.solveGame(currentBoard);
       for (int[] entry : solution) {
         int row = entry[0];
         int col = entry[1];
         int value = entry[2];
-        currentBoard[row][col] = value;
-        cells[row][col].setText(String.valueOf(value));
-        cells[row][col].setBackground(Color.GREEN);
+        grid.setValue(row, col, value);
+        grid.markSolved(row, col);
       }
+      // Solved cells are not player moves: they go straight to the saved board, and the
+      // persistence baseline moves past them so they are never logged
+      snapshot = BoardSnapshot.of(currentBoard);
+      persistence.reset(snapshot);
+      controller.updateCurrentGame(currentBoard);
+      updateSolveButton();
       JOptionPane.showMessageDialog(this, "Solution found and applied!", "Solved", JOptionPane.INFORMATION_MESSAGE);
     } catch (InvalidGameException e) {
       showError("Cannot solve: " + e.getMessage());
+    } catch (IOException e) {
+      showError("Failed to save the solved board: " + e.getMessage());
     }
   }
 
+  // Fills one empty cell, or corrects a wrong one, from the stored solution
+  private void showHint() {
+    int[] hint = controller.getHint(currentBoard);
+    if (hint == null) {
+      showError("No hint available");
+      return;
+    }
+    int row = hint[0], col = hint[1], value = hint[2];
+    int oldValue = currentBoard[row][col];
+    grid.setValue(row, col, value);
+    grid.markSolved(row, col);
+    onCellChanged(row, col, value, oldValue);
+    grid.requestFocusInWindow();
+  }
+
   private void undoMove() {
+    if (!flushMoves()) {
+      showError("Undo failed: previous moves are not saved yet");
+      return;
+    }
     try {
       int[] moveData = controller.undoLastMove();
       if (moveData == null) {
@@ -325,10 +514,10 @@ public class SudokuGUI extends JFrame {
         return;
       }
       int x = moveData[0], y = moveData[1], oldValue = moveData[3];
-      currentBoard[x][y] = oldValue;
-      if (oldValue == 0) cells[x][y].setText("");
-      else cells[x][y].setText(String.valueOf(oldValue));
+      grid.setValue(x, y, oldValue);
       controller.updateCurrentGame(currentBoard);
+      snapshot = BoardSnapshot.of(currentBoard);
+      persistence.reset(snapshot);
       updateSolveButton();
     } catch (IOException e) {
       showError("Undo failed: " + e.getMessage());
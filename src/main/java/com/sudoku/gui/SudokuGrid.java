@@ -0,0 +1,276 @@
+package com.sudoku.gui;
+
+import java.awt.AWTEvent;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseEvent;
+
+import javax.swing.JComponent;
+
+import com.sudoku.model.VerificationResult;
+
+// Paints the whole board itself and handles its own keyboard and mouse input, instead
+// of 81 JTextFields with a listener each. After a change only the affected cell
+// rectangles are repainted.
+class SudokuGrid extends JComponent {
+  interface MoveListener {
+    void cellChanged(int row, int col, int newValue, int oldValue);
+  }
+
+  private static final long serialVersionUID = 1L;
+  // Property fired by setPencilMode
+  static final String PENCIL_MODE = "pencilMode";
+
+  private static final byte NORMAL = 0;
+  private static final byte CONFLICT = 1;
+  private static final byte SOLVED = 2;
+  private static final Color SELECTED = new Color(200, 220, 255);
+  private static final Color PENCIL = new Color(90, 90, 90);
+  private static final BasicStroke THIN = new BasicStroke(1);
+  private static final BasicStroke THICK = new BasicStroke(3);
+
+  private final int[][] board;      // shared with the GUI, like Game does
+  private final boolean[] locked = new boolean[81];
+  private final byte[] highlight = new byte[81];
+  private final int[] pencilMarks = new int[81]; // bit v-1 set = pencil mark v
+  private final MoveListener listener;
+  private int selected = -1;
+  private boolean pencilMode;
+  // Fonts for the last painted cell size; rebuilt only when the grid is resized
+  private int fontCellSize = -1;
+  private Font valueFont;
+  private Font pencilFont;
+  private boolean readOnly;
+
+  SudokuGrid(int[][] board, int[][] initialBoard, MoveListener listener) {
+    this.board = board;
+    this.listener = listener;
+    for (int cell = 0; cell < 81; cell++) {
+      int initial = initialBoard != null ? initialBoard[cell / 9][cell % 9] : board[cell / 9][cell % 9];
+      locked[cell] = initial != 0;
+    }
+    setFocusable(true);
+    setOpaque(true);
+    setPreferredSize(new Dimension(540, 540));
+    enableEvents(AWTEvent.KEY_EVENT_MASK | AWTEvent.MOUSE_EVENT_MASK);
+  }
+
+  // The P key and the Pencil button both go through here; listeners of PENCIL_MODE keep
+  // the button in step with the key
+  void setPencilMode(boolean pencilMode) {
+    boolean old = this.pencilMode;
+    this.pencilMode = pencilMode;
+    firePropertyChange(PENCIL_MODE, old, pencilMode);
+  }
+
+  boolean isPencilMode() {
+    return pencilMode;
+  }
+
+  // While set, typing changes nothing; used while a past position is on display
+  void setReadOnly(boolean readOnly) {
+    this.readOnly = readOnly;
+  }
+
+  boolean isLocked(int row, int col) {
+    return locked[row * 9 + col];
+  }
+
+  // Programmatic change (undo, solve); does not notify the listener
+  void setValue(int row, int col, int value) {
+    int cell = row * 9 + col;
+    board[row][col] = value;
+    if (value != 0) pencilMarks[cell] = 0;
+    repaintCell(cell);
+  }
+
+  void markSolved(int row, int col) {
+    setHighlight(row * 9 + col, SOLVED);
+  }
+
+  // Replaces all highlights with the conflicts in result, repainting only cells that change
+  void showConflicts(VerificationResult result) {
+    for (int cell = 0; cell < 81; cell++) {
+      setHighlight(cell, result.isConflict(cell / 9, cell % 9) ? CONFLICT : NORMAL);
+    }
+  }
+
+  private void setHighlight(int cell, byte state) {
+    if (highlight[cell] != state) {
+      highlight[cell] = state;
+      repaintCell(cell);
+    }
+  }
+
+  @Override
+  protected void processMouseEvent(MouseEvent e) {
+    if (e.getID() == MouseEvent.MOUSE_PRESSED) {
+      requestFocusInWindow();
+      int cell = cellAt(e.getX(), e.getY());
+      if (cell >= 0) select(cell);
+    }
+    super.processMouseEvent(e);
+  }
+
+  @Override
+  protected void processKeyEvent(KeyEvent e) {
+    if (e.getID() == KeyEvent.KEY_PRESSED && selected >= 0) {
+      switch (e.getKeyCode()) {
+        case KeyEvent.VK_UP: select(((selected / 9 + 8) % 9) * 9 + selected % 9); break;
+        case KeyEvent.VK_DOWN: select(((selected / 9 + 1) % 9) * 9 + selected % 9); break;
+        case KeyEvent.VK_LEFT: select((selected / 9) * 9 + (selected % 9 + 8) % 9); break;
+        case KeyEvent.VK_RIGHT: select((selected / 9) * 9 + (selected % 9 + 1) % 9); break;
+        case KeyEvent.VK_BACK_SPACE:
+        case KeyEvent.VK_DELETE:
+        case KeyEvent.VK_0:
+        case KeyEvent.VK_NUMPAD0:
+          enter(0);
+          break;
+        default:
+          break;
+      }
+    } else if (e.getID() == KeyEvent.KEY_TYPED) {
+      char c = e.getKeyChar();
+      if (c == 'p' || c == 'P') {
+        setPencilMode(!pencilMode);
+      } else if (c >= '1' && c <= '9' && selected >= 0) {
+        enter(c - '0');
+      }
+    }
+    super.processKeyEvent(e);
+  }
+
+  private void enter(int value) {
+    if (readOnly || locked[selected]) return;
+    int row = selected / 9;
+    int col = selected % 9;
+    if (pencilMode && value != 0) {
+      if (board[row][col] == 0) {
+        pencilMarks[selected] ^= 1 << (value - 1);
+        repaintCell(selected);
+      }
+      return;
+    }
+    int oldValue = board[row][col];
+    if (oldValue == value) return;
+    board[row][col] = value;
+    if (value != 0) pencilMarks[selected] = 0;
+    repaintCell(selected);
+    listener.cellChanged(row, col, value, oldValue);
+  }
+
+  private void select(int cell) {
+    int previous = selected;
+    selected = cell;
+    if (previous >= 0) repaintCell(previous);
+    repaintCell(cell);
+  }
+
+  @Override
+  protected void paintComponent(Graphics graphics) {
+    Graphics2D g = (Graphics2D) graphics;
+    g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+    g.setColor(getParent() != null ? getParent().getBackground() : Color.WHITE);
+    Rectangle clip = g.getClipBounds();
+    if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+    g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+    int size = cellSize();
+    if (size != fontCellSize) {
+      valueFont = new Font("Arial", Font.BOLD, size / 2);
+      pencilFont = new Font("Arial", Font.PLAIN, Math.max(8, size / 4));
+      fontCellSize = size;
+    }
+    for (int cell = 0; cell < 81; cell++) {
+      Rectangle r = cellBounds(cell, size);
+      if (clip.intersects(r)) {
+        paintCell(g, cell, r, valueFont, pencilFont);
+      }
+    }
+    paintGridLines(g, size);
+  }
+
+  private void paintCell(Graphics2D g, int cell, Rectangle r, Font valueFont, Font pencilFont) {
+    g.setColor(background(cell));
+    g.fillRect(r.x, r.y, r.width, r.height);
+
+    int value = board[cell / 9][cell % 9];
+    if (value != 0) {
+      g.setFont(valueFont);
+      g.setColor(Color.BLACK);
+      drawCentered(g, String.valueOf(value), r.x, r.y, r.width, r.height);
+    } else if (pencilMarks[cell] != 0) {
+      g.setFont(pencilFont);
+      g.setColor(PENCIL);
+      int third = r.width / 3;
+      for (int v = 1; v <= 9; v++) {
+        if ((pencilMarks[cell] & (1 << (v - 1))) != 0) {
+          drawCentered(g, String.valueOf(v), r.x + ((v - 1) % 3) * third, r.y + ((v - 1) / 3) * third, third, third);
+        }
+      }
+    }
+  }
+
+  private Color background(int cell) {
+    if (highlight[cell] == CONFLICT) return Color.RED;
+    if (highlight[cell] == SOLVED) return Color.GREEN;
+    if (cell == selected) return SELECTED;
+    return locked[cell] ? Color.LIGHT_GRAY : Color.WHITE;
+  }
+
+  private void paintGridLines(Graphics2D g, int size) {
+    g.setColor(Color.BLACK);
+    int extent = size * 9;
+    for (int i = 0; i <= 9; i++) {
+      g.setStroke(i % 3 == 0 ? THICK : THIN);
+      int pos = i * size;
+      g.drawLine(originX() + pos, originY(), originX() + pos, originY() + extent);
+      g.drawLine(originX(), originY() + pos, originX() + extent, originY() + pos);
+    }
+  }
+
+  private static void drawCentered(Graphics2D g, String text, int x, int y, int width, int height) {
+    FontMetrics metrics = g.getFontMetrics();
+    int textX = x + (width - metrics.stringWidth(text)) / 2;
+    int textY = y + (height - metrics.getHeight()) / 2 + metrics.getAscent();
+    g.drawString(text, textX, textY);
+  }
+
+  private int cellSize() {
+    return Math.max(1, (Math.min(getWidth(), getHeight()) - 4) / 9);
+  }
+
+  private int originX() {
+    return (getWidth() - cellSize() * 9) / 2;
+  }
+
+  private int originY() {
+    return (getHeight() - cellSize() * 9) / 2;
+  }
+
+  private Rectangle cellBounds(int cell, int size) {
+    return new Rectangle(originX() + (cell % 9) * size, originY() + (cell / 9) * size, size, size);
+  }
+
+  private int cellAt(int x, int y) {
+    int size = cellSize();
+    int col = (x - originX()) / size;
+    int row = (y - originY()) / size;
+    if (x < originX() || y < originY() || col > 8 || row > 8) return -1;
+    return row * 9 + col;
+  }
+
+  // Grid lines overlap neighbouring cells, so the dirty rectangle is padded slightly
+  private void repaintCell(int cell) {
+    Rectangle r = cellBounds(cell, cellSize());
+    repaint(r.x - 2, r.y - 2, r.width + 4, r.height + 4);
+  }
+}
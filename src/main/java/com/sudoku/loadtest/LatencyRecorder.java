@@ -0,0 +1,53 @@
+package com.sudoku.loadtest;
+
+import java.util.Arrays;
+
+// Per-player, single-threaded latency log; merged after the run
+class LatencyRecorder {
+  private long[] samples = new long[1024];
+  private int count;
+  private long errors;
+  private String firstError;
+
+  void record(long nanos) {
+    if (count == samples.length) {
+      samples = Arrays.copyOf(samples, count * 2);
+    }
+    samples[count++] = nanos;
+  }
+
+  void error(Exception e) {
+    errors++;
+    if (firstError == null) {
+      firstError = e.getClass().getSimpleName() + ": " + e.getMessage();
+    }
+  }
+
+  void mergeFrom(LatencyRecorder other) {
+    for (int i = 0; i < other.count; i++) {
+      record(other.samples[i]);
+    }
+    errors += other.errors;
+    if (firstError == null) firstError = other.firstError;
+  }
+
+  int getCount() {
+    return count;
+  }
+
+  long getErrors() {
+    return errors;
+  }
+
+  String getFirstError() {
+    return firstError;
+  }
+
+  // Sorts in place; call once all samples are merged
+  long percentile(double p) {
+    if (count == 0) return 0;
+    Arrays.sort(samples, 0, count);
+    int index = (int) Math.ceil(p * count) - 1;
+    return samples[Math.max(0, Math.min(count - 1, index))];
+  }
+}
@@ -0,0 +1,306 @@
+package com.sudoku.loadtest;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+
+import com.sudoku.adapter.ControllerAdapter;
+import com.sudoku.controller.SudokuController;
+import com.sudoku.logic.SudokuVerifier;
+import com.sudoku.solver.SolveOptions;
+import com.sudoku.solver.SolveResult;
+import com.sudoku.solver.SudokuSolver;
+import com.sudoku.storage.StorageManager;
+import com.sudoku.view.Controllable;
+import com.sudoku.view.UserAction;
+
+// Simulates N concurrent players driving the Controllable API against temporary storage.
+//
+// Usage: java -cp sudoku-lab10.jar com.sudoku.loadtest.LoadTest [options]
+//   --players N           concurrent players (default 16)
+//   --duration S          measured seconds (default 30)
+//   --warmup S            seconds run before measuring (default 5)
+//   --think MIN-MAX       think time per player in ms (default 0-20)
+//   --mix op=w,...        operation weights, e.g. logUserAction=40,verifyGame=15
+//   --shared-storage      all players share one storage root (default: one root each)
+//   --keep                keep the temporary storage roots
+public class LoadTest {
+
+  enum Operation {
+    GET_GAME("getGame", 5),
+    LOG_USER_ACTION("logUserAction", 40),
+    UPDATE_CURRENT_GAME("updateCurrentGame", 30),
+    VERIFY_GAME("verifyGame", 15),
+    UNDO_LAST_MOVE("undoLastMove", 8),
+    SOLVE_GAME("solveGame", 2);
+
+    final String apiName;
+    final int defaultWeight;
+
+    Operation(String apiName, int defaultWeight) {
+      this.apiName = apiName;
+      this.defaultWeight = defaultWeight;
+    }
+
+    static Operation byName(String name) {
+      for (Operation op : values()) {
+        if (op.apiName.equalsIgnoreCase(name)) return op;
+      }
+      throw new IllegalArgumentException("Unknown operation: " + name);
+    }
+  }
+
+  private int players = 16;
+  private int durationSeconds = 30;
+  private int warmupSeconds = 5;
+  private int thinkMin = 0;
+  private int thinkMax = 20;
+  private boolean sharedStorage;
+  private boolean keep;
+  private final Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+
+  public static void main(String[] args) throws Exception {
+    LoadTest test = new LoadTest();
+    test.parse(args);
+    test.run();
+  }
+
+  private void parse(String[] args) {
+    for (Operation op : Operation.values()) weights.put(op, op.defaultWeight);
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "--players": players = Integer.parseInt(args[++i]); break;
+        case "--duration": durationSeconds = Integer.parseInt(args[++i]); break;
+        case "--warmup": warmupSeconds = Integer.parseInt(args[++i]); break;
+        case "--think": {
+          String[] range = args[++i].split("-");
+          thinkMin = Integer.parseInt(range[0]);
+          thinkMax = range.length > 1 ? Integer.parseInt(range[1]) : thinkMin;
+          break;
+        }
+        case "--mix":
+          for (Operation op : Operation.values()) weights.put(op, 0);
+          for (String entry : args[++i].split(",")) {
+            String[] pair = entry.split("=");
+            weights.put(Operation.byName(pair[0].trim()), Integer.parseInt(pair[1].trim()));
+          }
+          break;
+        case "--shared-storage": sharedStorage = true; break;
+        case "--keep": keep = true; break;
+        default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+      }
+    }
+    if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+      throw new IllegalArgumentException("Operation mix must have a positive total weight");
+    }
+  }
+
+  private void run() throws Exception {
+    Path root = Files.createTempDirectory("sudoku-load");
+    System.out.printf("%d players, %ds warm-up + %ds measured, think %d-%d ms, %s storage under %s%n",
+        players, warmupSeconds, durationSeconds, thinkMin, thinkMax,
+        sharedStorage ? "shared" : "per-player", root);
+
+    Controllable shared = sharedStorage ? controllerFor(root) : null;
+    long now = System.nanoTime();
+    long measureFrom = now + warmupSeconds * 1_000_000_000L;
+    long end = measureFrom + durationSeconds * 1_000_000_000L;
+
+    CountDownLatch startSignal = new CountDownLatch(1);
+    List<Player> all = new ArrayList<>();
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < players; i++) {
+      Controllable controller = shared != null ? shared : controllerFor(root.resolve("player-" + i));
+      Player player = new Player(controller, new SplittableRandom(i), measureFrom, end, startSignal);
+      Thread thread = new Thread(player, "player-" + i);
+      all.add(player);
+      threads.add(thread);
+      thread.start();
+    }
+    startSignal.countDown();
+    for (Thread thread : threads) thread.join();
+
+    report(all);
+    if (!keep) deleteRecursively(root);
+  }
+
+  private static Controllable controllerFor(Path storageRoot) {
+    return new ControllerAdapter(new SudokuController(new StorageManager(storageRoot)));
+  }
+
+  private void report(List<Player> all) {
+    System.out.printf("%n%-18s %9s %8s %10s %9s %9s %9s %9s %9s%n",
+        "operation", "count", "errors", "ops/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+    long total = 0;
+    long totalErrors = 0;
+    List<String> errorSamples = new ArrayList<>();
+    for (Operation op : Operation.values()) {
+      LatencyRecorder merged = new LatencyRecorder();
+      for (Player player : all) merged.mergeFrom(player.recorders.get(op));
+      if (merged.getCount() == 0 && merged.getErrors() == 0) continue;
+      total += merged.getCount();
+      totalErrors += merged.getErrors();
+      if (merged.getFirstError() != null) errorSamples.add(op.apiName + ": " + merged.getFirstError());
+      System.out.printf("%-18s %9d %8d %10.1f %9.3f %9.3f %9.3f %9.3f %9.3f%n",
+          op.apiName, merged.getCount(), merged.getErrors(), merged.getCount() / (double) durationSeconds,
+          merged.percentile(0.50) / 1e6, merged.percentile(0.90) / 1e6, merged.percentile(0.99) / 1e6,
+          merged.percentile(0.999) / 1e6, merged.percentile(1.0) / 1e6);
+    }
+    System.out.printf("%ntotal: %d ops, %.1f ops/s, %d errors%n", total, total / (double) durationSeconds, totalErrors);
+    for (String sample : errorSamples) {
+      System.out.println("  first error in " + sample);
+    }
+  }
+
+  private static void deleteRecursively(Path root) throws IOException {
+    Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+      @Override
+      public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+        Files.delete(file);
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+        Files.delete(dir);
+        return FileVisitResult.CONTINUE;
+      }
+    });
+  }
+
+  private class Player implements Runnable {
+    private final Controllable controller;
+    private final SplittableRandom random;
+    private final long measureFrom;
+    private final long end;
+    private final CountDownLatch startSignal;
+    private final Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+    // Used only to prepare realistic inputs; its work is not measured
+    private final SudokuSolver helper = new SudokuSolver(new SudokuVerifier());
+    private int[][] board;
+    private int[][] initial;
+    private int[][] solution;
+
+    Player(Controllable controller, SplittableRandom random, long measureFrom, long end, CountDownLatch startSignal) {
+      this.controller = controller;
+      this.random = random;
+      this.measureFrom = measureFrom;
+      this.end = end;
+      this.startSignal = startSignal;
+      for (Operation op : Operation.values()) recorders.put(op, new LatencyRecorder());
+    }
+
+    @Override
+    public void run() {
+      try {
+        startSignal.await();
+        execute(Operation.GET_GAME);
+        while (System.nanoTime() < end) {
+          execute(board == null ? Operation.GET_GAME : pick());
+          int think = thinkMin + (thinkMax > thinkMin ? random.nextInt(thinkMax - thinkMin + 1) : 0);
+          if (think > 0) Thread.sleep(think);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    private Operation pick() {
+      int total = 0;
+      for (int weight : weights.values()) total += weight;
+      int r = random.nextInt(total);
+      for (Map.Entry<Operation, Integer> entry : weights.entrySet()) {
+        r -= entry.getValue();
+        if (r < 0) return entry.getKey();
+      }
+      return Operation.VERIFY_GAME;
+    }
+
+    private void execute(Operation op) {
+      long start = System.nanoTime();
+      boolean measured = start >= measureFrom;
+      try {
+        if (!perform(op)) return;
+        if (measured) recorders.get(op).record(System.nanoTime() - start);
+      } catch (Exception e) {
+        if (measured) recorders.get(op).error(e);
+      }
+    }
+
+    // Returns false when the operation was skipped (e.g. no editable cell left)
+    private boolean perform(Operation op) throws Exception {
+      switch (op) {
+        case GET_GAME: {
+          char level = "emh".charAt(random.nextInt(3));
+          board = controller.getGame(level);
+          initial = copy(board);
+          SolveResult result = helper.solve(board, SolveOptions.unbounded());
+          solution = result.getSolution();
+          return true;
+        }
+        case LOG_USER_ACTION: {
+          int cell = randomEditableCell();
+          if (cell < 0) return false;
+          int row = cell / 9;
+          int col = cell % 9;
+          int value = solution != null && random.nextInt(10) != 0 ? solution[row][col] : 1 + random.nextInt(9);
+          int oldValue = board[row][col];
+          board[row][col] = value;
+          controller.logUserAction(new UserAction(row, col, value, oldValue));
+          return true;
+        }
+        case UPDATE_CURRENT_GAME:
+          controller.updateCurrentGame(board);
+          return true;
+        case VERIFY_GAME:
+          controller.verifyGame(board);
+          return true;
+        case UNDO_LAST_MOVE: {
+          int[] move = controller.undoLastMove();
+          if (move != null) board[move[0]][move[1]] = move[3];
+          return true;
+        }
+        case SOLVE_GAME: {
+          // Solve is offered with exactly 5 empty cells, so ask with a solution minus 5 cells
+          if (solution == null) return false;
+          int[][] nearlySolved = copy(solution);
+          for (int removed = 0; removed < 5; ) {
+            int cell = random.nextInt(81);
+            if (nearlySolved[cell / 9][cell % 9] != 0) {
+              nearlySolved[cell / 9][cell % 9] = 0;
+              removed++;
+            }
+          }
+          controller.solveGame(nearlySolved);
+          return true;
+        }
+        default:
+          return false;
+      }
+    }
+
+    private int randomEditableCell() {
+      int start = random.nextInt(81);
+      for (int i = 0; i < 81; i++) {
+        int cell = (start + i) % 81;
+        if (initial[cell / 9][cell % 9] == 0) return cell;
+      }
+      return -1;
+    }
+
+    private int[][] copy(int[][] source) {
+      int[][] result = new int[9][];
+      for (int row = 0; row < 9; row++) result[row] = source[row].clone();
+      return result;
+    }
+  }
+}
@@ -0,0 +1,141 @@
+package com.sudoku.logic;
+
+import java.util.stream.IntStream;
+
+import com.sudoku.model.VerificationState;
+
+// Verifies many boards packed back to back, 81 bytes each (row-major, 0 = empty).
+// Every unit is checked without branches: the values are OR-ed into a 9-bit mask
+// and a unit has a duplicate exactly when the mask has fewer bits than the unit
+// has filled cells. States follow SudokuVerifier: INVALID, then INCOMPLETE, else VALID.
+// On JDK 17+ builds VectorBatchKernel (src/main/java17) does the same check with the Vector
+// API; it is used when the JVM runs with --add-modules jdk.incubator.vector, else the scalar loop.
+public class BatchVerifier {
+  public static final int BOARD_BYTES = 81;
+
+  private static final byte VALID = (byte) VerificationState.VALID.ordinal();
+  private static final byte INVALID = (byte) VerificationState.INVALID.ordinal();
+  private static final byte INCOMPLETE = (byte) VerificationState.INCOMPLETE.ordinal();
+  private static final int PARALLEL_CHUNK = 4096;
+  private static final String VECTOR_KERNEL = "com.sudoku.logic.VectorBatchKernel";
+
+  // Returns the state ordinal of the board starting at offset
+  interface Kernel {
+    byte verifyAt(byte[] boards, int offset);
+  }
+
+  static final Kernel SCALAR = BatchVerifier::scalarAt;
+  private static final Kernel VECTOR = vectorKernel();
+  private static final Kernel DEFAULT = VECTOR != null ? VECTOR : SCALAR;
+
+  private final Kernel kernel;
+
+  public BatchVerifier() {
+    this(DEFAULT);
+  }
+
+  BatchVerifier(Kernel kernel) {
+    this.kernel = kernel;
+  }
+
+  // The Vector API kernel, or null when it was not compiled (JDK 11 build), the class file is
+  // too new for this JVM, the incubator module is missing or the CPU lacks 256-bit vectors
+  static Kernel vectorKernel() {
+    try {
+      return (Kernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException | LinkageError e) {
+      return null;
+    }
+  }
+
+  public boolean isVectorized() {
+    return kernel != SCALAR;
+  }
+
+  // Writes one state ordinal per board into states and returns the number of VALID boards
+  public int verifyAll(byte[] boards, int count, byte[] states) {
+    int valid = 0;
+    for (int i = 0; i < count; i++) {
+      byte state = verifyAt(boards, i * BOARD_BYTES);
+      states[i] = state;
+      if (state == VALID) valid++;
+    }
+    return valid;
+  }
+
+  public int verifyAllParallel(byte[] boards, int count, byte[] states) {
+    int chunks = (count + PARALLEL_CHUNK - 1) / PARALLEL_CHUNK;
+    return IntStream.range(0, chunks).parallel().map(chunk -> {
+      int end = Math.min(count, (chunk + 1) * PARALLEL_CHUNK);
+      int valid = 0;
+      for (int i = chunk * PARALLEL_CHUNK; i < end; i++) {
+        byte state = verifyAt(boards, i * BOARD_BYTES);
+        states[i] = state;
+        if (state == VALID) valid++;
+      }
+      return valid;
+    }).sum();
+  }
+
+  public VerificationState verify(byte[] boards, int index) {
+    return VerificationState.values()[verifyAt(boards, index * BOARD_BYTES)];
+  }
+
+  byte verifyAt(byte[] b, int offset) {
+    return kernel.verifyAt(b, offset);
+  }
+
+  private static byte scalarAt(byte[] b, int offset) {
+    int duplicates = 0;
+    int filled = 0;
+    for (int i = 0; i < 9; i++) {
+      int rowMask = 0;
+      int rowCount = 0;
+      int colMask = 0;
+      int colCount = 0;
+      int boxMask = 0;
+      int boxCount = 0;
+      int rowBase = offset + i * 9;
+      int colBase = offset + i;
+      int boxBase = offset + (i / 3) * 27 + (i % 3) * 3;
+      for (int j = 0; j < 9; j++) {
+        int r = b[rowBase + j];
+        int c = b[colBase + j * 9];
+        int x = b[boxBase + (j / 3) * 9 + (j % 3)];
+        // Value 0 maps to bit 0, which is masked off below; (-v) >>> 31 is 1 for v > 0
+        rowMask |= 1 << r;
+        colMask |= 1 << c;
+        boxMask |= 1 << x;
+        rowCount += (-r) >>> 31;
+        colCount += (-c) >>> 31;
+        boxCount += (-x) >>> 31;
+      }
+      duplicates |= rowCount - Integer.bitCount(rowMask & 0x3FE);
+      duplicates |= colCount - Integer.bitCount(colMask & 0x3FE);
+      duplicates |= boxCount - Integer.bitCount(boxMask & 0x3FE);
+      filled += rowCount;
+    }
+    if (duplicates != 0) return INVALID;
+    return filled < 81 ? INCOMPLETE : VALID;
+  }
+
+  public static void pack(int[][] board, byte[] dest, int index) {
+    int offset = index * BOARD_BYTES;
+    for (int row = 0; row < 9; row++) {
+      for (int col = 0; col < 9; col++) {
+        dest[offset + row * 9 + col] = (byte) board[row][col];
+      }
+    }
+  }
+
+  public static int[][] unpack(byte[] src, int index) {
+    int offset = index * BOARD_BYTES;
+    int[][] board = new int[9][9];
+    for (int row = 0; row < 9; row++) {
+      for (int col = 0; col < 9; col++) {
+        board[row][col] = src[offset + row * 9 + col];
+      }
+    }
+    return board;
+  }
+}
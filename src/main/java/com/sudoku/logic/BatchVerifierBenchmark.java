@@ -0,0 +1,72 @@
+package com.sudoku.logic;
+
+import java.util.SplittableRandom;
+
+// Compares SudokuVerifier with the batch verifier's scalar loop and, where it loads, the
+// Vector API kernel (a JDK 17+ build, run with the incubator module).
+//
+// Usage: java [--add-modules jdk.incubator.vector] -cp sudoku-lab10.jar
+//            com.sudoku.logic.BatchVerifierBenchmark [boards]
+public class BatchVerifierBenchmark {
+
+  public static void main(String[] args) {
+    int count = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+
+    // A third each of solved, incomplete and corrupted boards
+    SplittableRandom random = new SplittableRandom(7);
+    int[][][] boards = new int[count][][];
+    byte[] packed = new byte[count * BatchVerifier.BOARD_BYTES];
+    SolvedGridGenerator grids = new SolvedGridGenerator();
+    for (int i = 0; i < count; i++) {
+      int[][] board = grids.grid(i);
+      if (i % 3 == 1) {
+        board[random.nextInt(9)][random.nextInt(9)] = 0;
+      } else if (i % 3 == 2) {
+        int row = random.nextInt(9);
+        board[row][0] = board[row][1];
+      }
+      boards[i] = board;
+      BatchVerifier.pack(board, packed, i);
+    }
+
+    SudokuVerifier verifier = new SudokuVerifier();
+    BatchVerifier scalar = new BatchVerifier(BatchVerifier.SCALAR);
+    BatchVerifier.Kernel kernel = BatchVerifier.vectorKernel();
+    BatchVerifier vector = kernel != null ? new BatchVerifier(kernel) : null;
+    if (vector == null) System.out.println("Vector API kernel not available, timing the scalar loop only");
+    byte[] states = new byte[count];
+    byte[] batchStates = new byte[count];
+
+    for (int round = 0; round < 3; round++) {
+      long start = System.nanoTime();
+      for (int i = 0; i < count; i++) {
+        states[i] = (byte) verifier.verify(boards[i]).getState().ordinal();
+      }
+      double single = count / ((System.nanoTime() - start) / 1e9);
+      System.out.printf("round %d: SudokuVerifier %.0f boards/s%n", round, single);
+      time("scalar", scalar, packed, count, states, batchStates);
+      if (vector != null) time("vector", vector, packed, count, states, batchStates);
+    }
+  }
+
+  private static void time(String name, BatchVerifier batch, byte[] packed, int count, byte[] expected, byte[] states) {
+    long start = System.nanoTime();
+    batch.verifyAll(packed, count, states);
+    double sequential = count / ((System.nanoTime() - start) / 1e9);
+    int mismatches = mismatches(expected, states, count);
+
+    start = System.nanoTime();
+    batch.verifyAllParallel(packed, count, states);
+    double parallel = count / ((System.nanoTime() - start) / 1e9);
+    mismatches += mismatches(expected, states, count);
+    System.out.printf("  %s: %.0f boards/s, parallel %.0f boards/s, mismatches %d%n", name, sequential, parallel, mismatches);
+  }
+
+  private static int mismatches(byte[] expected, byte[] states, int count) {
+    int mismatches = 0;
+    for (int i = 0; i < count; i++) {
+      if (expected[i] != states[i]) mismatches++;
+    }
+    return mismatches;
+  }
+}
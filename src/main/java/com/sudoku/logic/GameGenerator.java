@@ -1,15 +1,28 @@
 package com.sudoku.logic;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
+import java.util.SplittableRandom;
 
 import com.sudoku.exception.SolutionInvalidException;
 import com.sudoku.model.DifficultyEnum;
+import com.sudoku.model.Puzzle;
+import com.sudoku.model.PuzzleKey;
+import com.sudoku.model.VerificationResult;
 import com.sudoku.model.VerificationState;
+import com.sudoku.monitor.GenerateEvent;
 import com.sudoku.storage.StorageManager;
+import com.sudoku.util.GridShuffler;
 import com.sudoku.util.RandomPairs;
 
 public class GameGenerator {
+  private static final DifficultyEnum[] BANKED = {
+      DifficultyEnum.EASY, DifficultyEnum.MEDIUM, DifficultyEnum.HARD, DifficultyEnum.EXPERT
+  };
+  // Diggers keep search state, so each generating thread gets its own
+  private static final ThreadLocal<PuzzleDigger> DIGGERS = ThreadLocal.withInitial(PuzzleDigger::new);
+
   private final SudokuVerifier verifier;
   private final StorageManager storage;
 
@@ -18,26 +31,75 @@ public class GameGenerator {
     this.storage = storage;
   }
 
-  public void generateFromSolved(int[][] sourceSolution) throws SolutionInvalidException, IOException {
-    SudokuVerifier.VerificationResult result = verifier.verify(sourceSolution);
+  // Registers the source grid and banks one puzzle per difficulty as a 16-byte key; the
+  // boards are rebuilt from their keys when a game is started. Returns the source id.
+  public int generateFromSolved(int[][] sourceSolution) throws SolutionInvalidException, IOException {
+    VerificationResult result = verifier.verify(sourceSolution);
     if (result.getState() != VerificationState.VALID) {
       throw new SolutionInvalidException(
           "Source solution is " + result.getState() + ": " + result.toFormattedString());
     }
 
-    RandomPairs randomPairs = new RandomPairs();
+    int sourceId = storage.registerSource(sourceSolution);
+    SplittableRandom seeds = new SplittableRandom();
+    for (DifficultyEnum difficulty : BANKED) {
+      storage.appendKeys(difficulty, Collections.singletonList(new PuzzleKey(sourceId, seeds.nextLong(), difficulty)));
+    }
+    return sourceId;
+  }
+
+  // Builds a single puzzle in memory without touching storage
+  public int[][] generate(int[][] sourceSolution, DifficultyEnum difficulty) {
+    return generate(sourceSolution, difficulty, new SplittableRandom());
+  }
+
+  // Deterministic path: the grid is shuffled and the cells removed from a single
+  // SplittableRandom seeded by the key, so the same key always yields the same board.
+  // With GENERATED_SOURCE the source grid is ignored and built from the seed instead.
+  public int[][] generate(int[][] sourceSolution, PuzzleKey key) {
+    return generatePuzzle(sourceSolution, key).getBoard();
+  }
+
+  // Same board as generate(sourceSolution, key), plus the grid it was dug from
+  public Puzzle generatePuzzle(int[][] sourceSolution, PuzzleKey key) {
+    SplittableRandom random = new SplittableRandom(key.getSeed());
+    int[][] grid = key.getSourceId() == PuzzleKey.GENERATED_SOURCE
+        ? SolvedGridGenerator.forThread().grid(key.getSeed())
+        : GridShuffler.shuffle(sourceSolution, random);
+    return new Puzzle(generate(grid, key.getDifficulty(), random), grid);
+  }
 
-    int[][] easyBoard = cloneBoard(sourceSolution);
-    removeCells(easyBoard, randomPairs.generateDistinctPairs(DifficultyEnum.EASY.getCellsToRemove()));
-    storage.saveGame(DifficultyEnum.EASY, easyBoard);
+  // A banked puzzle from its key, loading the registered source grid it refers to
+  public Puzzle rebuild(PuzzleKey key) throws IOException {
+    if (key.getSourceId() == PuzzleKey.GENERATED_SOURCE) {
+      return generatePuzzle(null, key);
+    }
+    return generatePuzzle(storage.loadSource(key.getSourceId()), key);
+  }
 
-    int[][] mediumBoard = cloneBoard(sourceSolution);
-    removeCells(mediumBoard, randomPairs.generateDistinctPairs(DifficultyEnum.MEDIUM.getCellsToRemove()));
-    storage.saveGame(DifficultyEnum.MEDIUM, mediumBoard);
+  private int[][] generate(int[][] sourceSolution, DifficultyEnum difficulty, SplittableRandom random) {
+    GenerateEvent event = new GenerateEvent();
+    event.begin();
 
-    int[][] hardBoard = cloneBoard(sourceSolution);
-    removeCells(hardBoard, randomPairs.generateDistinctPairs(DifficultyEnum.HARD.getCellsToRemove()));
-    storage.saveGame(DifficultyEnum.HARD, hardBoard);
+    int[][] board;
+    int retries = 0;
+    if (difficulty.isDug()) {
+      board = DIGGERS.get().dig(sourceSolution, 81 - difficulty.getCellsToRemove(), random.nextLong());
+    } else {
+      RandomPairs randomPairs = new RandomPairs(random);
+      board = cloneBoard(sourceSolution);
+      removeCells(board, randomPairs.generateDistinctPairs(difficulty.getCellsToRemove()));
+      retries = randomPairs.getLastRetries();
+    }
+
+    event.end();
+    if (event.shouldCommit()) {
+      event.difficulty = difficulty.name();
+      event.cellsRemoved = 81 - PuzzleDigger.countClues(board);
+      event.retries = retries;
+      event.commit();
+    }
+    return board;
   }
 
   private void removeCells(int[][] board, List<int[]> positions) {
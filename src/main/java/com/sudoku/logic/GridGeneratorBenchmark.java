@@ -0,0 +1,25 @@
+package com.sudoku.logic;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Usage: java -cp sudoku-lab10.jar com.sudoku.logic.GridGeneratorBenchmark [grids]
+public class GridGeneratorBenchmark {
+
+  public static void main(String[] args) {
+    long count = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000L;
+    SudokuVerifier verifier = new SudokuVerifier();
+
+    // Warm-up and a validity spot check
+    int[][] sample = new SolvedGridGenerator().grid(1L);
+    System.out.println("Sample grid is " + verifier.verify(sample).getState());
+    SolvedGridGenerator.generateParallel(0, 50_000, (i, grid) -> { });
+
+    LongAdder checksum = new LongAdder();
+    long start = System.nanoTime();
+    SolvedGridGenerator.generateParallel(1_000_000L, count, (i, grid) -> checksum.add(grid[80]));
+    double seconds = (System.nanoTime() - start) / 1e9;
+
+    System.out.printf("%d grids in %.2f s on %d cores: %.0f grids/min (checksum %d)%n",
+        count, seconds, Runtime.getRuntime().availableProcessors(), count / seconds * 60, checksum.sum());
+  }
+}
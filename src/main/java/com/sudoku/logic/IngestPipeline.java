@@ -0,0 +1,315 @@
+package com.sudoku.logic;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.sudoku.model.DifficultyEnum;
+import com.sudoku.model.VerificationState;
+import com.sudoku.storage.StorageManager;
+
+// Bulk driveGames: parse -> validate -> generate -> write, connected by bounded
+// queues so a slow stage blocks (backpressure) instead of buffering everything.
+// Validate and generate run one worker per core; parse and write are single threads.
+// Input is a directory of files or a single file, each holding any number of grids
+// as 9 rows of 9 numbers or as 81-character lines ('0' or '.' for empty).
+public class IngestPipeline {
+  private static final int QUEUE_CAPACITY = 256;
+  private static final int WRITE_BATCH = 64;
+  private static final long SAMPLE_MILLIS = 20;
+  private static final int[][] END = new int[0][];
+  private static final GeneratedPuzzle END_PUZZLE = new GeneratedPuzzle(null, null, null);
+  private static final DifficultyEnum[] PLAYABLE = {
+      DifficultyEnum.EASY, DifficultyEnum.MEDIUM, DifficultyEnum.HARD, DifficultyEnum.EXPERT
+  };
+
+  private final SudokuVerifier verifier;
+  private final GameGenerator generator;
+  private final StorageManager storage;
+  private final int workers;
+
+  public IngestPipeline(SudokuVerifier verifier, GameGenerator generator, StorageManager storage) {
+    this(verifier, generator, storage, Runtime.getRuntime().availableProcessors());
+  }
+
+  public IngestPipeline(SudokuVerifier verifier, GameGenerator generator, StorageManager storage, int workers) {
+    this.verifier = verifier;
+    this.generator = generator;
+    this.storage = storage;
+    this.workers = Math.max(1, workers);
+  }
+
+  public IngestReport run(Path source) throws IOException {
+    Stage<Void> parse = new Stage<>("parse", 1, null);
+    Stage<int[][]> validate = new Stage<>("validate", workers, new ArrayBlockingQueue<>(QUEUE_CAPACITY));
+    Stage<int[][]> generate = new Stage<>("generate", workers, new ArrayBlockingQueue<>(QUEUE_CAPACITY));
+    Stage<GeneratedPuzzle> write = new Stage<>("write", 1, new ArrayBlockingQueue<>(QUEUE_CAPACITY));
+    List<Stage<?>> stages = List.of(parse, validate, generate, write);
+
+    ExecutorService pool = Executors.newFixedThreadPool(2 + 2 * workers, daemonThreads("sudoku-ingest"));
+    // The first failure interrupts every stage, so nobody stays blocked on a full queue
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    Runnable abort = pool::shutdownNow;
+    ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(daemonThreads("sudoku-ingest-sampler"));
+    sampler.scheduleAtFixedRate(() -> {
+      for (Stage<?> stage : stages) stage.sample();
+    }, 0, SAMPLE_MILLIS, TimeUnit.MILLISECONDS);
+
+    long start = System.nanoTime();
+    pool.execute(guard(failure, abort, () -> {
+      try {
+        for (Path file : inputFiles(source)) {
+          parseFile(file, parse, validate.input);
+        }
+      } finally {
+        for (int i = 0; i < workers; i++) validate.input.put(END);
+      }
+    }));
+
+    AtomicInteger validatorsLeft = new AtomicInteger(workers);
+    AtomicInteger generatorsLeft = new AtomicInteger(workers);
+    for (int i = 0; i < workers; i++) {
+      pool.execute(guard(failure, abort, () -> {
+        try {
+          for (int[][] grid = validate.input.take(); grid != END; grid = validate.input.take()) {
+            validate.in.incrementAndGet();
+            if (verifier.verify(grid).getState() == VerificationState.VALID) {
+              generate.input.put(grid);
+              validate.out.incrementAndGet();
+            } else {
+              validate.rejected.incrementAndGet();
+            }
+          }
+        } finally {
+          if (validatorsLeft.decrementAndGet() == 0) {
+            for (int j = 0; j < workers; j++) generate.input.put(END);
+          }
+        }
+      }));
+      pool.execute(guard(failure, abort, () -> {
+        try {
+          for (int[][] grid = generate.input.take(); grid != END; grid = generate.input.take()) {
+            generate.in.incrementAndGet();
+            for (DifficultyEnum difficulty : PLAYABLE) {
+              write.input.put(new GeneratedPuzzle(difficulty, generator.generate(grid, difficulty), grid));
+            }
+            generate.out.addAndGet(PLAYABLE.length);
+          }
+        } finally {
+          if (generatorsLeft.decrementAndGet() == 0) write.input.put(END_PUZZLE);
+        }
+      }));
+    }
+
+    pool.execute(guard(failure, abort, () -> writeBatches(write)));
+
+    pool.shutdown();
+    try {
+      pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      pool.shutdownNow();
+      Thread.currentThread().interrupt();
+      throw new IOException("Ingest interrupted");
+    } finally {
+      sampler.shutdownNow();
+    }
+
+    Throwable error = failure.get();
+    if (error instanceof InterruptedException) {
+      throw new IOException("Ingest interrupted");
+    }
+    if (error instanceof IOException) throw (IOException) error;
+    if (error != null) throw new IOException("Ingest failed: " + error, error);
+
+    List<IngestReport.StageStats> stats = new ArrayList<>();
+    for (Stage<?> stage : stages) stats.add(stage.toStats());
+    return new IngestReport(stats, System.nanoTime() - start);
+  }
+
+  private void writeBatches(Stage<GeneratedPuzzle> write) throws Exception {
+    Map<DifficultyEnum, List<GeneratedPuzzle>> batches = new EnumMap<>(DifficultyEnum.class);
+    for (DifficultyEnum difficulty : PLAYABLE) batches.put(difficulty, new ArrayList<>(WRITE_BATCH));
+    for (GeneratedPuzzle puzzle = write.input.take(); puzzle != END_PUZZLE; puzzle = write.input.take()) {
+      write.in.incrementAndGet();
+      List<GeneratedPuzzle> batch = batches.get(puzzle.difficulty);
+      batch.add(puzzle);
+      if (batch.size() == WRITE_BATCH) {
+        flush(puzzle.difficulty, batch, write);
+      }
+    }
+    for (Map.Entry<DifficultyEnum, List<GeneratedPuzzle>> batch : batches.entrySet()) {
+      flush(batch.getKey(), batch.getValue(), write);
+    }
+  }
+
+  private void flush(DifficultyEnum difficulty, List<GeneratedPuzzle> batch, Stage<GeneratedPuzzle> write) throws IOException {
+    if (batch.isEmpty()) return;
+    List<int[][]> boards = new ArrayList<>(batch.size());
+    List<int[][]> solutions = new ArrayList<>(batch.size());
+    for (GeneratedPuzzle puzzle : batch) {
+      boards.add(puzzle.board);
+      solutions.add(puzzle.solution);
+    }
+    storage.saveGames(difficulty, boards, solutions);
+    write.out.addAndGet(batch.size());
+    batch.clear();
+  }
+
+  private void parseFile(Path file, Stage<Void> parse, BlockingQueue<int[][]> out) throws Exception {
+    try (BufferedReader reader = Files.newBufferedReader(file)) {
+      int[][] grid = new int[9][];
+      int rows = 0;
+      String line;
+      while ((line = reader.readLine()) != null) {
+        line = line.trim();
+        if (line.isEmpty() || line.startsWith("#")) continue;
+        parse.in.incrementAndGet();
+        if (line.length() == 81 && rows == 0) {
+          int[][] flat = parseFlat(line);
+          if (flat != null) {
+            out.put(flat);
+            parse.out.incrementAndGet();
+          } else {
+            parse.rejected.incrementAndGet();
+          }
+          continue;
+        }
+        int[] row = parseRow(line);
+        if (row == null) {
+          parse.rejected.incrementAndGet();
+          rows = 0;
+          continue;
+        }
+        grid[rows++] = row;
+        if (rows == 9) {
+          out.put(grid);
+          parse.out.incrementAndGet();
+          grid = new int[9][];
+          rows = 0;
+        }
+      }
+    }
+  }
+
+  private static int[][] parseFlat(String line) {
+    int[][] grid = new int[9][9];
+    for (int i = 0; i < 81; i++) {
+      char c = line.charAt(i);
+      if (c == '.') continue;
+      if (c < '0' || c > '9') return null;
+      grid[i / 9][i % 9] = c - '0';
+    }
+    return grid;
+  }
+
+  private static int[] parseRow(String line) {
+    String[] values = line.split("\\s+");
+    if (values.length != 9) return null;
+    int[] row = new int[9];
+    try {
+      for (int col = 0; col < 9; col++) {
+        row[col] = Integer.parseInt(values[col]);
+      }
+    } catch (NumberFormatException e) {
+      return null;
+    }
+    return row;
+  }
+
+  private static List<Path> inputFiles(Path source) throws IOException {
+    List<Path> files = new ArrayList<>();
+    if (Files.isDirectory(source)) {
+      try (DirectoryStream<Path> stream = Files.newDirectoryStream(source)) {
+        for (Path entry : stream) {
+          if (Files.isRegularFile(entry)) files.add(entry);
+        }
+      }
+      files.sort(null);
+    } else {
+      files.add(source);
+    }
+    return files;
+  }
+
+  private interface Task {
+    void run() throws Exception;
+  }
+
+  private static Runnable guard(AtomicReference<Throwable> failure, Runnable abort, Task task) {
+    return () -> {
+      try {
+        task.run();
+      } catch (Throwable e) {
+        if (failure.compareAndSet(null, e)) abort.run();
+      }
+    };
+  }
+
+  private static ThreadFactory daemonThreads(String name) {
+    AtomicInteger counter = new AtomicInteger();
+    return task -> {
+      Thread thread = new Thread(task, name + "-" + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  private static class GeneratedPuzzle {
+    final DifficultyEnum difficulty;
+    final int[][] board;
+    final int[][] solution;
+
+    GeneratedPuzzle(DifficultyEnum difficulty, int[][] board, int[][] solution) {
+      this.difficulty = difficulty;
+      this.board = board;
+      this.solution = solution;
+    }
+  }
+
+  private static class Stage<T> {
+    final String name;
+    final int workers;
+    final BlockingQueue<T> input;
+    final AtomicLong in = new AtomicLong();
+    final AtomicLong out = new AtomicLong();
+    final AtomicLong rejected = new AtomicLong();
+    private long depthSum;
+    private long samples;
+    private int maxDepth;
+
+    Stage(String name, int workers, BlockingQueue<T> input) {
+      this.name = name;
+      this.workers = workers;
+      this.input = input;
+    }
+
+    synchronized void sample() {
+      if (input == null) return;
+      int depth = input.size();
+      depthSum += depth;
+      samples++;
+      maxDepth = Math.max(maxDepth, depth);
+    }
+
+    synchronized IngestReport.StageStats toStats() {
+      double average = samples == 0 ? 0 : (double) depthSum / samples;
+      return new IngestReport.StageStats(name, workers, in.get(), out.get(), rejected.get(), average, maxDepth);
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package com.sudoku.logic;
+
+import java.util.List;
+
+public class IngestReport {
+  private final List<StageStats> stages;
+  private final long elapsedNanos;
+
+  public IngestReport(List<StageStats> stages, long elapsedNanos) {
+    this.stages = stages;
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  public List<StageStats> getStages() {
+    return stages;
+  }
+
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  public StageStats getStage(String name) {
+    for (StageStats stage : stages) {
+      if (stage.getName().equals(name)) return stage;
+    }
+    throw new IllegalArgumentException("No stage named " + name);
+  }
+
+  @Override
+  public String toString() {
+    double seconds = elapsedNanos / 1e9;
+    StringBuilder sb = new StringBuilder(String.format("Ingest finished in %.2f s%n", seconds));
+    sb.append(String.format("%-10s %7s %9s %9s %9s %12s %11s %11s%n",
+        "stage", "workers", "in", "out", "rejected", "out/s", "queue avg", "queue max"));
+    for (StageStats stage : stages) {
+      sb.append(String.format("%-10s %7d %9d %9d %9d %12.0f %11.1f %11d%n",
+          stage.getName(), stage.getWorkers(), stage.getItemsIn(), stage.getItemsOut(), stage.getRejected(),
+          seconds > 0 ? stage.getItemsOut() / seconds : 0, stage.getAverageQueueDepth(), stage.getMaxQueueDepth()));
+    }
+    return sb.toString();
+  }
+
+  // Queue depth is that of the stage's input queue, sampled while the pipeline runs
+  public static class StageStats {
+    private final String name;
+    private final int workers;
+    private final long itemsIn;
+    private final long itemsOut;
+    private final long rejected;
+    private final double averageQueueDepth;
+    private final int maxQueueDepth;
+
+    public StageStats(String name, int workers, long itemsIn, long itemsOut, long rejected,
+        double averageQueueDepth, int maxQueueDepth) {
+      this.name = name;
+      this.workers = workers;
+      this.itemsIn = itemsIn;
+      this.itemsOut = itemsOut;
+      this.rejected = rejected;
+      this.averageQueueDepth = averageQueueDepth;
+      this.maxQueueDepth = maxQueueDepth;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public int getWorkers() {
+      return workers;
+    }
+
+    public long getItemsIn() {
+      return itemsIn;
+    }
+
+    public long getItemsOut() {
+      return itemsOut;
+    }
+
+    public long getRejected() {
+      return rejected;
+    }
+
+    public double getAverageQueueDepth() {
+      return averageQueueDepth;
+    }
+
+    public int getMaxQueueDepth() {
+      return maxQueueDepth;
+    }
+  }
+}
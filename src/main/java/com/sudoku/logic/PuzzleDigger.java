@@ -0,0 +1,122 @@
+package com.sudoku.logic;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import com.sudoku.rules.RuleSet;
+import com.sudoku.solver.BitmaskSearch;
+
+// Digs holes in a solved grid down to a target clue count, or until the puzzle is minimal
+// (no clue can be removed without a second solution appearing).
+//
+// Clues are tried once each in a random order. A removal is kept only if the search finds
+// no solution with that cell holding a different digit. Removing clues never makes a puzzle
+// more constrained, so a clue that fails once can never be removed later and one pass
+// yields a minimal puzzle. The search object is loaded again for each test, so digging
+// allocates nothing per removal.
+//
+// GameGenerator digs DifficultyEnum.EXPERT puzzles with it; digBatch serves bulk runs.
+public class PuzzleDigger {
+  public static final int MINIMAL = 0;
+
+  private final RuleSet rules;
+  private final BitmaskSearch search;
+  private final int[] flat = new int[81];
+  private final int[] order = new int[81];
+
+  public PuzzleDigger() {
+    this(RuleSet.CLASSIC);
+  }
+
+  public PuzzleDigger(RuleSet rules) {
+    this.rules = rules;
+    this.search = new BitmaskSearch(rules);
+  }
+
+  // Digs the given solution in a seed-determined order; stops at targetClues, or at a
+  // minimal puzzle if that comes first (or if targetClues is MINIMAL)
+  public int[][] dig(int[][] solution, int targetClues, long seed) {
+    for (int cell = 0; cell < 81; cell++) {
+      flat[cell] = solution[cell / 9][cell % 9];
+      order[cell] = cell;
+    }
+    SplittableRandom random = new SplittableRandom(seed);
+    for (int i = 80; i > 0; i--) {
+      int other = random.nextInt(i + 1);
+      int swap = order[i];
+      order[i] = order[other];
+      order[other] = swap;
+    }
+
+    int clues = 81;
+    for (int i = 0; i < 81 && clues > targetClues; i++) {
+      int cell = order[i];
+      int value = flat[cell];
+      flat[cell] = 0;
+      search.load(flat);
+      if (search.hasAlternative(cell, value)) {
+        flat[cell] = value;
+      } else {
+        clues--;
+      }
+    }
+    return toBoard(flat);
+  }
+
+  // Fresh classic grids (seed, seed + 1, ...) until one digs down to targetClues or fewer;
+  // null when maxAttempts grids all bottom out above it. MINIMAL takes the first grid's result.
+  public int[][] digToTarget(int targetClues, long seed, int maxAttempts) {
+    if (rules != RuleSet.CLASSIC) {
+      throw new IllegalStateException("digToTarget draws classic grids; use dig() with a variant solution");
+    }
+    SolvedGridGenerator grids = SolvedGridGenerator.forThread();
+    for (int attempt = 0; attempt < maxAttempts; attempt++) {
+      int[][] puzzle = dig(grids.grid(seed + attempt), targetClues, seed + attempt);
+      if (targetClues == MINIMAL || countClues(puzzle) <= targetClues) return puzzle;
+    }
+    return null;
+  }
+
+  // One puzzle per seed in [firstSeed, firstSeed + count), dug in parallel with a digger per
+  // worker thread. Entries are null where maxAttempts was not enough to reach the target.
+  public static int[][][] digBatch(int targetClues, long firstSeed, int count, int maxAttempts) {
+    ThreadLocal<PuzzleDigger> diggers = ThreadLocal.withInitial(PuzzleDigger::new);
+    int[][][] puzzles = new int[count][][];
+    // Seeds are spaced maxAttempts apart so retries never reuse another job's grid
+    IntStream.range(0, count).parallel().forEach(i ->
+        puzzles[i] = diggers.get().digToTarget(targetClues, firstSeed + (long) i * maxAttempts, maxAttempts));
+    return puzzles;
+  }
+
+  // True when every clue is needed: removing any one of them allows a second solution
+  public boolean isMinimal(int[][] puzzle) {
+    for (int cell = 0; cell < 81; cell++) flat[cell] = puzzle[cell / 9][cell % 9];
+    if (!search.load(flat) || search.countSolutions(2) != 1) return false;
+    for (int cell = 0; cell < 81; cell++) {
+      int value = flat[cell];
+      if (value == 0) continue;
+      flat[cell] = 0;
+      search.load(flat);
+      boolean removable = !search.hasAlternative(cell, value);
+      flat[cell] = value;
+      if (removable) return false;
+    }
+    return true;
+  }
+
+  public static int countClues(int[][] puzzle) {
+    int clues = 0;
+    for (int[] row : puzzle) {
+      for (int value : row) {
+        if (value != 0) clues++;
+      }
+    }
+    return clues;
+  }
+
+  private static int[][] toBoard(int[] cells) {
+    int[][] board = new int[9][9];
+    for (int cell = 0; cell < 81; cell++) board[cell / 9][cell % 9] = cells[cell];
+    return board;
+  }
+}
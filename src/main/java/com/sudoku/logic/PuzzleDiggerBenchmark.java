@@ -0,0 +1,40 @@
+package com.sudoku.logic;
+
+// Usage: java -cp sudoku-lab10.jar com.sudoku.logic.PuzzleDiggerBenchmark [puzzles] [targetClues]
+// targetClues 0 digs every puzzle to a minimal one
+public class PuzzleDiggerBenchmark {
+
+  public static void main(String[] args) {
+    int count = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+    int target = args.length > 1 ? Integer.parseInt(args[1]) : 24;
+    int attempts = 200;
+
+    // Warm-up
+    PuzzleDigger.digBatch(PuzzleDigger.MINIMAL, 0, 200, 1);
+
+    long start = System.nanoTime();
+    int[][][] puzzles = PuzzleDigger.digBatch(target, 1_000_000L, count, attempts);
+    double seconds = (System.nanoTime() - start) / 1e9;
+
+    int[] histogram = new int[82];
+    int missed = 0;
+    for (int[][] puzzle : puzzles) {
+      if (puzzle == null) missed++;
+      else histogram[PuzzleDigger.countClues(puzzle)]++;
+    }
+    System.out.printf("%d puzzles (target %s) in %.2f s on %d cores, %d missed after %d grids%n",
+        count, target == PuzzleDigger.MINIMAL ? "minimal" : target + " clues", seconds,
+        Runtime.getRuntime().availableProcessors(), missed, attempts);
+    for (int clues = 0; clues < histogram.length; clues++) {
+      if (histogram[clues] > 0) System.out.printf("  %2d clues: %d%n", clues, histogram[clues]);
+    }
+
+    PuzzleDigger digger = new PuzzleDigger();
+    for (int[][] puzzle : puzzles) {
+      if (puzzle != null && target == PuzzleDigger.MINIMAL && !digger.isMinimal(puzzle)) {
+        System.out.println("Not minimal:\n" + java.util.Arrays.deepToString(puzzle));
+        return;
+      }
+    }
+  }
+}
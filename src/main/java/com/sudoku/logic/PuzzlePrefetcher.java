@@ -0,0 +1,116 @@
+package com.sudoku.logic;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.sudoku.model.DifficultyEnum;
+import com.sudoku.model.Puzzle;
+import com.sudoku.model.PuzzleKey;
+
+// Keeps a small queue of ready-made puzzles per difficulty so New Game never waits
+// on disk. A single low-priority thread tops the queues up whenever one drops
+// below LOW_WATER, deriving fresh grids from the source solution.
+public class PuzzlePrefetcher {
+  private static final int CAPACITY = 8;
+  private static final int LOW_WATER = 3;
+  private static final DifficultyEnum[] PLAYABLE = {
+      DifficultyEnum.EASY, DifficultyEnum.MEDIUM, DifficultyEnum.HARD, DifficultyEnum.EXPERT
+  };
+
+  private final GameGenerator generator;
+  private final Map<DifficultyEnum, BlockingQueue<Puzzle>> queues = new EnumMap<>(DifficultyEnum.class);
+  private final AtomicBoolean refillPending = new AtomicBoolean();
+  private final ExecutorService worker;
+  private final SplittableRandom seeds = new SplittableRandom();
+  private volatile Source source;
+
+  public PuzzlePrefetcher(GameGenerator generator, int sourceId, int[][] sourceSolution) {
+    this.generator = generator;
+    this.source = new Source(sourceId, sourceSolution);
+    for (DifficultyEnum difficulty : PLAYABLE) {
+      queues.put(difficulty, new ArrayBlockingQueue<>(CAPACITY));
+    }
+    this.worker = Executors.newSingleThreadExecutor(task -> {
+      Thread thread = new Thread(task, "sudoku-prefetch");
+      thread.setDaemon(true);
+      thread.setPriority(Thread.MIN_PRIORITY);
+      return thread;
+    });
+  }
+
+  public void start() {
+    requestRefill();
+  }
+
+  // Returns a ready puzzle, or null if the queue is momentarily empty
+  public Puzzle poll(DifficultyEnum difficulty) {
+    BlockingQueue<Puzzle> queue = queues.get(difficulty);
+    if (queue == null) return null;
+    Puzzle puzzle = queue.poll();
+    if (queue.size() < LOW_WATER) {
+      requestRefill();
+    }
+    return puzzle;
+  }
+
+  // Synchronous fallback used when the queue ran empty
+  public Puzzle generateNow(DifficultyEnum difficulty) {
+    Source current = source;
+    return generator.generatePuzzle(current.solution, new PuzzleKey(current.id, nextSeed(), difficulty));
+  }
+
+  // Switches to a new source grid and discards puzzles derived from the old one
+  public void setSourceSolution(int sourceId, int[][] solution) {
+    this.source = new Source(sourceId, solution);
+    for (BlockingQueue<Puzzle> queue : queues.values()) {
+      queue.clear();
+    }
+    requestRefill();
+  }
+
+  public int size(DifficultyEnum difficulty) {
+    BlockingQueue<Puzzle> queue = queues.get(difficulty);
+    return queue == null ? 0 : queue.size();
+  }
+
+  private void requestRefill() {
+    if (refillPending.compareAndSet(false, true)) {
+      worker.execute(this::refill);
+    }
+  }
+
+  private void refill() {
+    // Cleared first so a poll during the refill schedules another pass
+    refillPending.set(false);
+    Source current = source;
+    for (DifficultyEnum difficulty : PLAYABLE) {
+      BlockingQueue<Puzzle> queue = queues.get(difficulty);
+      while (queue.remainingCapacity() > 0) {
+        PuzzleKey key = new PuzzleKey(current.id, nextSeed(), difficulty);
+        if (!queue.offer(generator.generatePuzzle(current.solution, key))) break;
+      }
+    }
+  }
+
+  private long nextSeed() {
+    synchronized (seeds) {
+      return seeds.nextLong();
+    }
+  }
+
+  private static class Source {
+    final int id;
+    final int[][] solution;
+
+    Source(int id, int[][] solution) {
+      this.id = id;
+      this.solution = solution;
+    }
+  }
+}
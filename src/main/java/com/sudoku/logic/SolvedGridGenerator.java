@@ -0,0 +1,122 @@
+package com.sudoku.logic;
+
+import java.util.stream.LongStream;
+
+// Produces complete, valid 9x9 solutions from scratch with randomized bitmask
+// backtracking. All working state is preallocated, so filling a grid allocates
+// nothing; one instance per thread (see forThread) gives lock-free parallelism.
+public class SolvedGridGenerator {
+  private static final int ALL = 0x1FF;
+  private static final int RESTART_NODES = 2000;
+  private static final int[] ROW = new int[81];
+  private static final int[] COL = new int[81];
+  private static final int[] BOX = new int[81];
+
+  static {
+    for (int cell = 0; cell < 81; cell++) {
+      ROW[cell] = cell / 9;
+      COL[cell] = cell % 9;
+      BOX[cell] = (cell / 27) * 3 + (cell % 9) / 3;
+    }
+  }
+
+  private static final ThreadLocal<SolvedGridGenerator> PER_THREAD =
+      ThreadLocal.withInitial(SolvedGridGenerator::new);
+
+  private final int[] rowMask = new int[9];
+  private final int[] colMask = new int[9];
+  private final int[] boxMask = new int[9];
+  private final int[] remaining = new int[81];
+  private final int[] values = new int[81];
+  private long state;
+
+  public interface GridSink {
+    // The grid array is reused by the calling thread; copy it if it must be kept
+    void accept(long index, int[] grid);
+  }
+
+  public static SolvedGridGenerator forThread() {
+    return PER_THREAD.get();
+  }
+
+  // Fills out (81 cells, row-major, values 1-9). The same seed always gives the same grid.
+  public void fill(long seed, int[] out) {
+    state = seed;
+    while (!search()) {
+      // Rare deep dead end: restart with the advanced random state
+    }
+    System.arraycopy(values, 0, out, 0, 81);
+  }
+
+  public int[][] grid(long seed) {
+    int[] flat = new int[81];
+    fill(seed, flat);
+    int[][] board = new int[9][9];
+    for (int row = 0; row < 9; row++) {
+      System.arraycopy(flat, row * 9, board[row], 0, 9);
+    }
+    return board;
+  }
+
+  // Grid i uses seed firstSeed + i and is produced on whichever core picks it up
+  public static void generateParallel(long firstSeed, long count, GridSink sink) {
+    ThreadLocal<int[]> buffers = ThreadLocal.withInitial(() -> new int[81]);
+    LongStream.range(0, count).parallel().forEach(i -> {
+      int[] buffer = buffers.get();
+      forThread().fill(firstSeed + i, buffer);
+      sink.accept(i, buffer);
+    });
+  }
+
+  private boolean search() {
+    for (int i = 0; i < 9; i++) {
+      rowMask[i] = 0;
+      colMask[i] = 0;
+      boxMask[i] = 0;
+    }
+    int nodes = 0;
+    int depth = 0;
+    remaining[0] = ALL;
+    while (depth < 81) {
+      int mask = remaining[depth];
+      if (mask == 0) {
+        depth--;
+        if (depth < 0 || ++nodes > RESTART_NODES) return false;
+        int bit = 1 << (values[depth] - 1);
+        rowMask[ROW[depth]] &= ~bit;
+        colMask[COL[depth]] &= ~bit;
+        boxMask[BOX[depth]] &= ~bit;
+        continue;
+      }
+      int bit = randomBit(mask);
+      remaining[depth] = mask & ~bit;
+      values[depth] = Integer.numberOfTrailingZeros(bit) + 1;
+      rowMask[ROW[depth]] |= bit;
+      colMask[COL[depth]] |= bit;
+      boxMask[BOX[depth]] |= bit;
+      depth++;
+      if (depth < 81) {
+        remaining[depth] = ALL & ~(rowMask[ROW[depth]] | colMask[COL[depth]] | boxMask[BOX[depth]]);
+      }
+    }
+    return true;
+  }
+
+  private int randomBit(int mask) {
+    int skip = nextInt(Integer.bitCount(mask));
+    for (int i = 0; i < skip; i++) {
+      mask &= mask - 1;
+    }
+    return mask & -mask;
+  }
+
+  // SplitMix64, inlined so reseeding does not allocate
+  private int nextInt(int bound) {
+    state += 0x9E3779B97F4A7C15L;
+    long z = state;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    z = z ^ (z >>> 31);
+    return (int) (((z >>> 33) * bound) >>> 31);
+  }
+}
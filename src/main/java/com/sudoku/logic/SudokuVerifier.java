@@ -1,144 +1,137 @@
 package com.sudoku.logic;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
-
+import com.sudoku.model.BoardView;
+import com.sudoku.model.Game;
+import com.sudoku.model.VerificationResult;
 import com.sudoku.model.VerificationState;
+import com.sudoku.monitor.VerifyEvent;
+import com.sudoku.rules.RuleSet;
 
+// Thread-safe: the board is only read, and the per-call scratch copy comes from a
+// ThreadLocal buffer, so one instance can verify on many threads without allocation
 public class SudokuVerifier {
+  private static final ThreadLocal<int[]> SCRATCH = ThreadLocal.withInitial(() -> new int[81]);
+
+  private final RuleSet rules;
+  private final int unitCount;
+  private final int[] unitStart;
+  private final int[] unitCells;
+  private final int[] peerStart;
+  private final int[] peers;
+  private final int[] cageUnit;
+  private final int[] cageSum;
+
+  public SudokuVerifier() {
+    this(RuleSet.CLASSIC);
+  }
 
-  public VerificationResult verify(int[][] board) {
-    // 1. Check for rule violations FIRST (Rows, Cols, Boxes)
-    List<String> invalidPositions = new ArrayList<>();
-
-    // Check all rows
-    for (int row = 0; row < 9; row++) {
-      List<String> rowViolations = checkRow(board, row);
-      invalidPositions.addAll(rowViolations);
-    }
-
-    // Check all columns
-    for (int col = 0; col < 9; col++) {
-      List<String> colViolations = checkColumn(board, col);
-      invalidPositions.addAll(colViolations);
-    }
-
-    // Check all 3x3 subgrids
-    for (int boxRow = 0; boxRow < 3; boxRow++) {
-      for (int boxCol = 0; boxCol < 3; boxCol++) {
-        List<String> boxViolations = checkBox(board, boxRow, boxCol);
-        invalidPositions.addAll(boxViolations);
-      }
-    }
-
-    // --- THE CRITICAL FIX START ---
-    
-    // 2. Decision Logic:
-    // Check for violations BEFORE checking for empty cells.
-    // This ensures RED cells appear even if the board is incomplete.
-    if (!invalidPositions.isEmpty()) {
-      return new VerificationResult(VerificationState.INVALID, invalidPositions);
-    }
-
-    // 3. If no violations found, THEN check if it's incomplete
-    if (hasZeros(board)) {
-      return new VerificationResult(VerificationState.INCOMPLETE, new ArrayList<>());
-    }
-
-    // --- THE CRITICAL FIX END ---
-
-    // 4. If neither, it is VALID
-    return new VerificationResult(VerificationState.VALID, invalidPositions);
+  public SudokuVerifier(RuleSet rules) {
+    this.rules = rules;
+    this.unitCount = rules.getUnitCount();
+    this.unitStart = rules.getUnitStart();
+    this.unitCells = rules.getUnitCells();
+    this.peerStart = rules.getPeerStart();
+    this.peers = rules.getPeers();
+    this.cageUnit = rules.getCageUnit();
+    this.cageSum = rules.getCageSum();
   }
 
-  private boolean hasZeros(int[][] board) {
-    for (int row = 0; row < 9; row++) {
-      for (int col = 0; col < 9; col++) {
-        if (board[row][col] == 0) {
-          return true;
-        }
-      }
-    }
-    return false;
+  public RuleSet getRules() {
+    return rules;
   }
 
-  private List<String> checkRow(int[][] board, int row) {
-    List<String> violations = new ArrayList<>();
-    Set<Integer> seen = new HashSet<>();
+  public VerificationResult verify(int[][] board) {
+    return verify(new Game(board));
+  }
 
-    for (int col = 0; col < 9; col++) {
-      int value = board[row][col];
-      if (value != 0) {
-        if (!seen.add(value)) {
-          violations.add(row + "," + col);
-        }
-      }
+  public VerificationResult verify(BoardView board) {
+    VerifyEvent event = new VerifyEvent();
+    event.begin();
+    VerificationResult result = check(board);
+    event.end();
+    if (event.shouldCommit()) {
+      event.state = result.getState().name();
+      event.conflicts = result.getConflictCount();
+      event.commit();
     }
-    return violations;
+    return result;
   }
 
-  private List<String> checkColumn(int[][] board, int col) {
-    List<String> violations = new ArrayList<>();
-    Set<Integer> seen = new HashSet<>();
+  private VerificationResult check(BoardView board) {
+    int[] values = SCRATCH.get();
+    boolean hasZeros = false;
+    for (int cell = 0; cell < 81; cell++) {
+      int value = board.get(cell / 9, cell % 9);
+      values[cell] = value;
+      if (value == 0) hasZeros = true;
+    }
 
-    for (int row = 0; row < 9; row++) {
-      int value = board[row][col];
-      if (value != 0) {
-        if (!seen.add(value)) {
-          violations.add(row + "," + col);
+    // 1. Check for rule violations FIRST (units, then peers and cage sums).
+    // A value seen earlier in the same unit marks the later cell as a conflict.
+    long conflictsLow = 0;
+    long conflictsHigh = 0;
+
+    for (int unit = 0; unit < unitCount; unit++) {
+      int seen = 0;
+      for (int i = unitStart[unit], end = unitStart[unit + 1]; i < end; i++) {
+        int cell = unitCells[i];
+        int value = values[cell];
+        if (value == 0) continue;
+        int bit = 1 << value;
+        if ((seen & bit) != 0) {
+          if (cell < 64) conflictsLow |= 1L << cell;
+          else conflictsHigh |= 1L << (cell - 64);
         }
+        seen |= bit;
       }
     }
-    return violations;
-  }
-
-  private List<String> checkBox(int[][] board, int boxRow, int boxCol) {
-    List<String> violations = new ArrayList<>();
-    Set<Integer> seen = new HashSet<>();
 
-    int startRow = boxRow * 3;
-    int startCol = boxCol * 3;
-
-    for (int row = startRow; row < startRow + 3; row++) {
-      for (int col = startCol; col < startCol + 3; col++) {
-        int value = board[row][col];
-        if (value != 0) {
-          if (!seen.add(value)) {
-            violations.add(row + "," + col);
+    if (rules.hasPeers()) {
+      for (int cell = 0; cell < 81; cell++) {
+        int value = values[cell];
+        if (value == 0) continue;
+        for (int i = peerStart[cell], end = peerStart[cell + 1]; i < end; i++) {
+          int peer = peers[i];
+          if (peer > cell && values[peer] == value) {
+            if (peer < 64) conflictsLow |= 1L << peer;
+            else conflictsHigh |= 1L << (peer - 64);
           }
         }
       }
     }
-    return violations;
-  }
 
-  public static class VerificationResult {
-    private final VerificationState state;
-    private final List<String> invalidPositions;
-
-    public VerificationResult(VerificationState state, List<String> invalidPositions) {
-      this.state = state;
-      this.invalidPositions = invalidPositions;
+    // A cage is wrong once its digits pass the sum, or when it is full and misses it
+    for (int cage = 0; cage < cageSum.length; cage++) {
+      int unit = cageUnit[cage];
+      int sum = 0;
+      boolean full = true;
+      for (int i = unitStart[unit], end = unitStart[unit + 1]; i < end; i++) {
+        int value = values[unitCells[i]];
+        sum += value;
+        if (value == 0) full = false;
+      }
+      if (sum > cageSum[cage] || (full && sum != cageSum[cage])) {
+        for (int i = unitStart[unit], end = unitStart[unit + 1]; i < end; i++) {
+          int cell = unitCells[i];
+          if (cell < 64) conflictsLow |= 1L << cell;
+          else conflictsHigh |= 1L << (cell - 64);
+        }
+      }
     }
 
-    public VerificationState getState() {
-      return state;
+    // 2. Decision Logic:
+    // Check for violations BEFORE checking for empty cells.
+    // This ensures RED cells appear even if the board is incomplete.
+    if ((conflictsLow | conflictsHigh) != 0) {
+      return new VerificationResult(VerificationState.INVALID, conflictsLow, conflictsHigh);
     }
 
-    public List<String> getInvalidPositions() {
-      return invalidPositions;
+    // 3. If no violations found, THEN check if it's incomplete
+    if (hasZeros) {
+      return new VerificationResult(VerificationState.INCOMPLETE, 0, 0);
     }
 
-    public String toFormattedString() {
-      if (state == VerificationState.VALID) {
-        return "valid";
-      } else if (state == VerificationState.INCOMPLETE) {
-        return "incomplete";
-      } else {
-        return "invalid " + String.join(" ", invalidPositions);
-      }
-    }
+    // 4. If neither, it is VALID
+    return new VerificationResult(VerificationState.VALID, 0, 0);
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,88 @@
+package com.sudoku.logic;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import com.sudoku.model.DifficultyEnum;
+import com.sudoku.rules.RuleSet;
+import com.sudoku.solver.BitmaskSearch;
+
+// Builds solved grids and puzzles for any RuleSet. Shuffling a classic grid does not
+// preserve diagonals, windows or cages, so grids come from the rule-aware search instead.
+public class VariantGenerator {
+  private static final int ATTEMPTS = 64;
+  private static final long NODE_BUDGET = 200_000;
+
+  private final RuleSet rules;
+  private final BitmaskSearch search;
+
+  public VariantGenerator(RuleSet rules) {
+    this.rules = rules;
+    this.search = new BitmaskSearch(rules);
+  }
+
+  // A solved grid satisfying every rule, or null if none was found (e.g. contradictory cages).
+  // Without cages the seed picks a random first row; cages usually pin the grid, so they ignore
+  // it and get a single attempt: a second one would repeat exactly the same search.
+  public int[][] solvedGrid(long seed) {
+    SplittableRandom random = new SplittableRandom(seed);
+    int[] flat = new int[81];
+    for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+      Arrays.fill(flat, 0);
+      if (!rules.hasCages()) {
+        for (int col = 0; col < 9; col++) flat[col] = col + 1;
+        for (int col = 8; col > 0; col--) {
+          int other = random.nextInt(col + 1);
+          int swap = flat[col];
+          flat[col] = flat[other];
+          flat[other] = swap;
+        }
+      }
+      if (search.load(flat)) {
+        search.setMonitor((nodes, depth) -> nodes >= NODE_BUDGET, NODE_BUDGET);
+        if (search.next()) {
+          int[][] grid = new int[9][9];
+          for (int cell = 0; cell < 81; cell++) grid[cell / 9][cell % 9] = search.get(cell);
+          return grid;
+        }
+      }
+      if (rules.hasCages()) return null;
+    }
+    return null;
+  }
+
+  // Removes up to difficulty's cell count in random order, skipping any removal that
+  // would give the puzzle a second solution under these rules
+  public int[][] generate(DifficultyEnum difficulty, long seed) {
+    int[][] solved = solvedGrid(seed);
+    if (solved == null) return null;
+    SplittableRandom random = new SplittableRandom(seed ^ 0x9E3779B97F4A7C15L);
+    int[] order = new int[81];
+    for (int cell = 0; cell < 81; cell++) order[cell] = cell;
+    for (int i = 80; i > 0; i--) {
+      int other = random.nextInt(i + 1);
+      int swap = order[i];
+      order[i] = order[other];
+      order[other] = swap;
+    }
+
+    int[] flat = new int[81];
+    for (int cell = 0; cell < 81; cell++) flat[cell] = solved[cell / 9][cell % 9];
+    search.setMonitor(null, 0);
+    int removed = 0;
+    for (int i = 0; i < 81 && removed < difficulty.getCellsToRemove(); i++) {
+      int cell = order[i];
+      int value = flat[cell];
+      flat[cell] = 0;
+      if (search.load(flat) && search.countSolutions(2) == 1) {
+        removed++;
+      } else {
+        flat[cell] = value;
+      }
+    }
+
+    int[][] puzzle = new int[9][9];
+    for (int cell = 0; cell < 81; cell++) puzzle[cell / 9][cell % 9] = flat[cell];
+    return puzzle;
+  }
+}
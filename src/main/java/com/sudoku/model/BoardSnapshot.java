@@ -0,0 +1,106 @@
+package com.sudoku.model;
+
+import java.util.Arrays;
+
+// Immutable board. with() copies only the touched row and shares the other eight,
+// so a snapshot per move costs about nine ints and can be read from any thread.
+public final class BoardSnapshot implements BoardView {
+  public static final BoardSnapshot EMPTY = new BoardSnapshot(emptyRows());
+
+  private final int[][] rows;
+  private int hash;
+
+  private BoardSnapshot(int[][] rows) {
+    this.rows = rows;
+  }
+
+  public static BoardSnapshot of(int[][] board) {
+    int[][] rows = new int[9][];
+    for (int row = 0; row < 9; row++) {
+      rows[row] = Arrays.copyOf(board[row], 9);
+    }
+    return new BoardSnapshot(rows);
+  }
+
+  public static BoardSnapshot of(BoardView board) {
+    int[][] rows = new int[9][9];
+    for (int row = 0; row < 9; row++) {
+      for (int col = 0; col < 9; col++) {
+        rows[row][col] = board.get(row, col);
+      }
+    }
+    return new BoardSnapshot(rows);
+  }
+
+  @Override
+  public int get(int row, int col) {
+    return rows[row][col];
+  }
+
+  public BoardSnapshot with(int row, int col, int value) {
+    if (rows[row][col] == value) return this;
+    int[][] next = rows.clone();
+    next[row] = rows[row].clone();
+    next[row][col] = value;
+    return new BoardSnapshot(next);
+  }
+
+  public int countEmpty() {
+    int empty = 0;
+    for (int[] row : rows) {
+      for (int value : row) {
+        if (value == 0) empty++;
+      }
+    }
+    return empty;
+  }
+
+  public int[][] toArray() {
+    int[][] copy = new int[9][];
+    for (int row = 0; row < 9; row++) {
+      copy[row] = rows[row].clone();
+    }
+    return copy;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof BoardSnapshot)) return false;
+    BoardSnapshot other = (BoardSnapshot) o;
+    for (int row = 0; row < 9; row++) {
+      if (rows[row] != other.rows[row] && !Arrays.equals(rows[row], other.rows[row])) return false;
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int h = hash;
+    if (h == 0) {
+      h = Arrays.deepHashCode(rows);
+      hash = h;
+    }
+    return h;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    for (int[] row : rows) {
+      for (int col = 0; col < 9; col++) {
+        if (col > 0) sb.append(',');
+        sb.append(row[col]);
+      }
+      sb.append('\n');
+    }
+    return sb.toString();
+  }
+
+  private static int[][] emptyRows() {
+    int[] zeros = new int[9];
+    int[][] rows = new int[9][];
+    Arrays.fill(rows, zeros);
+    return rows;
+  }
+}
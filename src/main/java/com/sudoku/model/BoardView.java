@@ -0,0 +1,6 @@
+package com.sudoku.model;
+
+// Read-only cell access, so the verifier and solver can work on boards that are not int[][]
+public interface BoardView {
+  int get(int row, int col);
+}
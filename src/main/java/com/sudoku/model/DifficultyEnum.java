@@ -4,14 +4,28 @@ public enum DifficultyEnum {
   EASY(10, "easy"),
   MEDIUM(20, "medium"),
   HARD(25, "hard"),
-  INITIAL(0, "incomplete"); // Used to save the 'Clean' state
+  INITIAL(0, "incomplete"), // Used to save the 'Clean' state
+  // Dug by PuzzleDigger to 26 clues, or to a minimal puzzle if that comes first, keeping a
+  // unique solution. Declared last so the ordinals stored in puzzle keys do not shift.
+  EXPERT(55, "expert", true);
 
   private final int cellsToRemove;
   private final String folderName;
+  private final boolean dug;
 
   DifficultyEnum(int cellsToRemove, String folderName) {
+    this(cellsToRemove, folderName, false);
+  }
+
+  DifficultyEnum(int cellsToRemove, String folderName, boolean dug) {
     this.cellsToRemove = cellsToRemove;
     this.folderName = folderName;
+    this.dug = dug;
+  }
+
+  // True when cells are removed only while the solution stays unique, instead of at random
+  public boolean isDug() {
+    return dug;
   }
 
   public int getCellsToRemove() {
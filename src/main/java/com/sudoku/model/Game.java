@@ -1,6 +1,6 @@
 package com.sudoku.model;
 
-public class Game {
+public class Game implements BoardView {
   private int[][] board;
 
   public Game(int[][] board) {
@@ -20,7 +20,17 @@ public class Game {
     return board[row][col];
   }
 
+  @Override
+  public int get(int row, int col) {
+    return board[row][col];
+  }
+
   public void setCell(int row, int col, int value) {
     board[row][col] = value;
   }
+
+  // Immutable copy of the current state, safe to hand to other threads
+  public BoardSnapshot snapshot() {
+    return BoardSnapshot.of(board);
+  }
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.sudoku.model;
+
+// A puzzle together with the solved grid it was dug from. The solution may be null for
+// boards saved before solutions were stored.
+public class Puzzle {
+  private final int[][] board;
+  private final int[][] solution;
+
+  public Puzzle(int[][] board, int[][] solution) {
+    this.board = board;
+    this.solution = solution;
+  }
+
+  public int[][] getBoard() {
+    return board;
+  }
+
+  public int[][] getSolution() {
+    return solution;
+  }
+}
@@ -0,0 +1,72 @@
+package com.sudoku.model;
+
+import java.nio.ByteBuffer;
+
+// Fully identifies a generated puzzle: the same (source grid, seed, difficulty)
+// always rebuilds the same board, so a bank only needs to store these 16 bytes.
+public class PuzzleKey {
+  public static final int BYTES = 16;
+
+  // Source id 0 is the solution bundled with the application
+  public static final int BUNDLED_SOURCE = 0;
+
+  // The grid itself is produced from the seed by SolvedGridGenerator
+  public static final int GENERATED_SOURCE = -1;
+
+  private final int sourceId;
+  private final long seed;
+  private final DifficultyEnum difficulty;
+
+  public PuzzleKey(int sourceId, long seed, DifficultyEnum difficulty) {
+    this.sourceId = sourceId;
+    this.seed = seed;
+    this.difficulty = difficulty;
+  }
+
+  public int getSourceId() {
+    return sourceId;
+  }
+
+  public long getSeed() {
+    return seed;
+  }
+
+  public DifficultyEnum getDifficulty() {
+    return difficulty;
+  }
+
+  public void writeTo(ByteBuffer buffer) {
+    buffer.putInt(sourceId);
+    buffer.putLong(seed);
+    buffer.putInt(difficulty.ordinal());
+  }
+
+  public static PuzzleKey readFrom(ByteBuffer buffer) {
+    int sourceId = buffer.getInt();
+    long seed = buffer.getLong();
+    int ordinal = buffer.getInt();
+    DifficultyEnum[] values = DifficultyEnum.values();
+    if (ordinal < 0 || ordinal >= values.length) {
+      throw new IllegalArgumentException("Invalid difficulty ordinal: " + ordinal);
+    }
+    return new PuzzleKey(sourceId, seed, values[ordinal]);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof PuzzleKey)) return false;
+    PuzzleKey other = (PuzzleKey) o;
+    return sourceId == other.sourceId && seed == other.seed && difficulty == other.difficulty;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * (31 * sourceId + Long.hashCode(seed)) + difficulty.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%d:%016x:%s", sourceId, seed, difficulty.getFolderName());
+  }
+}
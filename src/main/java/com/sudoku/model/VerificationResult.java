@@ -0,0 +1,68 @@
+package com.sudoku.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Verification outcome with the conflicting cells as an 81-bit set (cell = row * 9 + col).
+// The string form is only built on request, for logging and tests.
+public class VerificationResult {
+  private final VerificationState state;
+  private final long conflictsLow;  // cells 0-63
+  private final long conflictsHigh; // cells 64-80
+
+  public VerificationResult(VerificationState state, long conflictsLow, long conflictsHigh) {
+    this.state = state;
+    this.conflictsLow = conflictsLow;
+    this.conflictsHigh = conflictsHigh;
+  }
+
+  // Adds cells to the conflict set (e.g. entries that differ from a known solution)
+  public VerificationResult withConflicts(long low, long high) {
+    if ((low | high) == 0) return this;
+    return new VerificationResult(VerificationState.INVALID, conflictsLow | low, conflictsHigh | high);
+  }
+
+  public VerificationState getState() {
+    return state;
+  }
+
+  public boolean isConflict(int row, int col) {
+    int cell = row * 9 + col;
+    return cell < 64
+        ? (conflictsLow & (1L << cell)) != 0
+        : (conflictsHigh & (1L << (cell - 64))) != 0;
+  }
+
+  public boolean isValid(int row, int col) {
+    return !isConflict(row, col);
+  }
+
+  public int getConflictCount() {
+    return Long.bitCount(conflictsLow) + Long.bitCount(conflictsHigh);
+  }
+
+  public List<String> getInvalidPositions() {
+    List<String> positions = new ArrayList<>(getConflictCount());
+    for (int row = 0; row < 9; row++) {
+      for (int col = 0; col < 9; col++) {
+        if (isConflict(row, col)) positions.add(row + "," + col);
+      }
+    }
+    return positions;
+  }
+
+  public String toFormattedString() {
+    if (state == VerificationState.VALID) {
+      return "valid";
+    } else if (state == VerificationState.INCOMPLETE) {
+      return "incomplete";
+    } else {
+      return "invalid " + String.join(" ", getInvalidPositions());
+    }
+  }
+
+  @Override
+  public String toString() {
+    return toFormattedString();
+  }
+}
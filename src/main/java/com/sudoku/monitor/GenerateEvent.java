@@ -0,0 +1,25 @@
+package com.sudoku.monitor;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.sudoku.Generate")
+@Label("Generate Puzzle")
+@Category({ "Sudoku", "Engine" })
+@Description("Generation of one puzzle from a solved grid")
+@StackTrace(false)
+public class GenerateEvent extends Event {
+  @Label("Difficulty")
+  public String difficulty;
+
+  @Label("Cells Removed")
+  public int cellsRemoved;
+
+  @Label("Retries")
+  @Description("Random draws rejected because the cell was already removed")
+  public int retries;
+}
@@ -0,0 +1,27 @@
+package com.sudoku.monitor;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.sudoku.Solve")
+@Label("Solve")
+@Category({ "Sudoku", "Engine" })
+@Description("A single solver invocation")
+@StackTrace(false)
+public class SolveEvent extends Event {
+  @Label("Strategy")
+  public String strategy;
+
+  @Label("Empty Cells")
+  public int emptyCells;
+
+  @Label("Nodes Explored")
+  public long nodesExplored;
+
+  @Label("Outcome")
+  public String outcome;
+}
@@ -0,0 +1,26 @@
+package com.sudoku.monitor;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.sudoku.Storage")
+@Label("Storage Operation")
+@Category({ "Sudoku", "Storage" })
+@Description("A file operation performed by the StorageManager")
+@StackTrace(false)
+public class StorageEvent extends Event {
+  @Label("Operation")
+  public String operation;
+
+  @Label("Path")
+  public String path;
+
+  @Label("Bytes")
+  @DataAmount
+  public long bytes;
+}
@@ -0,0 +1,21 @@
+package com.sudoku.monitor;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.sudoku.Verify")
+@Label("Verify")
+@Category({ "Sudoku", "Engine" })
+@Description("A single board verification")
+@StackTrace(false)
+public class VerifyEvent extends Event {
+  @Label("State")
+  public String state;
+
+  @Label("Conflicts")
+  public int conflicts;
+}
@@ -0,0 +1,58 @@
+package com.sudoku.multiplayer;
+
+// One accepted edit on a SharedBoard, as delivered to subscribers
+public final class CellChange {
+  private final int row;
+  private final int col;
+  private final int value;
+  private final int player;
+  private final int version;
+  private final boolean replaced;
+
+  CellChange(int row, int col, int value, int player, int version, boolean replaced) {
+    this.row = row;
+    this.col = col;
+    this.value = value;
+    this.player = player;
+    this.version = version;
+    this.replaced = replaced;
+  }
+
+  public int getRow() {
+    return row;
+  }
+
+  public int getCol() {
+    return col;
+  }
+
+  public int getValue() {
+    return value;
+  }
+
+  public int getPlayer() {
+    return player;
+  }
+
+  public int getVersion() {
+    return version;
+  }
+
+  // True when this edit overrode a concurrent edit made from the same base version
+  public boolean isReplaced() {
+    return replaced;
+  }
+
+  // Changes can reach a subscriber out of order; apply one only if it supersedes
+  // the last change seen for the same cell (higher version, or same version and lower player)
+  public boolean supersedes(CellChange previous) {
+    if (previous == null) return true;
+    int diff = (short) (version - previous.version);
+    return diff > 0 || (diff == 0 && player < previous.player);
+  }
+
+  @Override
+  public String toString() {
+    return "(" + row + "," + col + ")=" + value + " by " + player + " v" + version + (replaced ? " (replaced)" : "");
+  }
+}
@@ -0,0 +1,46 @@
+package com.sudoku.multiplayer;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Multi-producer fan-out: every publish is offered to each subscriber's own lock-free queue.
+// Subscribing is rare (copy-on-write list); publishing never blocks.
+public class ChangeFeed {
+  private final CopyOnWriteArrayList<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+  public Subscription subscribe() {
+    Subscription subscription = new Subscription();
+    subscriptions.add(subscription);
+    return subscription;
+  }
+
+  void publish(CellChange change) {
+    for (Subscription subscription : subscriptions) {
+      subscription.queue.offer(change);
+    }
+  }
+
+  public int subscriberCount() {
+    return subscriptions.size();
+  }
+
+  public class Subscription implements AutoCloseable {
+    private final Queue<CellChange> queue = new ConcurrentLinkedQueue<>();
+
+    // Next pending change, or null when this subscriber is caught up
+    public CellChange poll() {
+      return queue.poll();
+    }
+
+    public boolean isEmpty() {
+      return queue.isEmpty();
+    }
+
+    @Override
+    public void close() {
+      subscriptions.remove(this);
+      queue.clear();
+    }
+  }
+}
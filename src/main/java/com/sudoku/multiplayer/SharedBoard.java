@@ -0,0 +1,115 @@
+package com.sudoku.multiplayer;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import com.sudoku.model.BoardView;
+
+// A board several players edit at once without a global lock.
+//
+// Each cell is one int: version (16 bits) | player (12 bits) | value (4 bits).
+// Player 0 is the puzzle itself; givens are never editable.
+// An edit names the version it was based on and is applied with compare-and-set:
+//   - base == current version: accepted, version + 1
+//   - base == current version - 1 and the current edit was also made from that base:
+//     the lower player id wins, whatever order the two arrived in
+//   - anything older is stale and rejected; the player re-reads and retries
+public class SharedBoard implements BoardView {
+  public static final int PUZZLE = 0;
+  public static final int MAX_PLAYER = 0xFFF;
+
+  private static final int VALUE_BITS = 4;
+  private static final int PLAYER_BITS = 12;
+  private static final int VERSION_SHIFT = VALUE_BITS + PLAYER_BITS;
+  private static final int VERSION_MASK = 0xFFFF;
+
+  public enum Outcome { ACCEPTED, REPLACED, LOST, STALE, FIXED }
+
+  private final AtomicIntegerArray cells = new AtomicIntegerArray(81);
+  private final boolean[] fixed = new boolean[81];
+  private final ChangeFeed feed = new ChangeFeed();
+
+  public SharedBoard(int[][] puzzle) {
+    for (int row = 0; row < 9; row++) {
+      for (int col = 0; col < 9; col++) {
+        int value = puzzle[row][col];
+        fixed[row * 9 + col] = value != 0;
+        cells.set(row * 9 + col, pack(value, PUZZLE, 0));
+      }
+    }
+  }
+
+  @Override
+  public int get(int row, int col) {
+    return valueOf(cells.get(row * 9 + col));
+  }
+
+  public int getVersion(int row, int col) {
+    return versionOf(cells.get(row * 9 + col));
+  }
+
+  public int getPlayer(int row, int col) {
+    return playerOf(cells.get(row * 9 + col));
+  }
+
+  public ChangeFeed getFeed() {
+    return feed;
+  }
+
+  public Outcome set(int player, int row, int col, int value, int baseVersion) {
+    if (player <= PUZZLE || player > MAX_PLAYER) {
+      throw new IllegalArgumentException("Player id out of range: " + player);
+    }
+    if (value < 0 || value > 9) {
+      throw new IllegalArgumentException("Value out of range: " + value);
+    }
+    int index = row * 9 + col;
+    if (fixed[index]) return Outcome.FIXED;
+
+    while (true) {
+      int current = cells.get(index);
+      int version = versionOf(current);
+      int next;
+      boolean replacing;
+      if (version == baseVersion) {
+        next = pack(value, player, (baseVersion + 1) & VERSION_MASK);
+        replacing = false;
+      } else if (version == ((baseVersion + 1) & VERSION_MASK)) {
+        // Concurrent edit from the same base: the lower player id wins
+        if (playerOf(current) <= player) return Outcome.LOST;
+        next = pack(value, player, version);
+        replacing = true;
+      } else {
+        return Outcome.STALE;
+      }
+      if (cells.compareAndSet(index, current, next)) {
+        feed.publish(new CellChange(row, col, value, player, versionOf(next), replacing));
+        return replacing ? Outcome.REPLACED : Outcome.ACCEPTED;
+      }
+      // Lost the CAS race; re-read and decide again
+    }
+  }
+
+  public int[][] toArray() {
+    int[][] board = new int[9][9];
+    for (int i = 0; i < 81; i++) {
+      board[i / 9][i % 9] = valueOf(cells.get(i));
+    }
+    return board;
+  }
+
+  private static int pack(int value, int player, int version) {
+    return version << VERSION_SHIFT | player << VALUE_BITS | value;
+  }
+
+  private static int valueOf(int cell) {
+    return cell & 0xF;
+  }
+
+  private static int playerOf(int cell) {
+    return (cell >>> VALUE_BITS) & MAX_PLAYER;
+  }
+
+  private static int versionOf(int cell) {
+    return cell >>> VERSION_SHIFT;
+  }
+}
@@ -0,0 +1,293 @@
+package com.sudoku.rules;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Sudoku rules compiled into flat index tables.
+//
+// A variant is declared as extra units (cells that must not repeat a digit), knight peers
+// and killer cages, then build() lays everything out as int arrays:
+//   units:  unitStart[u]..unitStart[u + 1] index into unitCells
+//   cells:  cellUnitStart[c]..cellUnitStart[c + 1] index into cellUnits (the units holding c)
+//   peers:  peerStart[c]..peerStart[c + 1] index into peers (cells that must differ from c
+//           without forming a unit, e.g. a knight's move away)
+//   cages:  cellCage[c] is the cage of c or -1; every cage is also a unit (cageUnit)
+// The verifier and solver walk these tables directly, so classic boards and variants
+// take the same code path with no per-cell dispatch.
+//
+// The arrays returned by the getters are the compiled tables themselves; callers must not
+// modify them.
+public final class RuleSet {
+  public static final RuleSet CLASSIC = builder().build();
+
+  // CAGE_CANDIDATES[k][s]: digits that occur in some set of k distinct digits summing to s
+  private static final int[][] CAGE_CANDIDATES = new int[10][46];
+
+  static {
+    for (int set = 1; set < 512; set++) {
+      int sum = 0;
+      for (int bit = 0; bit < 9; bit++) {
+        if ((set & (1 << bit)) != 0) sum += bit + 1;
+      }
+      CAGE_CANDIDATES[Integer.bitCount(set)][sum] |= set;
+    }
+  }
+
+  private final String name;
+  private final int[] unitStart;
+  private final int[] unitCells;
+  private final int[] cellUnitStart;
+  private final int[] cellUnits;
+  private final int[] peerStart;
+  private final int[] peers;
+  private final int[] cellCage;
+  private final int[] cageUnit;
+  private final int[] cageSum;
+
+  private RuleSet(String name, List<int[]> units, boolean[][] peerMatrix, List<int[]> cages, int[] sums) {
+    this.name = name;
+
+    unitStart = new int[units.size() + 1];
+    int total = 0;
+    for (int u = 0; u < units.size(); u++) {
+      unitStart[u] = total;
+      total += units.get(u).length;
+    }
+    unitStart[units.size()] = total;
+    unitCells = new int[total];
+    int[] unitsPerCell = new int[81];
+    for (int u = 0; u < units.size(); u++) {
+      int[] cells = units.get(u);
+      System.arraycopy(cells, 0, unitCells, unitStart[u], cells.length);
+      for (int cell : cells) unitsPerCell[cell]++;
+    }
+
+    cellUnitStart = prefixSums(unitsPerCell);
+    cellUnits = new int[cellUnitStart[81]];
+    int[] fill = Arrays.copyOf(cellUnitStart, 81);
+    for (int u = 0; u < units.size(); u++) {
+      for (int cell : units.get(u)) cellUnits[fill[cell]++] = u;
+    }
+
+    int[] peersPerCell = new int[81];
+    for (int a = 0; a < 81; a++) {
+      for (int b = 0; b < 81; b++) {
+        if (peerMatrix[a][b]) peersPerCell[a]++;
+      }
+    }
+    peerStart = prefixSums(peersPerCell);
+    peers = new int[peerStart[81]];
+    for (int a = 0, next = 0; a < 81; a++) {
+      for (int b = 0; b < 81; b++) {
+        if (peerMatrix[a][b]) peers[next++] = b;
+      }
+    }
+
+    cellCage = new int[81];
+    Arrays.fill(cellCage, -1);
+    cageUnit = new int[cages.size()];
+    cageSum = Arrays.copyOf(sums, cages.size());
+    int firstCageUnit = units.size() - cages.size();
+    for (int cage = 0; cage < cages.size(); cage++) {
+      cageUnit[cage] = firstCageUnit + cage;
+      for (int cell : cages.get(cage)) cellCage[cell] = cage;
+    }
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getUnitCount() {
+    return unitStart.length - 1;
+  }
+
+  public int[] getUnitStart() {
+    return unitStart;
+  }
+
+  public int[] getUnitCells() {
+    return unitCells;
+  }
+
+  public int[] getCellUnitStart() {
+    return cellUnitStart;
+  }
+
+  public int[] getCellUnits() {
+    return cellUnits;
+  }
+
+  public boolean hasPeers() {
+    return peers.length > 0;
+  }
+
+  public int[] getPeerStart() {
+    return peerStart;
+  }
+
+  public int[] getPeers() {
+    return peers;
+  }
+
+  public boolean hasCages() {
+    return cageSum.length > 0;
+  }
+
+  public int getCageCount() {
+    return cageSum.length;
+  }
+
+  public int[] getCellCage() {
+    return cellCage;
+  }
+
+  public int[] getCageUnit() {
+    return cageUnit;
+  }
+
+  public int[] getCageSum() {
+    return cageSum;
+  }
+
+  // Bitmask (bit v-1 = digit v) of digits that can still appear in a cage with
+  // cellsLeft empty cells whose digits must add up to remainingSum
+  public static int cageCandidates(int cellsLeft, int remainingSum) {
+    if (cellsLeft < 1 || cellsLeft > 9 || remainingSum < 1 || remainingSum > 45) return 0;
+    return CAGE_CANDIDATES[cellsLeft][remainingSum];
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+
+  private static int[] prefixSums(int[] counts) {
+    int[] start = new int[counts.length + 1];
+    for (int i = 0; i < counts.length; i++) {
+      start[i + 1] = start[i] + counts[i];
+    }
+    return start;
+  }
+
+  public static class Builder {
+    private final List<int[]> units = new ArrayList<>();
+    private final List<int[]> cages = new ArrayList<>();
+    private final List<Integer> sums = new ArrayList<>();
+    private final boolean[][] peers = new boolean[81][81];
+    private final boolean[] caged = new boolean[81];
+    private final List<String> names = new ArrayList<>();
+
+    private Builder() {
+      for (int i = 0; i < 9; i++) {
+        int[] row = new int[9];
+        int[] col = new int[9];
+        int[] box = new int[9];
+        for (int j = 0; j < 9; j++) {
+          row[j] = i * 9 + j;
+          col[j] = j * 9 + i;
+          box[j] = ((i / 3) * 3 + j / 3) * 9 + (i % 3) * 3 + j % 3;
+        }
+        units.add(row);
+        units.add(col);
+        units.add(box);
+      }
+    }
+
+    // Both main diagonals (X-Sudoku)
+    public Builder diagonals() {
+      int[] main = new int[9];
+      int[] anti = new int[9];
+      for (int i = 0; i < 9; i++) {
+        main[i] = i * 9 + i;
+        anti[i] = i * 9 + (8 - i);
+      }
+      units.add(main);
+      units.add(anti);
+      names.add("diagonal");
+      return this;
+    }
+
+    // Four extra 3x3 windows at rows/cols 1-3 and 5-7 (Windoku)
+    public Builder windoku() {
+      for (int top : new int[] { 1, 5 }) {
+        for (int left : new int[] { 1, 5 }) {
+          int[] window = new int[9];
+          for (int j = 0; j < 9; j++) {
+            window[j] = (top + j / 3) * 9 + left + j % 3;
+          }
+          units.add(window);
+        }
+      }
+      names.add("windoku");
+      return this;
+    }
+
+    // Cells a knight's move apart must differ
+    public Builder antiKnight() {
+      int[][] moves = { { 1, 2 }, { 2, 1 }, { -1, 2 }, { -2, 1 }, { 1, -2 }, { 2, -1 }, { -1, -2 }, { -2, -1 } };
+      for (int cell = 0; cell < 81; cell++) {
+        for (int[] move : moves) {
+          int row = cell / 9 + move[0];
+          int col = cell % 9 + move[1];
+          if (row >= 0 && row < 9 && col >= 0 && col < 9) peers[cell][row * 9 + col] = true;
+        }
+      }
+      names.add("anti-knight");
+      return this;
+    }
+
+    // Any extra set of up to nine cells that must not repeat a digit
+    public Builder unit(int... cells) {
+      units.add(checkCells(cells).clone());
+      if (!names.contains("custom")) names.add("custom");
+      return this;
+    }
+
+    // Killer cage: distinct digits adding up to sum. Cages may not overlap.
+    public Builder cage(int sum, int... cells) {
+      checkCells(cells);
+      if (sum < 1 || sum > 45 || RuleSet.cageCandidates(cells.length, sum) == 0) {
+        throw new IllegalArgumentException("No " + cells.length + " distinct digits add up to " + sum);
+      }
+      for (int cell : cells) {
+        if (caged[cell]) throw new IllegalArgumentException("Cell " + cell + " is already in a cage");
+        caged[cell] = true;
+      }
+      cages.add(cells.clone());
+      sums.add(sum);
+      if (!names.contains("killer")) names.add("killer");
+      return this;
+    }
+
+    public RuleSet build() {
+      // Cages go last so cage c is unit (units - cages + c)
+      List<int[]> all = new ArrayList<>(units);
+      all.addAll(cages);
+      int[] cageSums = new int[sums.size()];
+      for (int i = 0; i < cageSums.length; i++) cageSums[i] = sums.get(i);
+      boolean[][] peerCopy = new boolean[81][];
+      for (int cell = 0; cell < 81; cell++) peerCopy[cell] = peers[cell].clone();
+      String name = names.isEmpty() ? "classic" : String.join("+", names);
+      return new RuleSet(name, all, peerCopy, cages, cageSums);
+    }
+
+    private static int[] checkCells(int[] cells) {
+      if (cells.length == 0 || cells.length > 9) {
+        throw new IllegalArgumentException("A unit needs 1 to 9 cells, got " + cells.length);
+      }
+      boolean[] seen = new boolean[81];
+      for (int cell : cells) {
+        if (cell < 0 || cell >= 81) throw new IllegalArgumentException("Cell out of range: " + cell);
+        if (seen[cell]) throw new IllegalArgumentException("Cell listed twice: " + cell);
+        seen[cell] = true;
+      }
+      return cells;
+    }
+  }
+}
@@ -0,0 +1,406 @@
+package com.sudoku.solver;
+
+import com.sudoku.model.BoardView;
+import com.sudoku.rules.RuleSet;
+
+// Iterative depth-first search over candidate bitmasks (bit v-1 set = value v allowed).
+// The next empty cell is the one with the fewest candidates. All state lives in
+// preallocated primitive arrays, so stepping from one solution to the next
+// allocates nothing. Constraints come from a compiled RuleSet: one digit mask per unit,
+// plus knight-style peers and cage sums when the variant has them.
+public class BitmaskSearch {
+  // Polled every check interval; returning true stops the search
+  public interface Monitor {
+    boolean shouldStop(long nodes, int depth);
+  }
+
+  static final int ALL = 0x1FF;
+
+  // Every rule set starts with the 27 classic units, so each cell's first three units are
+  // its row, column and box; those are read directly and only variant units are looped over
+  private final RuleSet rules;
+  private final int[] rowUnit = new int[81];
+  private final int[] colUnit = new int[81];
+  private final int[] boxUnit = new int[81];
+  private final int[] cellUnitStart;
+  private final int[] cellUnits;
+  private final boolean hasExtraUnits;
+  private final int[] peerStart;
+  private final int[] peers;
+  private final boolean hasPeers;
+  private final int[] cellCage;
+  private final int[] cageUnit;
+  private final int[] cageSum;
+  private final boolean hasCages;
+
+  private final int[] cells = new int[81];
+  private final int[] unitMask;
+  private final int[] cageFilled;
+  private final int[] cageEmpty;
+  private final int[] stackCell = new int[81];
+  private final int[] stackRemaining = new int[81];
+  private int depth;
+  private int empty;
+  private int forcedCell = -1;
+  private int forcedMask;
+  private boolean started;
+  private boolean contradiction;
+  private boolean stopped;
+  private long nodes;
+  private Monitor monitor;
+  private long checkInterval;
+  private long nextCheck;
+
+  public BitmaskSearch() {
+    this(RuleSet.CLASSIC);
+  }
+
+  public BitmaskSearch(RuleSet rules) {
+    this.rules = rules;
+    cellUnitStart = rules.getCellUnitStart();
+    cellUnits = rules.getCellUnits();
+    for (int cell = 0; cell < 81; cell++) {
+      int first = cellUnitStart[cell];
+      rowUnit[cell] = cellUnits[first];
+      colUnit[cell] = cellUnits[first + 1];
+      boxUnit[cell] = cellUnits[first + 2];
+    }
+    hasExtraUnits = cellUnits.length > 3 * 81;
+    peerStart = rules.getPeerStart();
+    peers = rules.getPeers();
+    hasPeers = rules.hasPeers();
+    cellCage = rules.getCellCage();
+    cageUnit = rules.getCageUnit();
+    cageSum = rules.getCageSum();
+    hasCages = rules.hasCages();
+    unitMask = new int[rules.getUnitCount()];
+    cageFilled = new int[rules.getCageCount()];
+    cageEmpty = new int[rules.getCageCount()];
+  }
+
+  public RuleSet getRules() {
+    return rules;
+  }
+
+  public boolean load(int[][] board) {
+    reset();
+    for (int row = 0; row < 9; row++) {
+      for (int col = 0; col < 9; col++) {
+        set(row * 9 + col, board[row][col]);
+      }
+    }
+    return !contradiction;
+  }
+
+  public boolean load(BoardView board) {
+    reset();
+    for (int row = 0; row < 9; row++) {
+      for (int col = 0; col < 9; col++) {
+        set(row * 9 + col, board.get(row, col));
+      }
+    }
+    return !contradiction;
+  }
+
+  // Row-major, 81 values, 0 = empty
+  public boolean load(int[] flat) {
+    reset();
+    for (int cell = 0; cell < 81; cell++) {
+      set(cell, flat[cell]);
+    }
+    return !contradiction;
+  }
+
+  // Restricts the first branching step to the given cell and candidate values
+  void force(int cell, int mask) {
+    forcedCell = cell;
+    forcedMask = mask;
+  }
+
+  public void setMonitor(Monitor monitor, long checkInterval) {
+    this.monitor = monitor;
+    this.checkInterval = checkInterval;
+    this.nextCheck = nodes + checkInterval;
+  }
+
+  // True when the last next() returned false because the monitor asked to stop
+  public boolean isStopped() {
+    return stopped;
+  }
+
+  // Advances to the next solution; the board is then readable through get/copyTo
+  public boolean next() {
+    if (contradiction || stopped) return false;
+    if (started) {
+      if (!retreat()) return false;
+    } else {
+      started = true;
+    }
+    while (true) {
+      if (empty == 0) return true;
+      if (monitor != null && nodes >= nextCheck) {
+        nextCheck = nodes + checkInterval;
+        if (monitor.shouldStop(nodes, depth)) {
+          stopped = true;
+          return false;
+        }
+      }
+      int cell;
+      int mask;
+      if (forcedCell >= 0) {
+        cell = forcedCell;
+        mask = forcedMask & candidates(cell);
+        forcedCell = -1;
+      } else {
+        cell = selectCell();
+        mask = candidates(cell);
+      }
+      if (mask == 0) {
+        if (!retreat()) return false;
+        continue;
+      }
+      int bit = mask & -mask;
+      stackCell[depth] = cell;
+      stackRemaining[depth] = mask & ~bit;
+      depth++;
+      place(cell, bit);
+    }
+  }
+
+  // True if the freshly loaded board has a solution where cell holds something other than
+  // value. For a board whose solution is known, this is the uniqueness test for removing
+  // that clue, and it stops at the first counterexample instead of counting to two.
+  public boolean hasAlternative(int cell, int value) {
+    if (started) throw new IllegalStateException("Load a board before testing alternatives");
+    force(cell, ALL & ~(1 << (value - 1)));
+    return next();
+  }
+
+  // Counts solutions, stopping once cap is reached
+  public long countSolutions(long cap) {
+    long count = 0;
+    while (count < cap && next()) {
+      count++;
+    }
+    return count;
+  }
+
+  public int get(int cell) {
+    return cells[cell];
+  }
+
+  public void copyTo(int[] out) {
+    System.arraycopy(cells, 0, out, 0, 81);
+  }
+
+  public long getNodes() {
+    return nodes;
+  }
+
+  public int getDepth() {
+    return depth;
+  }
+
+  int getEmptyCount() {
+    return empty;
+  }
+
+  boolean isStarted() {
+    return started;
+  }
+
+  // Hands half of the untried work at the shallowest open branch to a new search.
+  // Returns null when there is nothing left to give away.
+  BitmaskSearch split() {
+    if (contradiction) return null;
+    if (!started) {
+      return splitBeforeStart();
+    }
+    for (int i = 0; i < depth; i++) {
+      int remaining = stackRemaining[i];
+      if (remaining == 0) continue;
+      int given = upperHalf(remaining);
+      stackRemaining[i] = remaining & ~given;
+
+      int[] prefix = new int[81];
+      System.arraycopy(cells, 0, prefix, 0, 81);
+      for (int j = i; j < depth; j++) {
+        prefix[stackCell[j]] = 0;
+      }
+      BitmaskSearch other = new BitmaskSearch(rules);
+      other.load(prefix);
+      other.force(stackCell[i], given);
+      return other;
+    }
+    return null;
+  }
+
+  private BitmaskSearch splitBeforeStart() {
+    if (empty == 0) return null;
+    if (forcedCell < 0) {
+      forcedCell = selectCell();
+      forcedMask = candidates(forcedCell);
+    }
+    int mask = forcedMask & candidates(forcedCell);
+    if (Integer.bitCount(mask) < 2) return null;
+    int given = upperHalf(mask);
+    forcedMask = mask & ~given;
+
+    BitmaskSearch other = new BitmaskSearch(rules);
+    other.load(cells);
+    other.force(forcedCell, given);
+    return other;
+  }
+
+  private static int upperHalf(int mask) {
+    int keep = Integer.bitCount(mask) / 2;
+    int given = mask;
+    for (int i = 0; i < keep; i++) {
+      given &= given - 1;
+    }
+    return given;
+  }
+
+  private boolean retreat() {
+    while (depth > 0) {
+      int top = depth - 1;
+      int cell = stackCell[top];
+      unplace(cell);
+      int remaining = stackRemaining[top];
+      if (remaining == 0) {
+        depth--;
+        continue;
+      }
+      int bit = remaining & -remaining;
+      stackRemaining[top] = remaining & ~bit;
+      place(cell, bit);
+      return true;
+    }
+    return false;
+  }
+
+  private int selectCell() {
+    int best = -1;
+    int bestCount = 10;
+    for (int cell = 0; cell < 81; cell++) {
+      if (cells[cell] != 0) continue;
+      int count = Integer.bitCount(candidates(cell));
+      if (count < bestCount) {
+        best = cell;
+        bestCount = count;
+        if (count <= 1) break;
+      }
+    }
+    return best;
+  }
+
+  private int candidates(int cell) {
+    int used = unitMask[rowUnit[cell]] | unitMask[colUnit[cell]] | unitMask[boxUnit[cell]];
+    if (hasExtraUnits) {
+      for (int i = cellUnitStart[cell] + 3, end = cellUnitStart[cell + 1]; i < end; i++) {
+        used |= unitMask[cellUnits[i]];
+      }
+    }
+    int mask = ALL & ~used;
+    if (hasPeers) {
+      for (int i = peerStart[cell], end = peerStart[cell + 1]; i < end; i++) {
+        int value = cells[peers[i]];
+        if (value != 0) mask &= ~(1 << (value - 1));
+      }
+    }
+    if (hasCages) {
+      int cage = cellCage[cell];
+      if (cage >= 0) mask &= RuleSet.cageCandidates(cageEmpty[cage], cageSum[cage] - cageFilled[cage]);
+    }
+    return mask;
+  }
+
+  private void place(int cell, int bit) {
+    nodes++;
+    mark(cell, bit);
+  }
+
+  private void mark(int cell, int bit) {
+    int value = Integer.numberOfTrailingZeros(bit) + 1;
+    cells[cell] = value;
+    unitMask[rowUnit[cell]] |= bit;
+    unitMask[colUnit[cell]] |= bit;
+    unitMask[boxUnit[cell]] |= bit;
+    if (hasExtraUnits) {
+      for (int i = cellUnitStart[cell] + 3, end = cellUnitStart[cell + 1]; i < end; i++) {
+        unitMask[cellUnits[i]] |= bit;
+      }
+    }
+    if (hasCages) {
+      int cage = cellCage[cell];
+      if (cage >= 0) {
+        cageFilled[cage] += value;
+        cageEmpty[cage]--;
+      }
+    }
+    empty--;
+  }
+
+  private void unplace(int cell) {
+    int value = cells[cell];
+    int bit = 1 << (value - 1);
+    cells[cell] = 0;
+    unitMask[rowUnit[cell]] &= ~bit;
+    unitMask[colUnit[cell]] &= ~bit;
+    unitMask[boxUnit[cell]] &= ~bit;
+    if (hasExtraUnits) {
+      for (int i = cellUnitStart[cell] + 3, end = cellUnitStart[cell + 1]; i < end; i++) {
+        unitMask[cellUnits[i]] &= ~bit;
+      }
+    }
+    if (hasCages) {
+      int cage = cellCage[cell];
+      if (cage >= 0) {
+        cageFilled[cage] -= value;
+        cageEmpty[cage]++;
+      }
+    }
+    empty++;
+  }
+
+  private void set(int cell, int value) {
+    if (value == 0) return;
+    if (value < 1 || value > 9) {
+      contradiction = true;
+      return;
+    }
+    int bit = 1 << (value - 1);
+    if ((candidates(cell) & bit) == 0) {
+      contradiction = true;
+      return;
+    }
+    mark(cell, bit);
+  }
+
+  private int cageSize(int cage) {
+    int[] unitStart = rules.getUnitStart();
+    return unitStart[cageUnit[cage] + 1] - unitStart[cageUnit[cage]];
+  }
+
+  private void reset() {
+    for (int i = 0; i < 81; i++) {
+      cells[i] = 0;
+    }
+    for (int i = 0; i < unitMask.length; i++) {
+      unitMask[i] = 0;
+    }
+    for (int cage = 0; cage < cageEmpty.length; cage++) {
+      cageFilled[cage] = 0;
+      cageEmpty[cage] = cageSize(cage);
+    }
+    depth = 0;
+    empty = 81;
+    forcedCell = -1;
+    forcedMask = 0;
+    started = false;
+    contradiction = false;
+    stopped = false;
+    nodes = 0;
+    nextCheck = checkInterval;
+  }
+}
@@ -0,0 +1,24 @@
+package com.sudoku.solver;
+
+public class CancellationToken {
+  private final CancellationToken parent;
+  private volatile boolean cancelled;
+
+  public CancellationToken() {
+    this(null);
+  }
+
+  // A child is cancelled on its own or together with its parent, so one search of several
+  // can be stopped without touching the caller's token
+  public CancellationToken(CancellationToken parent) {
+    this.parent = parent;
+  }
+
+  public void cancel() {
+    cancelled = true;
+  }
+
+  public boolean isCancelled() {
+    return cancelled || (parent != null && parent.isCancelled());
+  }
+}
@@ -0,0 +1,461 @@
+package com.sudoku.solver;
+
+import java.util.Arrays;
+
+// Conflict-driven clause learning SAT solver with no dependencies.
+//
+// Variables are 1..varCount and literals use the DIMACS convention (+v / -v) at the API;
+// internally literal 2(v-1) is v and 2(v-1)+1 is not v. Clauses, original and learnt, live
+// in one int arena ([size, lit, lit, ...] per clause, the first two literals watched), and
+// watch lists, trail, levels and reasons are all primitive arrays. Branching is VSIDS over
+// a binary heap with phase saving; restarts follow the Luby sequence. Conflicts are
+// analysed to the first UIP and the learnt clause is locally minimised. Learnt clauses are
+// kept for the life of the solver: Sudoku instances need few enough conflicts that
+// database reduction would cost more than it saves.
+//
+// Not thread-safe; use one instance per problem.
+public class CdclSolver {
+  public enum Result {
+    SATISFIABLE,
+    UNSATISFIABLE,
+    STOPPED
+  }
+
+  private static final int RESTART_BASE = 64;
+  private static final double VAR_DECAY = 0.95;
+  private static final double RESCALE_LIMIT = 1e100;
+  private static final int NO_REASON = -1;
+
+  private final int varCount;
+
+  private int[] arena = new int[4096];
+  private int arenaSize;
+  private final int[][] watches;
+  private final int[] watchSize;
+
+  // Per variable: 1 true, -1 false, 0 unassigned
+  private final byte[] assign;
+  private final int[] level;
+  private final int[] reason;
+  private final boolean[] savedNegative;
+  private final boolean[] seen;
+  private final int[] trail;
+  private int trailSize;
+  private int qhead;
+  private final int[] trailLim;
+  private int decisionLevel;
+
+  private final double[] activity;
+  private double varInc = 1;
+  private final int[] heap;
+  private final int[] heapIndex;
+  private int heapSize;
+
+  private int[] learnt = new int[64];
+  private int[] toClear = new int[64];
+  private boolean unsatisfiable;
+  private long decisions;
+  private long conflicts;
+  private long propagations;
+  private long learntClauses;
+
+  private BitmaskSearch.Monitor monitor;
+  private long checkInterval = Long.MAX_VALUE;
+  private long nextCheck = Long.MAX_VALUE;
+
+  public CdclSolver(int varCount) {
+    this.varCount = varCount;
+    watches = new int[2 * varCount][];
+    watchSize = new int[2 * varCount];
+    for (int lit = 0; lit < watches.length; lit++) watches[lit] = new int[4];
+    assign = new byte[varCount];
+    level = new int[varCount];
+    reason = new int[varCount];
+    savedNegative = new boolean[varCount];
+    Arrays.fill(savedNegative, true);
+    seen = new boolean[varCount];
+    trail = new int[varCount];
+    trailLim = new int[varCount + 1];
+    activity = new double[varCount];
+    heap = new int[varCount];
+    heapIndex = new int[varCount];
+    for (int var = 0; var < varCount; var++) {
+      heapIndex[var] = -1;
+      heapInsert(var);
+    }
+  }
+
+  public int getVarCount() {
+    return varCount;
+  }
+
+  // Same contract as BitmaskSearch. Nodes are assignments (decisions and implied literals),
+  // the counterpart of the search's placements, and depth is the decision level.
+  public void setMonitor(BitmaskSearch.Monitor monitor, long checkInterval) {
+    this.monitor = monitor;
+    this.checkInterval = checkInterval;
+    this.nextCheck = propagations + checkInterval;
+  }
+
+  // Adds a clause of DIMACS literals before solve(). Returns false once the formula is
+  // known to be unsatisfiable.
+  public boolean addClause(int... literals) {
+    return addClause(literals, 0, literals.length);
+  }
+
+  public boolean addClause(int[] literals, int from, int to) {
+    if (unsatisfiable) return false;
+    if (decisionLevel != 0) throw new IllegalStateException("Clauses can only be added before solving");
+    int size = 0;
+    ensureLearntCapacity(to - from);
+    for (int i = from; i < to; i++) {
+      int lit = toInternal(literals[i]);
+      int value = litValue(lit);
+      if (value > 0) return true;
+      if (value < 0) continue;
+      boolean duplicate = false;
+      for (int j = 0; j < size; j++) {
+        if (learnt[j] == lit) duplicate = true;
+        if (learnt[j] == (lit ^ 1)) return true;
+      }
+      if (!duplicate) learnt[size++] = lit;
+    }
+    if (size == 0) {
+      unsatisfiable = true;
+      return false;
+    }
+    if (size == 1) {
+      enqueue(learnt[0], NO_REASON);
+      if (propagate() != NO_REASON) unsatisfiable = true;
+      return !unsatisfiable;
+    }
+    attach(storeClause(learnt, size));
+    return true;
+  }
+
+  public Result solve() {
+    if (unsatisfiable) return Result.UNSATISFIABLE;
+    if (propagate() != NO_REASON) {
+      unsatisfiable = true;
+      return Result.UNSATISFIABLE;
+    }
+    for (int restart = 0;; restart++) {
+      Result result = search(luby(restart) * RESTART_BASE);
+      if (result != null) return result;
+      cancelUntil(0);
+    }
+  }
+
+  // Value of a variable in the model found by the last SATISFIABLE solve()
+  public boolean isTrue(int var) {
+    return assign[var - 1] > 0;
+  }
+
+  public long getDecisions() {
+    return decisions;
+  }
+
+  public long getConflicts() {
+    return conflicts;
+  }
+
+  public long getPropagations() {
+    return propagations;
+  }
+
+  public long getLearntClauses() {
+    return learntClauses;
+  }
+
+  // Runs until a model, a refutation, a stop request, or budget conflicts (null: restart)
+  private Result search(long budget) {
+    long conflictsHere = 0;
+    while (true) {
+      int conflict = propagate();
+      if (monitor != null && propagations >= nextCheck) {
+        nextCheck = propagations + checkInterval;
+        if (monitor.shouldStop(propagations, decisionLevel)) return Result.STOPPED;
+      }
+      if (conflict != NO_REASON) {
+        conflicts++;
+        conflictsHere++;
+        if (decisionLevel == 0) {
+          unsatisfiable = true;
+          return Result.UNSATISFIABLE;
+        }
+        int size = analyze(conflict);
+        cancelUntil(backjumpLevel(size));
+        if (size == 1) {
+          enqueue(learnt[0], NO_REASON);
+        } else {
+          int clause = storeClause(learnt, size);
+          attach(clause);
+          enqueue(learnt[0], clause);
+          learntClauses++;
+        }
+        varInc /= VAR_DECAY;
+        continue;
+      }
+      if (conflictsHere >= budget) return null;
+      int next = pickBranchLiteral();
+      if (next < 0) return Result.SATISFIABLE;
+      decisions++;
+      trailLim[decisionLevel++] = trailSize;
+      enqueue(next, NO_REASON);
+    }
+  }
+
+  // Two watched literals: a clause is only visited when one of its first two literals
+  // becomes false, and it then either finds another watch, becomes a unit, or conflicts
+  private int propagate() {
+    while (qhead < trailSize) {
+      int falseLit = trail[qhead++] ^ 1;
+      int[] list = watches[falseLit];
+      int n = watchSize[falseLit];
+      int i = 0;
+      int j = 0;
+      while (i < n) {
+        int clause = list[i++];
+        int first = clause + 1;
+        if (arena[first] == falseLit) {
+          arena[first] = arena[first + 1];
+          arena[first + 1] = falseLit;
+        }
+        int other = arena[first];
+        if (litValue(other) > 0) {
+          list[j++] = clause;
+          continue;
+        }
+        boolean moved = false;
+        for (int k = first + 2, end = first + arena[clause]; k < end; k++) {
+          int lit = arena[k];
+          if (litValue(lit) >= 0) {
+            arena[first + 1] = lit;
+            arena[k] = falseLit;
+            addWatch(lit, clause);
+            moved = true;
+            break;
+          }
+        }
+        if (moved) continue;
+        list[j++] = clause;
+        if (litValue(other) < 0) {
+          while (i < n) list[j++] = list[i++];
+          watchSize[falseLit] = j;
+          qhead = trailSize;
+          return clause;
+        }
+        enqueue(other, clause);
+      }
+      watchSize[falseLit] = j;
+    }
+    return NO_REASON;
+  }
+
+  // First-UIP learning into learnt[0..size), asserting literal first
+  private int analyze(int conflict) {
+    int size = 1;
+    int pathCount = 0;
+    int p = -1;
+    int index = trailSize - 1;
+    int clause = conflict;
+    do {
+      for (int k = p < 0 ? 0 : 1, end = arena[clause]; k < end; k++) {
+        int q = arena[clause + 1 + k];
+        int var = q >> 1;
+        if (!seen[var] && level[var] > 0) {
+          bump(var);
+          seen[var] = true;
+          if (level[var] >= decisionLevel) {
+            pathCount++;
+          } else {
+            ensureLearntCapacity(size + 1);
+            learnt[size++] = q;
+          }
+        }
+      }
+      while (!seen[trail[index] >> 1]) index--;
+      p = trail[index--];
+      clause = reason[p >> 1];
+      seen[p >> 1] = false;
+      pathCount--;
+    } while (pathCount > 0);
+    learnt[0] = p ^ 1;
+
+    // Drop literals implied by the rest of the clause through their own reason. Every
+    // original literal stays seen until the end, so the flags are cleared from a copy.
+    if (toClear.length < size) toClear = new int[learnt.length];
+    System.arraycopy(learnt, 0, toClear, 0, size);
+    int kept = 1;
+    for (int i = 1; i < size; i++) {
+      if (!isRedundant(learnt[i] >> 1)) learnt[kept++] = learnt[i];
+    }
+    for (int i = 1; i < size; i++) seen[toClear[i] >> 1] = false;
+    return kept;
+  }
+
+  private boolean isRedundant(int var) {
+    int clause = reason[var];
+    if (clause == NO_REASON) return false;
+    for (int k = 1, end = arena[clause]; k < end; k++) {
+      int other = arena[clause + 1 + k] >> 1;
+      if (!seen[other] && level[other] > 0) return false;
+    }
+    return true;
+  }
+
+  // Highest level below the current one in the learnt clause; that literal becomes watch two
+  private int backjumpLevel(int size) {
+    if (size == 1) return 0;
+    int max = 1;
+    for (int i = 2; i < size; i++) {
+      if (level[learnt[i] >> 1] > level[learnt[max] >> 1]) max = i;
+    }
+    int swap = learnt[1];
+    learnt[1] = learnt[max];
+    learnt[max] = swap;
+    return level[learnt[1] >> 1];
+  }
+
+  private void cancelUntil(int target) {
+    if (decisionLevel <= target) return;
+    for (int i = trailSize - 1, stop = trailLim[target]; i >= stop; i--) {
+      int lit = trail[i];
+      int var = lit >> 1;
+      assign[var] = 0;
+      reason[var] = NO_REASON;
+      savedNegative[var] = (lit & 1) != 0;
+      if (heapIndex[var] < 0) heapInsert(var);
+    }
+    trailSize = trailLim[target];
+    qhead = trailSize;
+    decisionLevel = target;
+  }
+
+  private int pickBranchLiteral() {
+    while (heapSize > 0) {
+      int var = heapRemoveMax();
+      if (assign[var] == 0) return 2 * var + (savedNegative[var] ? 1 : 0);
+    }
+    return -1;
+  }
+
+  private void enqueue(int lit, int from) {
+    int var = lit >> 1;
+    assign[var] = (byte) ((lit & 1) == 0 ? 1 : -1);
+    level[var] = decisionLevel;
+    reason[var] = from;
+    trail[trailSize++] = lit;
+    propagations++;
+  }
+
+  private int litValue(int lit) {
+    int value = assign[lit >> 1];
+    return (lit & 1) == 0 ? value : -value;
+  }
+
+  private int storeClause(int[] literals, int size) {
+    if (arenaSize + size + 1 > arena.length) {
+      arena = Arrays.copyOf(arena, Math.max(arena.length * 2, arenaSize + size + 1));
+    }
+    int clause = arenaSize;
+    arena[clause] = size;
+    System.arraycopy(literals, 0, arena, clause + 1, size);
+    arenaSize += size + 1;
+    return clause;
+  }
+
+  private void attach(int clause) {
+    addWatch(arena[clause + 1], clause);
+    addWatch(arena[clause + 2], clause);
+  }
+
+  private void addWatch(int lit, int clause) {
+    int n = watchSize[lit];
+    if (n == watches[lit].length) watches[lit] = Arrays.copyOf(watches[lit], n * 2);
+    watches[lit][n] = clause;
+    watchSize[lit] = n + 1;
+  }
+
+  private void ensureLearntCapacity(int size) {
+    if (size > learnt.length) learnt = Arrays.copyOf(learnt, Math.max(size, learnt.length * 2));
+  }
+
+  private int toInternal(int dimacs) {
+    int var = Math.abs(dimacs);
+    if (var < 1 || var > varCount) throw new IllegalArgumentException("Literal out of range: " + dimacs);
+    return 2 * (var - 1) + (dimacs < 0 ? 1 : 0);
+  }
+
+  private void bump(int var) {
+    activity[var] += varInc;
+    if (activity[var] > RESCALE_LIMIT) {
+      for (int v = 0; v < varCount; v++) activity[v] *= 1 / RESCALE_LIMIT;
+      varInc *= 1 / RESCALE_LIMIT;
+    }
+    if (heapIndex[var] >= 0) siftUp(heapIndex[var]);
+  }
+
+  // 1, 1, 2, 1, 1, 2, 4, 1, 1, 2, 1, 1, 2, 4, 8, ...
+  static long luby(int i) {
+    int size = 1;
+    int exponent = 0;
+    while (size < i + 1) {
+      exponent++;
+      size = 2 * size + 1;
+    }
+    int x = i;
+    while (size - 1 != x) {
+      size = (size - 1) >> 1;
+      exponent--;
+      x = x % size;
+    }
+    return 1L << exponent;
+  }
+
+  private void heapInsert(int var) {
+    heap[heapSize] = var;
+    heapIndex[var] = heapSize;
+    siftUp(heapSize++);
+  }
+
+  private int heapRemoveMax() {
+    int top = heap[0];
+    heapIndex[top] = -1;
+    int last = heap[--heapSize];
+    if (heapSize > 0) {
+      heap[0] = last;
+      heapIndex[last] = 0;
+      siftDown(0);
+    }
+    return top;
+  }
+
+  private void siftUp(int i) {
+    int var = heap[i];
+    while (i > 0) {
+      int parent = (i - 1) >> 1;
+      if (activity[heap[parent]] >= activity[var]) break;
+      heap[i] = heap[parent];
+      heapIndex[heap[i]] = i;
+      i = parent;
+    }
+    heap[i] = var;
+    heapIndex[var] = i;
+  }
+
+  private void siftDown(int i) {
+    int var = heap[i];
+    while (true) {
+      int child = 2 * i + 1;
+      if (child >= heapSize) break;
+      if (child + 1 < heapSize && activity[heap[child + 1]] > activity[heap[child]]) child++;
+      if (activity[heap[child]] <= activity[var]) break;
+      heap[i] = heap[child];
+      heapIndex[heap[i]] = i;
+      i = child;
+    }
+    heap[i] = var;
+    heapIndex[var] = i;
+  }
+}
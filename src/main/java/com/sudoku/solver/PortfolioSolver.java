@@ -0,0 +1,309 @@
+package com.sudoku.solver;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import com.sudoku.exception.InvalidGameException;
+import com.sudoku.rules.RuleSet;
+
+// Runs several strategies on the same board in parallel and returns the first finished
+// answer, cancelling the others through child cancellation tokens.
+//
+// Each run's CPU time is recorded per board feature (rule set, and empty cells in buckets
+// of ten): a finished run is a sample of that strategy's cost, a run cancelled because
+// another won is a lower bound on it. CPU time rather than wall time keeps the record fair
+// when the racers share fewer cores than there are strategies. Once one strategy is known
+// to be at least LEADER_MARGIN times cheaper than every other for a feature, it runs alone
+// on the caller's thread. A lone run is hedged: if it overruns HEDGE_FACTOR times its usual
+// cost, the other strategies join the race, so a bad pick costs a bounded delay instead of
+// a long tail. One solve in EXPLORE_EVERY still races everything, so the record follows
+// changes in the workload.
+//
+// Thread-safe; racing strategies run on a shared pool of daemon threads.
+public class PortfolioSolver {
+  public enum Strategy {
+    BITMASK,
+    CDCL,
+    // The permutation brute force, only for classic boards with exactly five empty cells
+    PERMUTATION
+  }
+
+  private static final int EMPTY_BUCKET = 10;
+  private static final int MIN_RACES = 4;
+  private static final double LEADER_MARGIN = 2;
+  private static final double SMOOTHING = 0.2;
+  private static final int EXPLORE_EVERY = 32;
+  private static final double HEDGE_FACTOR = 4;
+  private static final long MIN_HEDGE_NANOS = 200_000;
+  private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+  private final SudokuSolver solver;
+  private final Map<String, Profile> profiles = new ConcurrentHashMap<>();
+  private final ExecutorService executor = Executors.newCachedThreadPool(daemonThreads("sudoku-portfolio"));
+  private final ScheduledThreadPoolExecutor hedger = new ScheduledThreadPoolExecutor(1, daemonThreads("sudoku-portfolio-hedge"));
+
+  public PortfolioSolver(SudokuSolver solver) {
+    this.solver = solver;
+    hedger.setRemoveOnCancelPolicy(true);
+  }
+
+  // Same contract as SudokuSolver.solve(board, options); the backend in options is ignored
+  public SolveResult solve(int[][] board, SolveOptions options) {
+    long start = System.nanoTime();
+    int emptyCells = 0;
+    for (int cell = 0; cell < 81; cell++) {
+      if (board[cell / 9][cell % 9] == 0) emptyCells++;
+    }
+    List<Strategy> applicable = new ArrayList<>();
+    applicable.add(Strategy.BITMASK);
+    applicable.add(Strategy.CDCL);
+    if (emptyCells == 5 && options.getRules() == RuleSet.CLASSIC) applicable.add(Strategy.PERMUTATION);
+
+    Profile profile = profiles.computeIfAbsent(feature(options.getRules(), emptyCells), key -> new Profile());
+    Race race = new Race(board, options, profile);
+    try {
+      Strategy leader = profile.leader(applicable);
+      if (leader == null) {
+        profile.countRace();
+        race.startAll(applicable, null);
+        return race.finish(null);
+      }
+      ScheduledFuture<?> hedge = hedger.schedule(() -> race.startAll(applicable, leader),
+          profile.hedgeNanos(leader), TimeUnit.NANOSECONDS);
+      Outcome alone = race.execute(leader, race.newToken());
+      hedge.cancel(false);
+      return race.finish(alone);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      race.cancelAll();
+      return new SolveResult(SolveResult.Status.CANCELLED, null, 0, System.nanoTime() - start);
+    }
+  }
+
+  // One line per feature seen so far: races run, then each strategy's estimated cost
+  public String describeProfiles() {
+    StringBuilder text = new StringBuilder();
+    new TreeMap<>(profiles).forEach((feature, profile) ->
+        text.append(feature).append(": ").append(profile).append('\n'));
+    return text.toString();
+  }
+
+  private static String feature(RuleSet rules, int emptyCells) {
+    int bucket = emptyCells / EMPTY_BUCKET * EMPTY_BUCKET;
+    return rules.getName() + "/" + bucket + "-" + (bucket + EMPTY_BUCKET - 1) + " empty";
+  }
+
+  private SolveResult run(Strategy strategy, int[][] board, SolveOptions options) {
+    switch (strategy) {
+      case BITMASK:
+        return solver.solve(board, options.withBackend(SolveOptions.Backend.BITMASK));
+      case CDCL:
+        return solver.solve(board, options.withBackend(SolveOptions.Backend.CDCL));
+      default:
+        return permutation(board, options.getCancellation());
+    }
+  }
+
+  // The brute force cannot poll a token, so it is checked on the way in and out: a run
+  // that lost the race reports CANCELLED instead of a result nobody is waiting for
+  private SolveResult permutation(int[][] board, CancellationToken token) {
+    long start = System.nanoTime();
+    if (isCancelled(token)) {
+      return new SolveResult(SolveResult.Status.CANCELLED, null, 0, System.nanoTime() - start);
+    }
+    try {
+      int[][] entries = solver.solve(board);
+      if (isCancelled(token)) {
+        return new SolveResult(SolveResult.Status.CANCELLED, null, entries.length, System.nanoTime() - start);
+      }
+      int[][] solution = new int[9][];
+      for (int row = 0; row < 9; row++) solution[row] = board[row].clone();
+      for (int[] entry : entries) solution[entry[0]][entry[1]] = entry[2];
+      return new SolveResult(SolveResult.Status.SOLVED, solution, entries.length, System.nanoTime() - start);
+    } catch (InvalidGameException e) {
+      SolveResult.Status status = isCancelled(token) ? SolveResult.Status.CANCELLED : SolveResult.Status.NO_SOLUTION;
+      return new SolveResult(status, null, 0, System.nanoTime() - start);
+    }
+  }
+
+  private static boolean isCancelled(CancellationToken token) {
+    return (token != null && token.isCancelled()) || Thread.currentThread().isInterrupted();
+  }
+
+  private static long cpuNanos() {
+    return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+  }
+
+  private static ThreadFactory daemonThreads(String name) {
+    return task -> {
+      Thread thread = new Thread(task, name);
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  private static class Outcome {
+    final Strategy strategy;
+    final SolveResult result;
+
+    Outcome(Strategy strategy, SolveResult result) {
+      this.strategy = strategy;
+      this.result = result;
+    }
+  }
+
+  // The strategies started for one solve. The first finished outcome is claimed as the
+  // winner, which closes the race to late hedges and cancels everyone else.
+  private class Race {
+    final int[][] board;
+    final SolveOptions options;
+    final Profile profile;
+    final List<CancellationToken> tokens = new ArrayList<>();
+    Outcome winner;
+    Outcome stopped;
+    int active;
+    boolean closed;
+
+    Race(int[][] board, SolveOptions options, Profile profile) {
+      this.board = board;
+      this.options = options;
+      this.profile = profile;
+    }
+
+    synchronized void startAll(List<Strategy> strategies, Strategy skip) {
+      if (closed) return;
+      for (Strategy strategy : strategies) {
+        if (strategy == skip) continue;
+        CancellationToken token = newToken();
+        active++;
+        executor.execute(() -> {
+          execute(strategy, token);
+          synchronized (this) {
+            active--;
+            notifyAll();
+          }
+        });
+      }
+    }
+
+    synchronized CancellationToken newToken() {
+      CancellationToken token = new CancellationToken(options.getCancellation());
+      tokens.add(token);
+      return token;
+    }
+
+    Outcome execute(Strategy strategy, CancellationToken token) {
+      long cpu = cpuNanos();
+      SolveResult result = run(strategy, board, options.withCancellation(token));
+      cpu = cpuNanos() - cpu;
+      Outcome outcome = new Outcome(strategy, result);
+      if (result.isFinished()) {
+        profile.recordFinished(strategy, cpu);
+        claim(outcome);
+      } else {
+        synchronized (this) {
+          if (winner != null) {
+            profile.recordCancelled(strategy, cpu);
+          } else {
+            stopped = outcome;
+          }
+        }
+      }
+      return outcome;
+    }
+
+    synchronized void claim(Outcome outcome) {
+      if (winner != null) return;
+      winner = outcome;
+      closed = true;
+      for (CancellationToken token : tokens) token.cancel();
+      notifyAll();
+    }
+
+    // The winner, or when every strategy gave up (limits, cancellation) the last of them
+    synchronized SolveResult finish(Outcome own) throws InterruptedException {
+      while (winner == null && active > 0) wait();
+      closed = true;
+      if (winner != null) return winner.result;
+      return (stopped != null ? stopped : own).result;
+    }
+
+    synchronized void cancelAll() {
+      closed = true;
+      for (CancellationToken token : tokens) token.cancel();
+    }
+  }
+
+  private static class Profile {
+    private final int size = Strategy.values().length;
+    // Smoothed CPU time of finished runs, and of runs cut short because another won
+    private final double[] estimate = new double[size];
+    private final double[] lowerBound = new double[size];
+    private final long[] finished = new long[size];
+    private long races;
+    private long solves;
+
+    synchronized Strategy leader(List<Strategy> applicable) {
+      solves++;
+      if (races < MIN_RACES || solves % EXPLORE_EVERY == 0) return null;
+      Strategy best = null;
+      for (Strategy strategy : applicable) {
+        int i = strategy.ordinal();
+        if (finished[i] > 0 && (best == null || estimate[i] < estimate[best.ordinal()])) best = strategy;
+      }
+      if (best == null) return null;
+      for (Strategy strategy : applicable) {
+        if (strategy == best) continue;
+        if (cost(strategy) < LEADER_MARGIN * estimate[best.ordinal()]) return null;
+      }
+      return best;
+    }
+
+    // What is known of a strategy's cost: at least its lower bound, at least its estimate
+    private double cost(Strategy strategy) {
+      int i = strategy.ordinal();
+      return finished[i] > 0 ? Math.max(estimate[i], lowerBound[i]) : lowerBound[i];
+    }
+
+    synchronized long hedgeNanos(Strategy strategy) {
+      return Math.max(MIN_HEDGE_NANOS, (long) (HEDGE_FACTOR * estimate[strategy.ordinal()]));
+    }
+
+    synchronized void countRace() {
+      races++;
+    }
+
+    synchronized void recordFinished(Strategy strategy, long cpuNanos) {
+      int i = strategy.ordinal();
+      estimate[i] = finished[i]++ == 0 ? cpuNanos : estimate[i] + SMOOTHING * (cpuNanos - estimate[i]);
+    }
+
+    synchronized void recordCancelled(Strategy strategy, long cpuNanos) {
+      int i = strategy.ordinal();
+      lowerBound[i] += SMOOTHING * (cpuNanos - lowerBound[i]);
+    }
+
+    @Override
+    public synchronized String toString() {
+      StringBuilder text = new StringBuilder().append(races).append(" races");
+      for (Strategy strategy : Strategy.values()) {
+        int i = strategy.ordinal();
+        if (finished[i] == 0 && lowerBound[i] == 0) continue;
+        text.append(String.format(", %s %s %.3f ms (%d finished)", strategy.name().toLowerCase(),
+            finished[i] > 0 ? "~" : ">", cost(strategy) / 1e6, finished[i]));
+      }
+      return text.toString();
+    }
+  }
+}
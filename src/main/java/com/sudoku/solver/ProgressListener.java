@@ -0,0 +1,6 @@
+package com.sudoku.solver;
+
+@FunctionalInterface
+public interface ProgressListener {
+  void onProgress(long nodesExplored, int depth);
+}
@@ -0,0 +1,69 @@
+package com.sudoku.solver;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import com.sudoku.model.BoardView;
+import com.sudoku.rules.RuleSet;
+
+// Lazily streams every solution of a board as a row-major int[81]. trySplit hands
+// the upper half of the shallowest open branch to a new spliterator, so
+// parallel streams divide the search tree across cores.
+public class SolutionSpliterator implements Spliterator<int[]> {
+  private final BitmaskSearch search;
+  private boolean pending;
+
+  public SolutionSpliterator(int[][] board) {
+    this.search = new BitmaskSearch();
+    search.load(board);
+  }
+
+  public SolutionSpliterator(BoardView board) {
+    this(board, RuleSet.CLASSIC);
+  }
+
+  public SolutionSpliterator(BoardView board, RuleSet rules) {
+    this.search = new BitmaskSearch(rules);
+    search.load(board);
+  }
+
+  private SolutionSpliterator(BitmaskSearch search) {
+    this.search = search;
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super int[]> action) {
+    if (pending) {
+      pending = false;
+    } else if (!search.next()) {
+      return false;
+    }
+    int[] solution = new int[81];
+    search.copyTo(solution);
+    action.accept(solution);
+    return true;
+  }
+
+  @Override
+  public Spliterator<int[]> trySplit() {
+    if (pending) return null;
+    BitmaskSearch other = search.split();
+    if (other == null && !search.isStarted()) {
+      // Nothing to divide at the root: descend to the first solution (kept for the
+      // next tryAdvance) so the branches opened on the way can be split.
+      pending = search.next();
+      other = pending ? search.split() : null;
+    }
+    return other == null ? null : new SolutionSpliterator(other);
+  }
+
+  @Override
+  public long estimateSize() {
+    return Long.MAX_VALUE;
+  }
+
+  @Override
+  public int characteristics() {
+    return NONNULL | DISTINCT | IMMUTABLE;
+  }
+}
@@ -0,0 +1,98 @@
+package com.sudoku.solver;
+
+import java.time.Duration;
+
+import com.sudoku.rules.RuleSet;
+
+// Immutable limits for SudokuSolver.solve(board, options); each with* call returns a copy
+public class SolveOptions {
+  // Search engine behind solve(board, options): BITMASK is the depth-first candidate search,
+  // CDCL encodes the board as CNF for the clause-learning SAT solver, which tends to win
+  // on very sparse boards and on variants whose rules prune poorly by candidates alone.
+  // PORTFOLIO races the others and learns which one to run alone (see PortfolioSolver).
+  public enum Backend {
+    BITMASK,
+    CDCL,
+    PORTFOLIO
+  }
+
+  private static final long DEFAULT_PROGRESS_INTERVAL = 4096;
+
+  private final Duration timeLimit;
+  private final long maxNodes;
+  private final CancellationToken cancellation;
+  private final ProgressListener progress;
+  private final long progressInterval;
+  private final RuleSet rules;
+  private final Backend backend;
+
+  private SolveOptions(Duration timeLimit, long maxNodes, CancellationToken cancellation,
+      ProgressListener progress, long progressInterval, RuleSet rules, Backend backend) {
+    this.timeLimit = timeLimit;
+    this.maxNodes = maxNodes;
+    this.cancellation = cancellation;
+    this.progress = progress;
+    this.progressInterval = progressInterval;
+    this.rules = rules;
+    this.backend = backend;
+  }
+
+  public static SolveOptions unbounded() {
+    return new SolveOptions(null, Long.MAX_VALUE, null, null, DEFAULT_PROGRESS_INTERVAL, RuleSet.CLASSIC, Backend.BITMASK);
+  }
+
+  public SolveOptions withTimeLimit(Duration timeLimit) {
+    return new SolveOptions(timeLimit, maxNodes, cancellation, progress, progressInterval, rules, backend);
+  }
+
+  public SolveOptions withMaxNodes(long maxNodes) {
+    return new SolveOptions(timeLimit, maxNodes, cancellation, progress, progressInterval, rules, backend);
+  }
+
+  public SolveOptions withCancellation(CancellationToken cancellation) {
+    return new SolveOptions(timeLimit, maxNodes, cancellation, progress, progressInterval, rules, backend);
+  }
+
+  // The listener is called roughly every interval nodes, and on the solver thread
+  public SolveOptions withProgress(ProgressListener progress, long interval) {
+    if (interval <= 0) throw new IllegalArgumentException("Progress interval must be positive");
+    return new SolveOptions(timeLimit, maxNodes, cancellation, progress, interval, rules, backend);
+  }
+
+  public SolveOptions withRules(RuleSet rules) {
+    return new SolveOptions(timeLimit, maxNodes, cancellation, progress, progressInterval, rules, backend);
+  }
+
+  // Under CDCL a node is one assignment, decided or propagated
+  public SolveOptions withBackend(Backend backend) {
+    return new SolveOptions(timeLimit, maxNodes, cancellation, progress, progressInterval, rules, backend);
+  }
+
+  public Duration getTimeLimit() {
+    return timeLimit;
+  }
+
+  public long getMaxNodes() {
+    return maxNodes;
+  }
+
+  public CancellationToken getCancellation() {
+    return cancellation;
+  }
+
+  public ProgressListener getProgress() {
+    return progress;
+  }
+
+  public long getProgressInterval() {
+    return progressInterval;
+  }
+
+  public RuleSet getRules() {
+    return rules;
+  }
+
+  public Backend getBackend() {
+    return backend;
+  }
+}
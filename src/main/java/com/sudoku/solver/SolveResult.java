@@ -0,0 +1,45 @@
+package com.sudoku.solver;
+
+public class SolveResult {
+  public enum Status {
+    SOLVED,
+    NO_SOLUTION,
+    TIMED_OUT,
+    BUDGET_EXHAUSTED,
+    CANCELLED
+  }
+
+  private final Status status;
+  private final int[][] solution;
+  private final long nodesExplored;
+  private final long elapsedNanos;
+
+  public SolveResult(Status status, int[][] solution, long nodesExplored, long elapsedNanos) {
+    this.status = status;
+    this.solution = solution;
+    this.nodesExplored = nodesExplored;
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  public Status getStatus() {
+    return status;
+  }
+
+  // Whether the search ran to completion, i.e. it was not stopped by a limit
+  public boolean isFinished() {
+    return status == Status.SOLVED || status == Status.NO_SOLUTION;
+  }
+
+  // The complete board, or null unless SOLVED
+  public int[][] getSolution() {
+    return solution;
+  }
+
+  public long getNodesExplored() {
+    return nodesExplored;
+  }
+
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+}
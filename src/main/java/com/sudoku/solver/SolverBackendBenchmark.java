@@ -0,0 +1,247 @@
+package com.sudoku.solver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import com.sudoku.logic.PuzzleDigger;
+import com.sudoku.logic.SudokuVerifier;
+import com.sudoku.logic.VariantGenerator;
+import com.sudoku.model.DifficultyEnum;
+import com.sudoku.model.VerificationState;
+import com.sudoku.rules.RuleSet;
+
+// Compares the backends of SudokuSolver.solve(board, options) on hard and sparse corpora.
+// Every board is solved once per backend after a warm-up pass, and each answer is checked
+// against the givens and the rules. A final mixed run shuffles all corpora together and
+// reports latency percentiles, where the portfolio's learned choices show in the tail.
+//
+// Usage: java -cp sudoku-lab10.jar com.sudoku.solver.SolverBackendBenchmark [boards per corpus]
+public class SolverBackendBenchmark {
+  private static final Duration TIME_LIMIT = Duration.ofSeconds(20);
+  private static final int MIXED_ROUNDS = 3;
+
+  // Well-known hard classics (AI Escargot, Easter Monster, Inkala 2012, ...) and one
+  // famously under-constrained board with many solutions
+  private static final String[] HARDEST = {
+      "1....7.9..3..2...8..96..5....53..9...1..8...26....4...3......1..4......7..7...3..",
+      "1.......2.9.4...5...6...7...5.9.3.......7.......85..4.7.....6...3...9.8...2.....1",
+      "8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..",
+      ".2.4.37.........32........4.4.2...7.8...5.........1...5.....9...3.9....7..1..86..",
+      "4...3.......6..8..........1....5..9..8....6...7.2........1.27..5.3....4.9........",
+      "...8.1..........435............7.8........1...2..3....6......75..34........2..6..",
+      ".....6....59.....82....8....45........3........6..3.54...325..6..................",
+  };
+
+  private static class Corpus {
+    final String name;
+    final RuleSet rules;
+    final List<int[][]> boards = new ArrayList<>();
+
+    Corpus(String name, RuleSet rules) {
+      this.name = name;
+      this.rules = rules;
+    }
+  }
+
+  public static void main(String[] args) {
+    int count = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+    List<Corpus> corpora = new ArrayList<>();
+
+    Corpus hardest = new Corpus("hardest classics", RuleSet.CLASSIC);
+    for (String line : HARDEST) hardest.boards.add(parse(line));
+    corpora.add(hardest);
+
+    Corpus minimal = new Corpus("minimal (dug)", RuleSet.CLASSIC);
+    minimal.boards.addAll(Arrays.asList(PuzzleDigger.digBatch(PuzzleDigger.MINIMAL, 1, count, 1)));
+    corpora.add(minimal);
+
+    // Far below uniqueness: any completion will do, but the solver has to find one
+    Corpus sparse = new Corpus("sparse (12 clues)", RuleSet.CLASSIC);
+    VariantGenerator classic = new VariantGenerator(RuleSet.CLASSIC);
+    for (int i = 0; i < count; i++) {
+      sparse.boards.add(keepClues(classic.solvedGrid(5_000 + i), 12, i));
+    }
+    corpora.add(sparse);
+
+    RuleSet xKnight = RuleSet.builder().diagonals().antiKnight().build();
+    Corpus variant = new Corpus("diagonal + anti-knight", xKnight);
+    VariantGenerator generator = new VariantGenerator(xKnight);
+    for (int i = 0; i < count; i++) {
+      int[][] puzzle = generator.generate(DifficultyEnum.HARD, 10_000 + i);
+      if (puzzle != null) variant.boards.add(puzzle);
+    }
+    corpora.add(variant);
+
+    // Nearly solved boards, the permutation solver's home ground
+    Corpus fiveEmpty = new Corpus("five empty cells", RuleSet.CLASSIC);
+    for (int i = 0; i < count; i++) {
+      int[][] board = classic.solvedGrid(20_000 + i);
+      SplittableRandom random = new SplittableRandom(i);
+      for (int cleared = 0; cleared < 5;) {
+        int cell = random.nextInt(81);
+        if (board[cell / 9][cell % 9] == 0) continue;
+        board[cell / 9][cell % 9] = 0;
+        cleared++;
+      }
+      fiveEmpty.boards.add(board);
+    }
+    corpora.add(fiveEmpty);
+
+    // Killer cages over a solved grid with no given digits at all
+    int[][] killerSource = classic.solvedGrid(7);
+    for (int layout = 0; layout < 2; layout++) {
+      RuleSet killer = killerCages(killerSource, layout);
+      Corpus cages = new Corpus("killer, no givens (" + (layout == 0 ? "triples" : "dominoes") + ")", killer);
+      cages.boards.add(new int[9][9]);
+      corpora.add(cages);
+    }
+
+    SudokuSolver solver = new SudokuSolver(new SudokuVerifier());
+    for (Corpus corpus : corpora) {
+      run(solver, corpus, false);
+    }
+    System.out.printf("%-34s %-8s %7s %10s %10s %10s %12s%n",
+        "corpus", "backend", "solved", "mean ms", "median ms", "max ms", "mean nodes");
+    for (Corpus corpus : corpora) {
+      run(solver, corpus, true);
+    }
+    mixed(solver, corpora);
+    System.out.println();
+    System.out.print(solver.describePortfolio());
+  }
+
+  private static void mixed(SudokuSolver solver, List<Corpus> corpora) {
+    List<Corpus> order = new ArrayList<>();
+    List<int[][]> boards = new ArrayList<>();
+    for (int round = 0; round < MIXED_ROUNDS; round++) {
+      for (Corpus corpus : corpora) {
+        for (int[][] board : corpus.boards) {
+          order.add(corpus);
+          boards.add(board);
+        }
+      }
+    }
+    SplittableRandom random = new SplittableRandom(42);
+    for (int i = boards.size() - 1; i > 0; i--) {
+      int other = random.nextInt(i + 1);
+      Collections.swap(order, i, other);
+      Collections.swap(boards, i, other);
+    }
+
+    System.out.printf("%nmixed workload, %d solves%n", boards.size());
+    System.out.printf("%-10s %10s %10s %10s %10s %10s%n", "backend", "total ms", "p50 ms", "p90 ms", "p99 ms", "max ms");
+    for (SolveOptions.Backend backend : SolveOptions.Backend.values()) {
+      long[] nanos = new long[boards.size()];
+      long total = 0;
+      for (int i = 0; i < nanos.length; i++) {
+        SolveOptions options = SolveOptions.unbounded()
+            .withRules(order.get(i).rules).withBackend(backend).withTimeLimit(TIME_LIMIT);
+        long start = System.nanoTime();
+        solver.solve(boards.get(i), options);
+        nanos[i] = System.nanoTime() - start;
+        total += nanos[i];
+      }
+      Arrays.sort(nanos);
+      System.out.printf("%-10s %10.1f %10.3f %10.3f %10.3f %10.3f%n", backend.name().toLowerCase(), total / 1e6,
+          percentile(nanos, 0.5) / 1e6, percentile(nanos, 0.9) / 1e6, percentile(nanos, 0.99) / 1e6,
+          nanos[nanos.length - 1] / 1e6);
+    }
+  }
+
+  private static long percentile(long[] sorted, double fraction) {
+    return sorted[Math.min(sorted.length - 1, (int) (fraction * sorted.length))];
+  }
+
+  private static void run(SudokuSolver solver, Corpus corpus, boolean report) {
+    SudokuVerifier verifier = new SudokuVerifier(corpus.rules);
+    for (SolveOptions.Backend backend : SolveOptions.Backend.values()) {
+      SolveOptions options = SolveOptions.unbounded()
+          .withRules(corpus.rules).withBackend(backend).withTimeLimit(TIME_LIMIT);
+      long[] nanos = new long[corpus.boards.size()];
+      long nodes = 0;
+      int solved = 0;
+      for (int i = 0; i < nanos.length; i++) {
+        int[][] board = corpus.boards.get(i);
+        SolveResult result = solver.solve(board, options);
+        nanos[i] = result.getElapsedNanos();
+        nodes += result.getNodesExplored();
+        if (result.getStatus() != SolveResult.Status.SOLVED) continue;
+        if (!keepsGivens(board, result.getSolution())
+            || verifier.verify(result.getSolution()).getState() != VerificationState.VALID) {
+          throw new IllegalStateException(backend + " returned a wrong solution on " + corpus.name);
+        }
+        solved++;
+      }
+      if (!report) continue;
+      Arrays.sort(nanos);
+      long total = 0;
+      for (long n : nanos) total += n;
+      System.out.printf("%-34s %-8s %3d/%-3d %10.3f %10.3f %10.3f %12d%n",
+          corpus.name, backend.name().toLowerCase(), solved, nanos.length,
+          total / 1e6 / nanos.length, nanos[nanos.length / 2] / 1e6, nanos[nanos.length - 1] / 1e6,
+          nodes / nanos.length);
+    }
+  }
+
+  private static boolean keepsGivens(int[][] board, int[][] solution) {
+    for (int cell = 0; cell < 81; cell++) {
+      int given = board[cell / 9][cell % 9];
+      if (given != 0 && solution[cell / 9][cell % 9] != given) return false;
+    }
+    return true;
+  }
+
+  private static int[][] keepClues(int[][] solved, int clues, long seed) {
+    SplittableRandom random = new SplittableRandom(seed);
+    int[][] board = new int[9][9];
+    for (int kept = 0; kept < clues;) {
+      int cell = random.nextInt(81);
+      if (board[cell / 9][cell % 9] != 0) continue;
+      board[cell / 9][cell % 9] = solved[cell / 9][cell % 9];
+      kept++;
+    }
+    return board;
+  }
+
+  // Layout 0 cuts every row into three horizontal triples, layout 1 into vertical dominoes
+  // plus a single cell at the bottom of each column
+  private static RuleSet killerCages(int[][] solved, int layout) {
+    RuleSet.Builder builder = RuleSet.builder();
+    if (layout == 0) {
+      for (int row = 0; row < 9; row++) {
+        for (int col = 0; col < 9; col += 3) {
+          int a = row * 9 + col;
+          builder.cage(sum(solved, a, a + 1, a + 2), a, a + 1, a + 2);
+        }
+      }
+    } else {
+      for (int col = 0; col < 9; col++) {
+        for (int row = 0; row < 8; row += 2) {
+          int a = row * 9 + col;
+          builder.cage(sum(solved, a, a + 9), a, a + 9);
+        }
+        builder.cage(sum(solved, 72 + col), 72 + col);
+      }
+    }
+    return builder.build();
+  }
+
+  private static int sum(int[][] solved, int... cells) {
+    int sum = 0;
+    for (int cell : cells) sum += solved[cell / 9][cell % 9];
+    return sum;
+  }
+
+  private static int[][] parse(String line) {
+    int[][] board = new int[9][9];
+    for (int cell = 0; cell < 81; cell++) {
+      char c = line.charAt(cell);
+      board[cell / 9][cell % 9] = c == '.' ? 0 : c - '0';
+    }
+    return board;
+  }
+}
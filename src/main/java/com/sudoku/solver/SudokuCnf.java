@@ -0,0 +1,266 @@
+package com.sudoku.solver;
+
+import java.util.Arrays;
+
+import com.sudoku.model.BoardView;
+import com.sudoku.rules.RuleSet;
+
+// Sudoku (any RuleSet) as CNF for CdclSolver. Variable x(c, d) means cell c holds digit d.
+//
+// The encoding is kept small by applying the givens first: a digit ruled out in a cell by a
+// given in one of its units or peers, or by its cage's possible digit sets, never becomes a
+// variable, and clauses satisfied by a given are not emitted. What remains:
+//   - each open cell holds one of its candidates (one clause) and at most one (pairs)
+//   - no digit twice in a unit or in a pair of peers (pairs)
+//   - every digit somewhere in each nine-cell unit (one clause per digit)
+//   - a cage with several possible digit sets picks one through a selector variable, and
+//     a selected set rules its other digits out of the cage's cells
+final class SudokuCnf {
+  private static final int ALL = 0x1FF;
+  private static final int CELL_VARS = 81 * 9;
+
+  private final RuleSet rules;
+  private final int[] givens = new int[81];
+  private final int[] candidates = new int[81];
+  private boolean contradiction;
+
+  // Raw variables: cell * 9 + d - 1 for x(c, d), CELL_VARS + k for cage set selectors
+  private int[] dense = new int[CELL_VARS];
+  private int varCount;
+  private int[] clauses = new int[8192];
+  private int clausesSize;
+  private int clauseCount;
+  private int clauseStart = -1;
+  private boolean clauseSatisfied;
+
+  private SudokuCnf(RuleSet rules) {
+    this.rules = rules;
+  }
+
+  static SudokuCnf encode(BoardView board, RuleSet rules) {
+    SudokuCnf cnf = new SudokuCnf(rules);
+    cnf.applyGivens(board);
+    if (!cnf.contradiction) cnf.emitClauses();
+    return cnf;
+  }
+
+  // True when the givens already break a rule, so no solver is needed
+  boolean isContradiction() {
+    return contradiction;
+  }
+
+  int getVarCount() {
+    return varCount;
+  }
+
+  int getClauseCount() {
+    return clauseCount;
+  }
+
+  CdclSolver newSolver() {
+    CdclSolver solver = new CdclSolver(varCount);
+    for (int i = 0; i < clausesSize; i += clauses[i] + 1) {
+      if (!solver.addClause(clauses, i + 1, i + 1 + clauses[i])) break;
+    }
+    return solver;
+  }
+
+  // The completed board from a satisfying assignment
+  int[][] decode(CdclSolver solver) {
+    int[][] board = new int[9][9];
+    for (int cell = 0; cell < 81; cell++) {
+      int value = givens[cell];
+      for (int digit = 1; value == 0 && digit <= 9; digit++) {
+        int var = dense[cell * 9 + digit - 1];
+        if (var != 0 && solver.isTrue(var)) value = digit;
+      }
+      board[cell / 9][cell % 9] = value;
+    }
+    return board;
+  }
+
+  private void applyGivens(BoardView board) {
+    Arrays.fill(candidates, ALL);
+    int[] unitStart = rules.getUnitStart();
+    int[] unitCells = rules.getUnitCells();
+    int[] cellUnitStart = rules.getCellUnitStart();
+    int[] cellUnits = rules.getCellUnits();
+    int[] peerStart = rules.getPeerStart();
+    int[] peers = rules.getPeers();
+
+    for (int cell = 0; cell < 81; cell++) {
+      int value = board.get(cell / 9, cell % 9);
+      if (value == 0) continue;
+      if (value < 1 || value > 9) {
+        contradiction = true;
+        return;
+      }
+      givens[cell] = value;
+    }
+    for (int cell = 0; cell < 81; cell++) {
+      int value = givens[cell];
+      if (value == 0) continue;
+      int bit = 1 << (value - 1);
+      for (int i = cellUnitStart[cell]; i < cellUnitStart[cell + 1]; i++) {
+        int unit = cellUnits[i];
+        for (int j = unitStart[unit]; j < unitStart[unit + 1]; j++) {
+          if (unitCells[j] != cell) candidates[unitCells[j]] &= ~bit;
+        }
+      }
+      for (int i = peerStart[cell]; i < peerStart[cell + 1]; i++) {
+        candidates[peers[i]] &= ~bit;
+      }
+    }
+    int[] cellCage = rules.getCellCage();
+    int[] cageSum = rules.getCageSum();
+    for (int cell = 0; cell < 81; cell++) {
+      int cage = cellCage[cell];
+      if (cage >= 0) candidates[cell] &= RuleSet.cageCandidates(cageSize(cage), cageSum[cage]);
+    }
+    for (int cell = 0; cell < 81; cell++) {
+      if (givens[cell] != 0) {
+        if ((candidates[cell] & (1 << (givens[cell] - 1))) == 0) {
+          contradiction = true;
+          return;
+        }
+        candidates[cell] = 1 << (givens[cell] - 1);
+      }
+    }
+  }
+
+  private void emitClauses() {
+    for (int cell = 0; cell < 81; cell++) {
+      if (givens[cell] != 0) continue;
+      begin();
+      for (int digit = 1; digit <= 9; digit++) add(x(cell, digit));
+      end();
+      for (int a = 1; a <= 9; a++) {
+        for (int b = a + 1; b <= 9; b++) pair(-x(cell, a), -x(cell, b));
+      }
+    }
+
+    int[] unitStart = rules.getUnitStart();
+    int[] unitCells = rules.getUnitCells();
+    for (int unit = 0; unit < rules.getUnitCount(); unit++) {
+      int start = unitStart[unit];
+      int end = unitStart[unit + 1];
+      for (int digit = 1; digit <= 9; digit++) {
+        for (int i = start; i < end; i++) {
+          for (int j = i + 1; j < end; j++) pair(-x(unitCells[i], digit), -x(unitCells[j], digit));
+        }
+        if (end - start == 9) {
+          begin();
+          for (int i = start; i < end; i++) add(x(unitCells[i], digit));
+          end();
+        }
+      }
+    }
+
+    int[] peerStart = rules.getPeerStart();
+    int[] peers = rules.getPeers();
+    for (int cell = 0; cell < 81; cell++) {
+      for (int i = peerStart[cell]; i < peerStart[cell + 1]; i++) {
+        int peer = peers[i];
+        if (peer < cell) continue;
+        for (int digit = 1; digit <= 9; digit++) pair(-x(cell, digit), -x(peer, digit));
+      }
+    }
+
+    int[] cageUnit = rules.getCageUnit();
+    int[] cageSum = rules.getCageSum();
+    int selector = CELL_VARS;
+    for (int cage = 0; cage < rules.getCageCount(); cage++) {
+      int size = cageSize(cage);
+      int sets = 0;
+      int[] options = new int[126];
+      for (int set = 1; set <= ALL; set++) {
+        if (Integer.bitCount(set) == size && digitSum(set) == cageSum[cage]) options[sets++] = set;
+      }
+      // With one possible set the candidate filter has already done the whole job
+      if (sets < 2) continue;
+      begin();
+      for (int k = 0; k < sets; k++) add(selector + k + 1);
+      end();
+      for (int k = 0; k < sets; k++) {
+        for (int i = unitStart[cageUnit[cage]]; i < unitStart[cageUnit[cage] + 1]; i++) {
+          for (int digit = 1; digit <= 9; digit++) {
+            if ((options[k] & (1 << (digit - 1))) == 0) pair(-(selector + k + 1), -x(unitCells[i], digit));
+          }
+        }
+      }
+      selector += sets;
+    }
+  }
+
+  // Raw literal of x(cell, digit): positive raw index + 1, negated for "not"
+  private static int x(int cell, int digit) {
+    return cell * 9 + digit;
+  }
+
+  private void pair(int a, int b) {
+    begin();
+    add(a);
+    add(b);
+    end();
+  }
+
+  private void begin() {
+    ensureCapacity(clausesSize + 1);
+    clauseStart = clausesSize++;
+    clauseSatisfied = false;
+  }
+
+  // Known literals are resolved here: true ones satisfy the clause, false ones vanish
+  private void add(int rawLiteral) {
+    if (clauseSatisfied) return;
+    int raw = Math.abs(rawLiteral) - 1;
+    if (raw < CELL_VARS) {
+      int cell = raw / 9;
+      int bit = 1 << (raw % 9);
+      boolean possible = (candidates[cell] & bit) != 0;
+      boolean known = !possible || givens[cell] != 0;
+      if (known) {
+        if (possible == (rawLiteral > 0)) clauseSatisfied = true;
+        return;
+      }
+    }
+    ensureCapacity(clausesSize + 1);
+    int var = variable(raw);
+    clauses[clausesSize++] = rawLiteral > 0 ? var : -var;
+  }
+
+  private void end() {
+    int size = clausesSize - clauseStart - 1;
+    if (clauseSatisfied) {
+      clausesSize = clauseStart;
+      return;
+    }
+    if (size == 0) contradiction = true;
+    clauses[clauseStart] = size;
+    clauseCount++;
+  }
+
+  private int variable(int raw) {
+    if (raw >= dense.length) dense = Arrays.copyOf(dense, Math.max(raw + 1, dense.length * 2));
+    if (dense[raw] == 0) dense[raw] = ++varCount;
+    return dense[raw];
+  }
+
+  private void ensureCapacity(int size) {
+    if (size > clauses.length) clauses = Arrays.copyOf(clauses, Math.max(size, clauses.length * 2));
+  }
+
+  private int cageSize(int cage) {
+    int[] unitStart = rules.getUnitStart();
+    int unit = rules.getCageUnit()[cage];
+    return unitStart[unit + 1] - unitStart[unit];
+  }
+
+  private static int digitSum(int set) {
+    int sum = 0;
+    for (int digit = 1; digit <= 9; digit++) {
+      if ((set & (1 << (digit - 1))) != 0) sum += digit;
+    }
+    return sum;
+  }
+}
@@ -1,39 +1,215 @@
 package com.sudoku.solver;
 
 import com.sudoku.logic.SudokuVerifier;
+import com.sudoku.model.BoardView;
+import com.sudoku.model.VerificationResult;
 import com.sudoku.model.VerificationState;
 import com.sudoku.exception.InvalidGameException;
+import com.sudoku.monitor.SolveEvent;
+import com.sudoku.rules.RuleSet;
+import com.sudoku.util.Lazy;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+// Thread-safe and side-effect-free: boards passed in are only read, never written (not even
+// temporarily), and all scratch state lives in per-call arrays. One instance can serve any
+// number of threads while other threads read the same boards.
 public class SudokuSolver {
   private final SudokuVerifier verifier;
+  private final Lazy<PortfolioSolver> portfolio = new Lazy<>(() -> new PortfolioSolver(this));
 
   public SudokuSolver(SudokuVerifier verifier) {
     this.verifier = verifier;
   }
 
   public int[][] solve(int[][] board) throws InvalidGameException {
+    SolveEvent event = new SolveEvent();
+    event.begin();
+
     List<int[]> emptyCells = findEmptyCells(board);
 
     if (emptyCells.size() != 5) {
+      commitSolveEvent(event, emptyCells.size(), 0, "rejected");
       throw new InvalidGameException(
           "Solver requires exactly 5 empty cells, found: " + emptyCells.size());
     }
 
+    // Candidates are tried on a private copy; the verifier reads it through a flyweight view
+    int[] cells = new int[81];
+    for (int cell = 0; cell < 81; cell++) {
+      cells[cell] = board[cell / 9][cell % 9];
+    }
+    BoardView view = (row, col) -> cells[row * 9 + col];
+
     PermutationIterator iterator = new PermutationIterator(5);
+    long nodes = 0;
 
     while (iterator.hasNext()) {
       int[] combination = iterator.next();
+      nodes++;
 
-      if (isValidCombination(board, emptyCells, combination)) {
+      if (isValidCombination(cells, view, emptyCells, combination)) {
+        commitSolveEvent(event, emptyCells.size(), nodes, "solved");
         return buildSolution(emptyCells, combination);
       }
     }
 
+    commitSolveEvent(event, emptyCells.size(), nodes, "unsolvable");
     throw new InvalidGameException("No valid solution found for this board");
   }
 
+  // General solver for any number of empty cells. Never modifies the board and stops
+  // at the first limit reached in options (deadline, node budget, cancellation or interrupt).
+  public SolveResult solve(int[][] board, SolveOptions options) {
+    if (options.getBackend() == SolveOptions.Backend.PORTFOLIO) {
+      return portfolio.get().solve(board, options);
+    }
+    SolveEvent event = new SolveEvent();
+    event.begin();
+    long start = System.nanoTime();
+    SolveResult.Status[] stopReason = new SolveResult.Status[1];
+    BitmaskSearch.Monitor monitor = limits(options, start, stopReason);
+    long interval = Math.min(options.getProgressInterval(), Math.max(1, options.getMaxNodes()));
+    // The backends poll their monitor only every interval nodes, so an easy board would
+    // otherwise finish under a token that was cancelled (or a deadline that passed) already
+    if (monitor.shouldStop(0, 0)) {
+      String strategy = options.getBackend().name().toLowerCase();
+      commitSolveEvent(event, strategy, countEmpty(board), 0, stopReason[0].name().toLowerCase());
+      return new SolveResult(stopReason[0], null, 0, System.nanoTime() - start);
+    }
+    if (options.getBackend() == SolveOptions.Backend.CDCL) {
+      return solveWithCdcl(board, options, monitor, interval, stopReason, event, start);
+    }
+
+    BitmaskSearch search = new BitmaskSearch(options.getRules());
+    boolean consistent = search.load(board);
+    int emptyCells = search.getEmptyCount();
+    search.setMonitor(monitor, interval);
+
+    SolveResult.Status status;
+    int[][] solution = null;
+    if (consistent && search.next()) {
+      status = SolveResult.Status.SOLVED;
+      solution = new int[9][9];
+      for (int cell = 0; cell < 81; cell++) {
+        solution[cell / 9][cell % 9] = search.get(cell);
+      }
+    } else if (search.isStopped()) {
+      status = stopReason[0];
+    } else {
+      status = SolveResult.Status.NO_SOLUTION;
+    }
+
+    commitSolveEvent(event, "bitmask", emptyCells, search.getNodes(), status.name().toLowerCase());
+    return new SolveResult(status, solution, search.getNodes(), System.nanoTime() - start);
+  }
+
+  private SolveResult solveWithCdcl(int[][] board, SolveOptions options, BitmaskSearch.Monitor monitor,
+      long interval, SolveResult.Status[] stopReason, SolveEvent event, long start) {
+    int emptyCells = countEmpty(board);
+    SudokuCnf cnf = SudokuCnf.encode((row, col) -> board[row][col], options.getRules());
+    SolveResult.Status status;
+    int[][] solution = null;
+    long nodes = 0;
+    if (cnf.isContradiction()) {
+      status = SolveResult.Status.NO_SOLUTION;
+    } else {
+      CdclSolver sat = cnf.newSolver();
+      sat.setMonitor(monitor, interval);
+      CdclSolver.Result result = sat.solve();
+      nodes = sat.getPropagations();
+      if (result == CdclSolver.Result.SATISFIABLE) {
+        status = SolveResult.Status.SOLVED;
+        solution = cnf.decode(sat);
+      } else if (result == CdclSolver.Result.STOPPED) {
+        status = stopReason[0];
+      } else {
+        status = SolveResult.Status.NO_SOLUTION;
+      }
+    }
+
+    commitSolveEvent(event, "cdcl", emptyCells, nodes, status.name().toLowerCase());
+    return new SolveResult(status, solution, nodes, System.nanoTime() - start);
+  }
+
+  private static int countEmpty(int[][] board) {
+    int emptyCells = 0;
+    for (int cell = 0; cell < 81; cell++) {
+      if (board[cell / 9][cell % 9] == 0) emptyCells++;
+    }
+    return emptyCells;
+  }
+
+  // Stops a search at the first limit reached in options, recording which one in stopReason
+  private static BitmaskSearch.Monitor limits(SolveOptions options, long start, SolveResult.Status[] stopReason) {
+    long deadline = options.getTimeLimit() == null ? Long.MAX_VALUE : start + options.getTimeLimit().toNanos();
+    return (nodes, depth) -> {
+      ProgressListener progress = options.getProgress();
+      if (progress != null) progress.onProgress(nodes, depth);
+      CancellationToken token = options.getCancellation();
+      if ((token != null && token.isCancelled()) || Thread.currentThread().isInterrupted()) {
+        stopReason[0] = SolveResult.Status.CANCELLED;
+      } else if (nodes >= options.getMaxNodes()) {
+        stopReason[0] = SolveResult.Status.BUDGET_EXHAUSTED;
+      } else if (System.nanoTime() - deadline > 0) {
+        stopReason[0] = SolveResult.Status.TIMED_OUT;
+      }
+      return stopReason[0] != null;
+    };
+  }
+
+  // Per-feature record of which strategy wins portfolio races
+  public String describePortfolio() {
+    return portfolio.isInitialized() ? portfolio.get().describeProfiles() : "";
+  }
+
+  // Every solution as a row-major int[81]; call parallel() to spread the search over cores
+  public Stream<int[]> solutions(int[][] board) {
+    return StreamSupport.stream(new SolutionSpliterator(board), false);
+  }
+
+  public Stream<int[]> solutions(BoardView board) {
+    return StreamSupport.stream(new SolutionSpliterator(board), false);
+  }
+
+  public Stream<int[]> solutions(BoardView board, RuleSet rules) {
+    return StreamSupport.stream(new SolutionSpliterator(board, rules), false);
+  }
+
+  // Number of solutions, stopping at cap; nothing is allocated per solution
+  public long countSolutions(int[][] board, long cap) {
+    BitmaskSearch search = new BitmaskSearch();
+    if (!search.load(board)) return 0;
+    return search.countSolutions(cap);
+  }
+
+  public long countSolutions(BoardView board, long cap) {
+    return countSolutions(board, RuleSet.CLASSIC, cap);
+  }
+
+  public long countSolutions(BoardView board, RuleSet rules, long cap) {
+    BitmaskSearch search = new BitmaskSearch(rules);
+    if (!search.load(board)) return 0;
+    return search.countSolutions(cap);
+  }
+
+  private void commitSolveEvent(SolveEvent event, int emptyCells, long nodes, String outcome) {
+    commitSolveEvent(event, "permutation", emptyCells, nodes, outcome);
+  }
+
+  private void commitSolveEvent(SolveEvent event, String strategy, int emptyCells, long nodes, String outcome) {
+    event.end();
+    if (event.shouldCommit()) {
+      event.strategy = strategy;
+      event.emptyCells = emptyCells;
+      event.nodesExplored = nodes;
+      event.outcome = outcome;
+      event.commit();
+    }
+  }
+
   private List<int[]> findEmptyCells(int[][] board) {
     List<int[]> emptyCells = new ArrayList<>();
 
@@ -48,25 +224,15 @@ public class SudokuSolver {
     return emptyCells;
   }
 
-  private boolean isValidCombination(int[][] board, List<int[]> emptyCells, int[] combination) {
-    // Flyweight: Temporarily fill cells
-    for (int i = 0; i < emptyCells.size(); i++) {
-      int row = emptyCells.get(i)[0];
-      int col = emptyCells.get(i)[1];
-      board[row][col] = combination[i];
-    }
-
-    SudokuVerifier.VerificationResult result = verifier.verify(board);
-    boolean isValid = (result.getState() == VerificationState.VALID);
-
-    // Restore zeros
+  // Each combination overwrites the same empty cells of the scratch copy, so nothing needs restoring
+  private boolean isValidCombination(int[] cells, BoardView view, List<int[]> emptyCells, int[] combination) {
     for (int i = 0; i < emptyCells.size(); i++) {
-      int row = emptyCells.get(i)[0];
-      int col = emptyCells.get(i)[1];
-      board[row][col] = 0;
+      int[] position = emptyCells.get(i);
+      cells[position[0] * 9 + position[1]] = combination[i];
     }
 
-    return isValid;
+    VerificationResult result = verifier.verify(view);
+    return result.getState() == VerificationState.VALID;
   }
 
   private int[][] buildSolution(List<int[]> emptyCells, int[] combination) {
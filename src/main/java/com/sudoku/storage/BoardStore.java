@@ -0,0 +1,147 @@
+package com.sudoku.storage;
+
+import java.nio.ByteBuffer;
+
+import com.sudoku.logic.BatchVerifier;
+import com.sudoku.model.BoardView;
+
+// Off-heap store for large numbers of boards: 81 bytes per board in direct
+// ByteBuffer chunks, addressed by a long index. The heap only holds the chunk
+// references, so tens of millions of boards do not add GC pressure.
+// Appends are serialized; reads may run concurrently on any thread.
+public class BoardStore {
+  private static final int CHUNK_SHIFT = 16;
+  private static final int CHUNK_BOARDS = 1 << CHUNK_SHIFT; // ~5.3 MB per chunk
+  private static final int CHUNK_MASK = CHUNK_BOARDS - 1;
+  private static final int BOARD_BYTES = BatchVerifier.BOARD_BYTES;
+
+  private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+  private volatile long size;
+
+  public synchronized long add(BoardView board) {
+    long index = reserve();
+    ByteBuffer chunk = chunks[chunkOf(index)];
+    int offset = offsetOf(index);
+    for (int row = 0; row < 9; row++) {
+      for (int col = 0; col < 9; col++) {
+        chunk.put(offset + row * 9 + col, (byte) board.get(row, col));
+      }
+    }
+    size = index + 1;
+    return index;
+  }
+
+  public long add(int[][] board) {
+    return add((row, col) -> board[row][col]);
+  }
+
+  // Appends one packed board (81 bytes, row-major) from src at srcOffset
+  public synchronized long add(byte[] src, int srcOffset) {
+    long index = reserve();
+    ByteBuffer chunk = chunks[chunkOf(index)].duplicate();
+    chunk.position(offsetOf(index));
+    chunk.put(src, srcOffset, BOARD_BYTES);
+    size = index + 1;
+    return index;
+  }
+
+  public long size() {
+    return size;
+  }
+
+  public int get(long index, int row, int col) {
+    checkIndex(index);
+    return chunks[chunkOf(index)].get(offsetOf(index) + row * 9 + col);
+  }
+
+  public void set(long index, int row, int col, int value) {
+    checkIndex(index);
+    chunks[chunkOf(index)].put(offsetOf(index) + row * 9 + col, (byte) value);
+  }
+
+  public int[][] toArray(long index) {
+    int[][] board = new int[9][9];
+    for (int row = 0; row < 9; row++) {
+      for (int col = 0; col < 9; col++) {
+        board[row][col] = get(index, row, col);
+      }
+    }
+    return board;
+  }
+
+  // A flyweight over one stored board; reposition it with moveTo instead of allocating new views
+  public Cursor cursor(long index) {
+    return new Cursor().moveTo(index);
+  }
+
+  // Verifies count boards starting at from, streaming them through a small heap buffer
+  public int verifyRange(BatchVerifier verifier, long from, int count, byte[] states) {
+    if (from < 0 || count < 0 || from + count > size) {
+      throw new IndexOutOfBoundsException("Range " + from + "+" + count + " outside store of size " + size);
+    }
+    byte[] buffer = new byte[Math.min(count, CHUNK_BOARDS) * BOARD_BYTES];
+    byte[] batchStates = new byte[Math.min(count, CHUNK_BOARDS)];
+    int valid = 0;
+    int done = 0;
+    while (done < count) {
+      long index = from + done;
+      int batch = Math.min(count - done, CHUNK_BOARDS - (int) (index & CHUNK_MASK));
+      ByteBuffer chunk = chunks[chunkOf(index)].duplicate();
+      chunk.position(offsetOf(index));
+      chunk.get(buffer, 0, batch * BOARD_BYTES);
+      valid += verifier.verifyAll(buffer, batch, batchStates);
+      System.arraycopy(batchStates, 0, states, done, batch);
+      done += batch;
+    }
+    return valid;
+  }
+
+  private long reserve() {
+    long index = size;
+    int chunk = chunkOf(index);
+    if (chunk >= chunks.length) {
+      ByteBuffer[] grown = new ByteBuffer[chunk + 1];
+      System.arraycopy(chunks, 0, grown, 0, chunks.length);
+      grown[chunk] = ByteBuffer.allocateDirect(CHUNK_BOARDS * BOARD_BYTES);
+      chunks = grown;
+    }
+    return index;
+  }
+
+  private void checkIndex(long index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Board " + index + " outside store of size " + size);
+    }
+  }
+
+  private static int chunkOf(long index) {
+    return (int) (index >>> CHUNK_SHIFT);
+  }
+
+  private static int offsetOf(long index) {
+    return (int) (index & CHUNK_MASK) * BOARD_BYTES;
+  }
+
+  public class Cursor implements BoardView {
+    private ByteBuffer chunk;
+    private int offset;
+    private long index;
+
+    public Cursor moveTo(long index) {
+      checkIndex(index);
+      this.index = index;
+      this.chunk = chunks[chunkOf(index)];
+      this.offset = offsetOf(index);
+      return this;
+    }
+
+    public long getIndex() {
+      return index;
+    }
+
+    @Override
+    public int get(int row, int col) {
+      return chunk.get(offset + row * 9 + col);
+    }
+  }
+}
@@ -0,0 +1,290 @@
+package com.sudoku.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+
+import com.sudoku.monitor.StorageEvent;
+
+// Random access over the move log. game.log keeps its text format, one "x,y,new,old" line
+// per move; next to it
+//   game.idx   holds the end offset of every move in game.log (8 bytes each)
+//   game.ckpt  holds the board after every CHECKPOINT_INTERVAL-th move (81 bytes each)
+// Seeking to move k reads the checkpoint at or below k and at most CHECKPOINT_INTERVAL - 1
+// log lines after it, instead of replaying the game from initial.txt. Undo and rewinding
+// truncate all three files instead of rewriting them.
+//
+// Files are written log first, then index, then checkpoint; open() rebuilds the index and
+// checkpoints from the log when they do not match it (older games, or a crash in between).
+// Not thread-safe; StorageManager serialises access, and reopens the journal when
+// matchesDisk() reports that another writer changed the log.
+final class MoveJournal {
+  static final int CHECKPOINT_INTERVAL = 32;
+  private static final int OFFSET_BYTES = Long.BYTES;
+  private static final int CHECKPOINT_BYTES = 81;
+
+  private final Path logPath;
+  private final Path indexPath;
+  private final Path checkpointPath;
+  private final int[] initial = new int[81];
+  // ends[k] is the log length after move k + 1
+  private long[] ends = new long[64];
+  private int moves;
+  // Board after the last move; the source of new checkpoints
+  private final int[] board = new int[81];
+  // Modification time of the log after this instance last wrote or read it; null if absent
+  private FileTime logModified;
+
+  private MoveJournal(Path logPath, Path indexPath, Path checkpointPath, int[][] initialBoard) {
+    this.logPath = logPath;
+    this.indexPath = indexPath;
+    this.checkpointPath = checkpointPath;
+    for (int cell = 0; cell < 81; cell++) initial[cell] = initialBoard[cell / 9][cell % 9];
+  }
+
+  static MoveJournal open(Path logPath, Path indexPath, Path checkpointPath, int[][] initialBoard) throws IOException {
+    MoveJournal journal = new MoveJournal(logPath, indexPath, checkpointPath, initialBoard);
+    if (!journal.loadIndex()) journal.rebuild();
+    journal.logModified = modifiedTime(logPath);
+    return journal;
+  }
+
+  int size() {
+    return moves;
+  }
+
+  // False once the log was changed by someone else: it no longer ends where the index says,
+  // or it was rewritten to the same length (an undo followed by another move)
+  boolean matchesDisk() throws IOException {
+    BasicFileAttributes attributes;
+    try {
+      attributes = Files.readAttributes(logPath, BasicFileAttributes.class);
+    } catch (NoSuchFileException e) {
+      return moves == 0 && logModified == null;
+    }
+    return attributes.size() == end(moves) && attributes.lastModifiedTime().equals(logModified);
+  }
+
+  // Null if the file does not exist
+  static FileTime modifiedTime(Path path) throws IOException {
+    try {
+      return Files.getLastModifiedTime(path);
+    } catch (NoSuchFileException e) {
+      return null;
+    }
+  }
+
+  void append(int x, int y, int newValue, int oldValue) throws IOException {
+    byte[] line = String.format("%d,%d,%d,%d%n", x, y, newValue, oldValue).getBytes(StandardCharsets.US_ASCII);
+    StorageEvent event = new StorageEvent();
+    event.begin();
+    Files.write(logPath, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    board[x * 9 + y] = newValue;
+    long end = end(moves) + line.length;
+    push(end);
+    ByteBuffer offset = ByteBuffer.allocate(OFFSET_BYTES).putLong(end);
+    Files.write(indexPath, offset.array(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    if (moves % CHECKPOINT_INTERVAL == 0) {
+      Files.write(checkpointPath, pack(board), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+    logModified = modifiedTime(logPath);
+    commitEvent(event, "append", logPath, line.length);
+  }
+
+  // {x, y, new, old} of the removed move, or null if there is none
+  int[] removeLast() throws IOException {
+    if (moves == 0) return null;
+    int[][] last = readMoves(moves - 1, moves);
+    int[] move = last[0];
+    board[move[0] * 9 + move[1]] = move[3];
+    truncate(moves - 1);
+    return move;
+  }
+
+  // Drops every move after the given one; the board returns to its state at that move
+  void truncateTo(int move) throws IOException {
+    checkMove(move);
+    if (move == moves) return;
+    int[] target = cellsAt(move);
+    System.arraycopy(target, 0, board, 0, 81);
+    truncate(move);
+  }
+
+  // The board after the given number of moves; 0 is the initial board
+  int[][] boardAt(int move) throws IOException {
+    checkMove(move);
+    int[] cells = move == moves ? board.clone() : cellsAt(move);
+    int[][] result = new int[9][9];
+    for (int cell = 0; cell < 81; cell++) result[cell / 9][cell % 9] = cells[cell];
+    return result;
+  }
+
+  private int[] cellsAt(int move) throws IOException {
+    int checkpoint = move / CHECKPOINT_INTERVAL;
+    int[] cells = checkpoint == 0 ? initial.clone() : readCheckpoint(checkpoint);
+    for (int[] entry : readMoves(checkpoint * CHECKPOINT_INTERVAL, move)) {
+      cells[entry[0] * 9 + entry[1]] = entry[2];
+    }
+    return cells;
+  }
+
+  private void truncate(int move) throws IOException {
+    StorageEvent event = new StorageEvent();
+    event.begin();
+    long logSize = end(move);
+    truncateFile(logPath, logSize);
+    truncateFile(indexPath, (long) move * OFFSET_BYTES);
+    truncateFile(checkpointPath, (long) (move / CHECKPOINT_INTERVAL) * CHECKPOINT_BYTES);
+    moves = move;
+    logModified = modifiedTime(logPath);
+    commitEvent(event, "truncate", logPath, logSize);
+  }
+
+  // Moves from (exclusive) .. to (inclusive), counted from 1, as {x, y, new, old}
+  private int[][] readMoves(int from, int to) throws IOException {
+    int[][] entries = new int[to - from][];
+    if (entries.length == 0) return entries;
+    long start = end(from);
+    byte[] bytes = new byte[(int) (end(to) - start)];
+    StorageEvent event = new StorageEvent();
+    event.begin();
+    try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.READ)) {
+      ByteBuffer buffer = ByteBuffer.wrap(bytes);
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer, start + buffer.position()) < 0) throw new IOException("Move log is shorter than its index");
+      }
+    }
+    commitEvent(event, "read", logPath, bytes.length);
+    String[] lines = new String(bytes, StandardCharsets.US_ASCII).split("\\R");
+    if (lines.length != entries.length) throw new IOException("Move log does not match its index");
+    for (int i = 0; i < lines.length; i++) entries[i] = parse(lines[i]);
+    return entries;
+  }
+
+  private int[] readCheckpoint(int checkpoint) throws IOException {
+    byte[] bytes = new byte[CHECKPOINT_BYTES];
+    try (FileChannel channel = FileChannel.open(checkpointPath, StandardOpenOption.READ)) {
+      ByteBuffer buffer = ByteBuffer.wrap(bytes);
+      long position = (long) (checkpoint - 1) * CHECKPOINT_BYTES;
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer, position + buffer.position()) < 0) throw new IOException("Missing checkpoint " + checkpoint);
+      }
+    }
+    int[] cells = new int[81];
+    for (int cell = 0; cell < 81; cell++) cells[cell] = bytes[cell];
+    return cells;
+  }
+
+  // Trusts the index only if it ends exactly where the log does and the checkpoints fit it
+  private boolean loadIndex() throws IOException {
+    if (!Files.exists(logPath)) {
+      Files.deleteIfExists(indexPath);
+      Files.deleteIfExists(checkpointPath);
+      System.arraycopy(initial, 0, board, 0, 81);
+      return true;
+    }
+    if (!Files.exists(indexPath) || !Files.exists(checkpointPath)) return false;
+    long indexSize = Files.size(indexPath);
+    if (indexSize % OFFSET_BYTES != 0) return false;
+    int count = (int) (indexSize / OFFSET_BYTES);
+    if (Files.size(checkpointPath) != (long) (count / CHECKPOINT_INTERVAL) * CHECKPOINT_BYTES) return false;
+    ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(indexPath));
+    long[] loaded = new long[Math.max(64, count)];
+    for (int i = 0; i < count; i++) loaded[i] = buffer.getLong();
+    if ((count == 0 ? 0 : loaded[count - 1]) != Files.size(logPath)) return false;
+    ends = loaded;
+    moves = count;
+    System.arraycopy(cellsAt(count), 0, board, 0, 81);
+    return true;
+  }
+
+  // Replays the whole log once to write a fresh index and checkpoints
+  private void rebuild() throws IOException {
+    StorageEvent event = new StorageEvent();
+    event.begin();
+    byte[] log = Files.readAllBytes(logPath);
+    System.arraycopy(initial, 0, board, 0, 81);
+    moves = 0;
+    ByteBuffer index = ByteBuffer.allocate(OFFSET_BYTES * 64);
+    ByteBuffer checkpoints = ByteBuffer.allocate(CHECKPOINT_BYTES * 4);
+    int lineStart = 0;
+    for (int i = 0; i < log.length; i++) {
+      if (log[i] != '\n') continue;
+      String line = new String(log, lineStart, i - lineStart, StandardCharsets.US_ASCII).trim();
+      lineStart = i + 1;
+      if (line.isEmpty()) continue;
+      int[] move = parse(line);
+      board[move[0] * 9 + move[1]] = move[2];
+      push(i + 1);
+      index = ensureRemaining(index, OFFSET_BYTES).putLong(i + 1);
+      if (moves % CHECKPOINT_INTERVAL == 0) checkpoints = ensureRemaining(checkpoints, CHECKPOINT_BYTES).put(pack(board));
+    }
+    // A torn last line from a crash is dropped
+    if (end(moves) != log.length) truncateFile(logPath, end(moves));
+    Files.write(indexPath, Arrays.copyOf(index.array(), index.position()));
+    Files.write(checkpointPath, Arrays.copyOf(checkpoints.array(), checkpoints.position()));
+    commitEvent(event, "rebuild", indexPath, index.position());
+  }
+
+  private static ByteBuffer ensureRemaining(ByteBuffer buffer, int needed) {
+    if (buffer.remaining() >= needed) return buffer;
+    ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + needed));
+    buffer.flip();
+    return larger.put(buffer);
+  }
+
+  private void push(long end) {
+    if (moves == ends.length) ends = Arrays.copyOf(ends, moves * 2);
+    ends[moves++] = end;
+  }
+
+  // Log length after the given number of moves
+  private long end(int move) {
+    return move == 0 ? 0 : ends[move - 1];
+  }
+
+  private void checkMove(int move) {
+    if (move < 0 || move > moves) {
+      throw new IndexOutOfBoundsException("Move " + move + " outside 0.." + moves);
+    }
+  }
+
+  private static int[] parse(String line) throws IOException {
+    String[] parts = line.split(",");
+    if (parts.length != 4) throw new IOException("Invalid log entry");
+    int[] move = new int[4];
+    for (int i = 0; i < 4; i++) move[i] = Integer.parseInt(parts[i].trim());
+    return move;
+  }
+
+  private static byte[] pack(int[] cells) {
+    byte[] bytes = new byte[CHECKPOINT_BYTES];
+    for (int cell = 0; cell < 81; cell++) bytes[cell] = (byte) cells[cell];
+    return bytes;
+  }
+
+  private static void truncateFile(Path path, long size) throws IOException {
+    if (!Files.exists(path)) return;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+      channel.truncate(size);
+    }
+  }
+
+  private static void commitEvent(StorageEvent event, String operation, Path path, long bytes) {
+    event.end();
+    if (event.shouldCommit()) {
+      event.operation = operation;
+      event.path = path.toString();
+      event.bytes = bytes;
+      event.commit();
+    }
+  }
+}
@@ -4,28 +4,74 @@ import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 import com.sudoku.model.DifficultyEnum;
+import com.sudoku.model.PuzzleKey;
+import com.sudoku.monitor.StorageEvent;
 
 public class StorageManager {
   private static final String BASE_DIR = "sudoku_games";
   private static final String CURRENT_DIR = "incomplete";
   private static final String LOG_FILE = "game.log";
+  private static final String INDEX_FILE = "game.idx";
+  private static final String CHECKPOINT_FILE = "game.ckpt";
   private static final String GAME_FILE = "game.txt";
   private static final String INITIAL_FILE = "initial.txt"; // NEW
+  private static final String SOLUTION_FILE = "solution.txt";
+  // Where the current game came from, so completing it removes exactly that bank entry
+  private static final String ORIGIN_FILE = "origin.dat";
+  private static final String GENERATED_ORIGIN = "generated";
+  private static final String FILE_ORIGIN = "file ";
+  private static final String KEY_ORIGIN = "key ";
+  private static final String SOURCES_DIR = "sources";
+  private static final String KEY_BANK_FILE = "bank.keys";
+  private static final String BUNDLED_SOURCE = "/sample_boards/valid_solution.txt";
 
   private final Path basePath;
+  private volatile boolean directoriesReady;
+  // Next game_<n>.txt index to probe per difficulty, so batches do not rescan from 1; guarded by this
+  private final Map<DifficultyEnum, Integer> nextGameIndex = new EnumMap<>(DifficultyEnum.class);
+  // Index over game.log, opened on first use, and the initial.txt it was opened against;
+  // guarded by this
+  private MoveJournal journal;
+  private FileTime journalInitial;
 
   public StorageManager() {
-    this.basePath = Paths.get(BASE_DIR);
-    initializeDirectories();
+    this(Paths.get(BASE_DIR));
+  }
+
+  public StorageManager(Path basePath) {
+    this.basePath = basePath;
+  }
+
+  public Path getBasePath() {
+    return basePath;
+  }
+
+  // Directories are created on the first write instead of in the constructor,
+  // so building a StorageManager never touches the disk.
+  private void ensureDirectories() {
+    if (directoriesReady) return;
+    synchronized (this) {
+      if (directoriesReady) return;
+      initializeDirectories();
+      directoriesReady = true;
+    }
   }
 
   private void initializeDirectories() {
@@ -35,23 +81,51 @@ public class StorageManager {
       Files.createDirectories(basePath.resolve(DifficultyEnum.EASY.getFolderName()));
       Files.createDirectories(basePath.resolve(DifficultyEnum.MEDIUM.getFolderName()));
       Files.createDirectories(basePath.resolve(DifficultyEnum.HARD.getFolderName()));
+      Files.createDirectories(basePath.resolve(DifficultyEnum.EXPERT.getFolderName()));
     } catch (IOException e) {
       throw new RuntimeException("Failed to initialize storage directories", e);
     }
   }
 
   public void saveGame(DifficultyEnum difficulty, int[][] board) throws IOException {
+    saveGame(difficulty, board, null);
+  }
+
+  // Game files hold the puzzle in the first 9 lines and, when known, its solution in the next 9
+  public synchronized void saveGame(DifficultyEnum difficulty, int[][] board, int[][] solution) throws IOException {
+    ensureDirectories();
+    writeBoardToFile(board, solution, nextGamePath(difficulty));
+  }
+
+  // Writes a batch under free names; the scan continues from the last used index instead of restarting at 1
+  public void saveGames(DifficultyEnum difficulty, List<int[][]> boards) throws IOException {
+    saveGames(difficulty, boards, null);
+  }
+
+  // solutions is parallel to boards, or null when none are known
+  public synchronized void saveGames(DifficultyEnum difficulty, List<int[][]> boards, List<int[][]> solutions)
+      throws IOException {
+    ensureDirectories();
+    for (int i = 0; i < boards.size(); i++) {
+      writeBoardToFile(boards.get(i), solutions == null ? null : solutions.get(i), nextGamePath(difficulty));
+    }
+  }
+
+  // First free game_<n>.txt at or after the cached index; files written by other processes
+  // are still skipped because every candidate is probed
+  private Path nextGamePath(DifficultyEnum difficulty) {
     Path difficultyPath = basePath.resolve(difficulty.getFolderName());
-    int index = 1;
+    int index = nextGameIndex.getOrDefault(difficulty, 1);
     Path filePath;
-    do {
-      filePath = difficultyPath.resolve("game_" + index + ".txt");
+    while (Files.exists(filePath = difficultyPath.resolve("game_" + index + ".txt"))) {
       index++;
-    } while (Files.exists(filePath));
-    writeBoardToFile(board, filePath);
+    }
+    nextGameIndex.put(difficulty, index + 1);
+    return filePath;
   }
 
   public void saveCurrentGame(int[][] board) throws IOException {
+    ensureDirectories();
     Path currentPath = basePath.resolve(CURRENT_DIR).resolve(GAME_FILE);
     writeBoardToFile(board, currentPath);
   }
@@ -84,35 +158,182 @@ public class StorageManager {
     }
 
     Path gameFile = gameFiles.get(0);
-    int[][] board = readBoardFromFile(gameFile);
+    int[][][] puzzle = readPuzzleFromFile(gameFile);
+    startGame(puzzle[0], puzzle[1], FILE_ORIGIN + difficulty.getFolderName() + "/" + gameFile.getFileName());
+    return puzzle[0];
+  }
+
+  // Makes the given board the current game, with a fresh initial state and empty log
+  public void startGame(int[][] board) throws IOException {
+    startGame(board, null);
+  }
+
+  // As startGame(board), keeping the solution next to the current game when it is known
+  public void startGame(int[][] board, int[][] solution) throws IOException {
+    startGame(board, solution, GENERATED_ORIGIN);
+  }
+
+  // As startGame(board, solution) for a puzzle rebuilt from the key bank; completing the
+  // game removes that key
+  public void startGame(int[][] board, int[][] solution, PuzzleKey bankKey) throws IOException {
+    startGame(board, solution, KEY_ORIGIN + bankKey.getSourceId() + " " + bankKey.getSeed() + " "
+        + bankKey.getDifficulty().name());
+  }
 
+  private void startGame(int[][] board, int[][] solution, String origin) throws IOException {
     // CLEANUP: Start fresh! Delete old logs and old initial state
-    Files.deleteIfExists(basePath.resolve(CURRENT_DIR).resolve(LOG_FILE));
-    Files.deleteIfExists(basePath.resolve(CURRENT_DIR).resolve(INITIAL_FILE));
+    deleteJournal();
+    deleteFile(basePath.resolve(CURRENT_DIR).resolve(INITIAL_FILE));
+    deleteFile(basePath.resolve(CURRENT_DIR).resolve(SOLUTION_FILE));
 
     // SAVE INITIAL STATE: Save this fresh board as "initial.txt"
+    ensureDirectories();
     Path initialSavePath = basePath.resolve(CURRENT_DIR).resolve(INITIAL_FILE);
     writeBoardToFile(board, initialSavePath);
 
+    if (solution != null) {
+      writeBoardToFile(solution, basePath.resolve(CURRENT_DIR).resolve(SOLUTION_FILE));
+    }
+
+    Files.write(basePath.resolve(CURRENT_DIR).resolve(ORIGIN_FILE), origin.getBytes(StandardCharsets.UTF_8));
+
     // Save as "current" (the editable one)
     saveCurrentGame(board);
+  }
 
-    return board;
+  // Solution of the current game, or null if it was started from a board without one
+  public int[][] loadCurrentSolution() throws IOException {
+    Path solutionPath = basePath.resolve(CURRENT_DIR).resolve(SOLUTION_FILE);
+    if (!Files.exists(solutionPath)) return null;
+    return readBoardFromFile(solutionPath);
+  }
+
+  // Stores a solved grid under the next free source id (ids start at 1; 0 is the bundled grid)
+  public synchronized int registerSource(int[][] solution) throws IOException {
+    ensureDirectories();
+    Path sourcesPath = basePath.resolve(SOURCES_DIR);
+    Files.createDirectories(sourcesPath);
+    int id = latestSourceId() + 1;
+    writeBoardToFile(solution, sourcesPath.resolve("source_" + id + ".txt"));
+    return id;
+  }
+
+  public int latestSourceId() {
+    int id = PuzzleKey.BUNDLED_SOURCE;
+    while (Files.exists(basePath.resolve(SOURCES_DIR).resolve("source_" + (id + 1) + ".txt"))) {
+      id++;
+    }
+    return id;
+  }
+
+  public int[][] loadSource(int id) throws IOException {
+    if (id == PuzzleKey.BUNDLED_SOURCE) {
+      return loadBundledSource();
+    }
+    Path sourcePath = basePath.resolve(SOURCES_DIR).resolve("source_" + id + ".txt");
+    if (!Files.exists(sourcePath)) {
+      throw new FileNotFoundException("No source grid with id " + id);
+    }
+    return readBoardFromFile(sourcePath);
+  }
+
+  private int[][] loadBundledSource() throws IOException {
+    InputStream in = StorageManager.class.getResourceAsStream(BUNDLED_SOURCE);
+    if (in == null) {
+      throw new FileNotFoundException("No source solution available");
+    }
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+      return readBoard(reader);
+    }
+  }
+
+  // Compact bank: 16 bytes per puzzle, rebuilt on demand by GameGenerator.rebuild
+  public void appendKeys(DifficultyEnum difficulty, List<PuzzleKey> keys) throws IOException {
+    ensureDirectories();
+    StorageEvent event = new StorageEvent();
+    event.begin();
+    ByteBuffer buffer = ByteBuffer.allocate(keys.size() * PuzzleKey.BYTES);
+    for (PuzzleKey key : keys) {
+      key.writeTo(buffer);
+    }
+    Path bankPath = basePath.resolve(difficulty.getFolderName()).resolve(KEY_BANK_FILE);
+    Files.write(bankPath, buffer.array(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    commitEvent(event, "append", bankPath, buffer.capacity());
+  }
+
+  // The first banked key of a difficulty, or null when its bank is empty
+  public PuzzleKey peekKey(DifficultyEnum difficulty) throws IOException {
+    Path bankPath = basePath.resolve(difficulty.getFolderName()).resolve(KEY_BANK_FILE);
+    if (!Files.exists(bankPath) || Files.size(bankPath) < PuzzleKey.BYTES) return null;
+    try (InputStream in = Files.newInputStream(bankPath)) {
+      return PuzzleKey.readFrom(ByteBuffer.wrap(in.readNBytes(PuzzleKey.BYTES)));
+    }
+  }
+
+  // Drops the first occurrence of key from its difficulty's bank
+  public synchronized void removeKey(PuzzleKey key) throws IOException {
+    List<PuzzleKey> keys = loadKeys(key.getDifficulty());
+    if (!keys.remove(key)) return;
+    Path bankPath = basePath.resolve(key.getDifficulty().getFolderName()).resolve(KEY_BANK_FILE);
+    StorageEvent event = new StorageEvent();
+    event.begin();
+    ByteBuffer buffer = ByteBuffer.allocate(keys.size() * PuzzleKey.BYTES);
+    for (PuzzleKey remaining : keys) {
+      remaining.writeTo(buffer);
+    }
+    Files.write(bankPath, buffer.array());
+    commitEvent(event, "rewrite", bankPath, buffer.capacity());
+  }
+
+  public List<PuzzleKey> loadKeys(DifficultyEnum difficulty) throws IOException {
+    Path bankPath = basePath.resolve(difficulty.getFolderName()).resolve(KEY_BANK_FILE);
+    List<PuzzleKey> keys = new ArrayList<>();
+    if (!Files.exists(bankPath)) return keys;
+    StorageEvent event = new StorageEvent();
+    event.begin();
+    byte[] bytes = Files.readAllBytes(bankPath);
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    while (buffer.remaining() >= PuzzleKey.BYTES) {
+      keys.add(PuzzleKey.readFrom(buffer));
+    }
+    commitEvent(event, "read", bankPath, bytes.length);
+    return keys;
   }
 
   public void deleteGame(DifficultyEnum difficulty) throws IOException {
     Path difficultyPath = basePath.resolve(difficulty.getFolderName());
     List<Path> gameFiles = listGameFiles(difficultyPath);
     if (!gameFiles.isEmpty()) {
-      Files.deleteIfExists(gameFiles.get(0));
+      deleteFile(gameFiles.get(0));
     }
   }
 
   public void clearCurrentGame() throws IOException {
     Path currentPath = basePath.resolve(CURRENT_DIR);
-    Files.deleteIfExists(currentPath.resolve(GAME_FILE));
-    Files.deleteIfExists(currentPath.resolve(LOG_FILE));
-    Files.deleteIfExists(currentPath.resolve(INITIAL_FILE));
+    deleteFile(currentPath.resolve(GAME_FILE));
+    deleteJournal();
+    deleteFile(currentPath.resolve(INITIAL_FILE));
+    deleteFile(currentPath.resolve(SOLUTION_FILE));
+    deleteFile(currentPath.resolve(ORIGIN_FILE));
+  }
+
+  // Removes the bank entry the current game was taken from, then clears the current game.
+  // Games started before origins were recorded fall back to the first game of difficulty.
+  public synchronized void completeCurrentGame(DifficultyEnum difficulty) throws IOException {
+    Path originPath = basePath.resolve(CURRENT_DIR).resolve(ORIGIN_FILE);
+    if (Files.exists(originPath)) {
+      String origin = new String(Files.readAllBytes(originPath), StandardCharsets.UTF_8).trim();
+      if (origin.startsWith(FILE_ORIGIN)) {
+        deleteFile(basePath.resolve(origin.substring(FILE_ORIGIN.length())));
+      } else if (origin.startsWith(KEY_ORIGIN)) {
+        String[] parts = origin.substring(KEY_ORIGIN.length()).split(" ");
+        removeKey(new PuzzleKey(Integer.parseInt(parts[0]), Long.parseLong(parts[1]),
+            DifficultyEnum.valueOf(parts[2])));
+      }
+    } else if (difficulty != DifficultyEnum.INITIAL) {
+      deleteGame(difficulty);
+    }
+    clearCurrentGame();
   }
 
   public boolean hasCurrentGame() {
@@ -120,12 +341,21 @@ public class StorageManager {
     return Files.exists(currentPath);
   }
 
+  // Game files or banked keys
+  public boolean hasGames(DifficultyEnum difficulty) {
+    try {
+      return hasKeys(difficulty) || !listGameFiles(basePath.resolve(difficulty.getFolderName())).isEmpty();
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
   public boolean hasAllDifficulties() {
     try {
       for (DifficultyEnum diff : DifficultyEnum.values()) {
         if (diff == DifficultyEnum.INITIAL) continue; // Skip initial check
         Path diffPath = basePath.resolve(diff.getFolderName());
-        if (listGameFiles(diffPath).isEmpty()) return false;
+        if (!hasKeys(diff) && listGameFiles(diffPath).isEmpty()) return false;
       }
       return true;
     } catch (IOException e) {
@@ -133,35 +363,108 @@ public class StorageManager {
     }
   }
 
+  private boolean hasKeys(DifficultyEnum difficulty) throws IOException {
+    Path bankPath = basePath.resolve(difficulty.getFolderName()).resolve(KEY_BANK_FILE);
+    return Files.exists(bankPath) && Files.size(bankPath) >= PuzzleKey.BYTES;
+  }
+
   private void writeBoardToFile(int[][] board, Path filePath) throws IOException {
+    writeBoardToFile(board, null, filePath);
+  }
+
+  private void writeBoardToFile(int[][] board, int[][] solution, Path filePath) throws IOException {
+    StorageEvent event = new StorageEvent();
+    event.begin();
     try (BufferedWriter writer = Files.newBufferedWriter(filePath)) {
-      for (int row = 0; row < 9; row++) {
-        for (int col = 0; col < 9; col++) {
-          writer.write(String.valueOf(board[row][col]));
-          if (col < 8) writer.write(" ");
-        }
-        writer.newLine();
+      writeRows(board, writer);
+      if (solution != null) writeRows(solution, writer);
+    }
+    commitEvent(event, "write", filePath, -1);
+  }
+
+  private void writeRows(int[][] board, BufferedWriter writer) throws IOException {
+    for (int row = 0; row < 9; row++) {
+      for (int col = 0; col < 9; col++) {
+        writer.write(String.valueOf(board[row][col]));
+        if (col < 8) writer.write(" ");
+      }
+      writer.newLine();
+    }
+  }
+
+  // [0] is the puzzle, [1] its solution or null for files written without one
+  private int[][][] readPuzzleFromFile(Path filePath) throws IOException {
+    StorageEvent event = new StorageEvent();
+    event.begin();
+    int[][][] puzzle = new int[2][][];
+    try (BufferedReader reader = Files.newBufferedReader(filePath)) {
+      puzzle[0] = readBoard(reader);
+      String line = reader.readLine();
+      while (line != null && line.trim().isEmpty()) {
+        line = reader.readLine();
+      }
+      if (line != null) {
+        puzzle[1] = readBoard(line, reader);
       }
     }
+    commitEvent(event, "read", filePath, -1);
+    return puzzle;
   }
 
   private int[][] readBoardFromFile(Path filePath) throws IOException {
-    int[][] board = new int[9][9];
+    StorageEvent event = new StorageEvent();
+    event.begin();
+    int[][] board;
     try (BufferedReader reader = Files.newBufferedReader(filePath)) {
-      for (int row = 0; row < 9; row++) {
-        String line = reader.readLine();
-        if (line == null) throw new IOException("Invalid board file");
-        String[] values = line.trim().split("\\s+");
-        if (values.length != 9) throw new IOException("Invalid row");
-        for (int col = 0; col < 9; col++) {
-          board[row][col] = Integer.parseInt(values[col]);
-        }
+      board = readBoard(reader);
+    }
+    commitEvent(event, "read", filePath, -1);
+    return board;
+  }
+
+  private int[][] readBoard(BufferedReader reader) throws IOException {
+    return readBoard(reader.readLine(), reader);
+  }
+
+  private int[][] readBoard(String firstLine, BufferedReader reader) throws IOException {
+    int[][] board = new int[9][9];
+    for (int row = 0; row < 9; row++) {
+      String line = row == 0 ? firstLine : reader.readLine();
+      if (line == null) throw new IOException("Invalid board file");
+      String[] values = line.trim().split("\\s+");
+      if (values.length != 9) throw new IOException("Invalid row");
+      for (int col = 0; col < 9; col++) {
+        board[row][col] = Integer.parseInt(values[col]);
       }
     }
     return board;
   }
 
+  private void deleteFile(Path filePath) throws IOException {
+    StorageEvent event = new StorageEvent();
+    event.begin();
+    boolean deleted = Files.deleteIfExists(filePath);
+    if (deleted) commitEvent(event, "delete", filePath, 0);
+  }
+
+  // Size is only looked up (bytes < 0) when the event is actually recorded
+  private void commitEvent(StorageEvent event, String operation, Path filePath, long bytes) {
+    event.end();
+    if (event.shouldCommit()) {
+      event.operation = operation;
+      event.path = filePath.toString();
+      try {
+        event.bytes = bytes >= 0 ? bytes : Files.size(filePath);
+      } catch (IOException e) {
+        event.bytes = 0;
+      }
+      event.commit();
+    }
+  }
+
   private List<Path> listGameFiles(Path directory) throws IOException {
+    StorageEvent event = new StorageEvent();
+    event.begin();
     List<Path> gameFiles = new ArrayList<>();
     if (Files.exists(directory)) {
       try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.txt")) {
@@ -170,27 +473,60 @@ public class StorageManager {
         }
       }
     }
+    commitEvent(event, "list", directory, 0);
     return gameFiles;
   }
 
-  public void logMove(int x, int y, int newValue, int oldValue) throws IOException {
-    Path logPath = basePath.resolve(CURRENT_DIR).resolve(LOG_FILE);
-    String logEntry = String.format("%d,%d,%d,%d%n", x, y, newValue, oldValue);
-    Files.write(logPath, logEntry.getBytes(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
-  }
-
-  public int[] undoLastMove() throws IOException {
-    Path logPath = basePath.resolve(CURRENT_DIR).resolve(LOG_FILE);
-    if (!Files.exists(logPath)) return null;
-    List<String> lines = Files.readAllLines(logPath);
-    if (lines.isEmpty()) return null;
-    String lastLine = lines.get(lines.size() - 1);
-    String[] parts = lastLine.split(",");
-    if (parts.length != 4) throw new IOException("Invalid log entry");
-    int[] moveData = new int[4];
-    for (int i = 0; i < 4; i++) moveData[i] = Integer.parseInt(parts[i].trim());
-    lines.remove(lines.size() - 1);
-    Files.write(logPath, lines);
-    return moveData;
+  public synchronized void logMove(int x, int y, int newValue, int oldValue) throws IOException {
+    ensureDirectories();
+    journal().append(x, y, newValue, oldValue);
+  }
+
+  // Truncates the last move off the log and returns it as {x, y, new, old}
+  public synchronized int[] undoLastMove() throws IOException {
+    if (!Files.exists(basePath.resolve(CURRENT_DIR).resolve(LOG_FILE))) return null;
+    return journal().removeLast();
+  }
+
+  public synchronized int getMoveCount() throws IOException {
+    if (!hasCurrentGame()) return 0;
+    return journal().size();
+  }
+
+  // The current game as it was after the given number of logged moves, 0 being the start
+  public synchronized int[][] loadBoardAtMove(int move) throws IOException {
+    return journal().boardAt(move);
+  }
+
+  // Drops every logged move after the given one and makes that position the current game
+  public synchronized int[][] rewindToMove(int move) throws IOException {
+    MoveJournal moves = journal();
+    moves.truncateTo(move);
+    int[][] board = moves.boardAt(move);
+    saveCurrentGame(board);
+    return board;
+  }
+
+  // Opened against initial.txt, or the current game when a game predates it. Another
+  // StorageManager on the same directory may have logged, undone or started a game since
+  // the last call, so the cached journal is checked against the files (two stats) and
+  // reopened when they moved on without it.
+  private MoveJournal journal() throws IOException {
+    Path currentPath = basePath.resolve(CURRENT_DIR);
+    FileTime initial = MoveJournal.modifiedTime(currentPath.resolve(INITIAL_FILE));
+    if (journal == null || !Objects.equals(initial, journalInitial) || !journal.matchesDisk()) {
+      journal = MoveJournal.open(currentPath.resolve(LOG_FILE), currentPath.resolve(INDEX_FILE),
+          currentPath.resolve(CHECKPOINT_FILE), loadGame(DifficultyEnum.INITIAL));
+      journalInitial = initial;
+    }
+    return journal;
+  }
+
+  private synchronized void deleteJournal() throws IOException {
+    journal = null;
+    Path currentPath = basePath.resolve(CURRENT_DIR);
+    deleteFile(currentPath.resolve(LOG_FILE));
+    deleteFile(currentPath.resolve(INDEX_FILE));
+    deleteFile(currentPath.resolve(CHECKPOINT_FILE));
   }
 }
\ No newline at end of file
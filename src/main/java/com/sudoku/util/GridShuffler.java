@@ -0,0 +1,57 @@
+package com.sudoku.util;
+
+import java.util.SplittableRandom;
+
+// Derives a new solved grid from an existing one using only transformations that
+// keep every row, column and box valid: digit relabelling, band/stack swaps,
+// row/column swaps inside a band/stack, and transposition.
+public class GridShuffler {
+
+  private GridShuffler() {
+  }
+
+  public static int[][] shuffle(int[][] solution, SplittableRandom random) {
+    int[] digits = permutation(9, random);
+    int[] rowMap = lineMap(random);
+    int[] colMap = lineMap(random);
+    boolean transpose = random.nextBoolean();
+
+    int[][] result = new int[9][9];
+    for (int row = 0; row < 9; row++) {
+      for (int col = 0; col < 9; col++) {
+        int value = transpose
+            ? solution[colMap[col]][rowMap[row]]
+            : solution[rowMap[row]][colMap[col]];
+        result[row][col] = digits[value - 1] + 1;
+      }
+    }
+    return result;
+  }
+
+  // Maps each target line to a source line, permuting bands and lines within a band
+  private static int[] lineMap(SplittableRandom random) {
+    int[] bands = permutation(3, random);
+    int[] map = new int[9];
+    for (int band = 0; band < 3; band++) {
+      int[] lines = permutation(3, random);
+      for (int i = 0; i < 3; i++) {
+        map[band * 3 + i] = bands[band] * 3 + lines[i];
+      }
+    }
+    return map;
+  }
+
+  private static int[] permutation(int n, SplittableRandom random) {
+    int[] result = new int[n];
+    for (int i = 0; i < n; i++) {
+      result[i] = i;
+    }
+    for (int i = n - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      int tmp = result[i];
+      result[i] = result[j];
+      result[j] = tmp;
+    }
+    return result;
+  }
+}
@@ -0,0 +1,30 @@
+package com.sudoku.util;
+
+import java.util.function.Supplier;
+
+public class Lazy<T> {
+  private final Supplier<T> factory;
+  private volatile T value;
+
+  public Lazy(Supplier<T> factory) {
+    this.factory = factory;
+  }
+
+  public T get() {
+    T result = value;
+    if (result == null) {
+      synchronized (this) {
+        result = value;
+        if (result == null) {
+          result = factory.get();
+          value = result;
+        }
+      }
+    }
+    return result;
+  }
+
+  public boolean isInitialized() {
+    return value != null;
+  }
+}
@@ -3,17 +3,27 @@ package com.sudoku.util;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Random;
 import java.util.Set;
+import java.util.SplittableRandom;
 
 public class RandomPairs {
   private static final int MAX_COORD = 8;
   private static final int MAX_UNIQUE_PAIRS = (MAX_COORD + 1) * (MAX_COORD + 1);
 
-  private final Random random;
+  private final SplittableRandom random;
+  private int lastRetries;
 
+  // Each instance gets its own seed, even when created in the same millisecond
   public RandomPairs() {
-    this.random = new Random(System.currentTimeMillis());
+    this(new SplittableRandom());
+  }
+
+  public RandomPairs(long seed) {
+    this(new SplittableRandom(seed));
+  }
+
+  public RandomPairs(SplittableRandom random) {
+    this.random = random;
   }
 
   public List<int[]> generateDistinctPairs(int n) {
@@ -24,6 +34,7 @@ public class RandomPairs {
 
     Set<Integer> used = new HashSet<>();
     List<int[]> result = new ArrayList<>(n);
+    int retries = 0;
 
     while (result.size() < n) {
       int x = random.nextInt(MAX_COORD + 1);
@@ -32,9 +43,17 @@ public class RandomPairs {
       int key = x * (MAX_COORD + 1) + y;
       if (used.add(key)) {
         result.add(new int[] { x, y });
+      } else {
+        retries++;
       }
     }
 
+    lastRetries = retries;
     return result;
   }
+
+  // Number of duplicate draws rejected by the last generateDistinctPairs call
+  public int getLastRetries() {
+    return lastRetries;
+  }
 }
\ No newline at end of file
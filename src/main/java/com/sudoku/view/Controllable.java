@@ -1,6 +1,7 @@
 package com.sudoku.view;
 
 import com.sudoku.exception.*;
+import com.sudoku.model.VerificationResult;
 import java.io.IOException;
 
 public interface Controllable {
@@ -9,17 +10,27 @@ public interface Controllable {
 
   int[][] getGame(char level) throws NotFoundException;
 
+  // A null path generates the source solution instead of reading it from a file
   void driveGames(String sourcePath) throws SolutionInvalidException;
 
-  boolean[][] verifyGame(int[][] game);
+  VerificationResult verifyGame(int[][] game);
 
   int[][] solveGame(int[][] game) throws InvalidGameException;
 
+  // {row, col, value}, or null when there is nothing to suggest
+  int[] getHint(int[][] game);
+
   void logUserAction(UserAction userAction) throws IOException;
 
   void updateCurrentGame(int[][] game) throws IOException;
 
   int[] undoLastMove() throws IOException;
 
+  int getMoveCount() throws IOException;
+
+  int[][] getGameAtMove(int move) throws IOException;
+
+  void rewindToMove(int move) throws IOException;
+
   void markGameComplete(char level) throws IOException;
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.sudoku.logic;
+
+import com.sudoku.model.VerificationState;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// BatchVerifier's check with the Vector API, one board row per vector. Each value v becomes
+// the bit (1 << v) >>> 1, so an empty cell adds nothing and a unit has a duplicate exactly when
+// the sum of its bits differs from their OR. Rows reduce across lanes, columns add up lane by
+// lane over the nine rows, and boxes fold three neighbouring lanes of a band into lanes 0, 3, 6.
+// Boards must hold 0-9, as BatchVerifier.pack writes them.
+//
+// Only built by the jdk17 profile and loaded reflectively by BatchVerifier.
+final class VectorBatchKernel implements BatchVerifier.Kernel {
+  private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_128;
+  private static final VectorSpecies<Short> SHORTS = ShortVector.SPECIES_256;
+  private static final VectorMask<Byte> ROW = BYTES.indexInRange(0, 9);
+  private static final VectorMask<Byte> PAST_ROW = ROW.not();
+  private static final VectorMask<Short> COLUMNS = SHORTS.indexInRange(0, 9);
+  private static final VectorMask<Short> BOX_LANES = VectorMask.fromLong(SHORTS, 0b1001001);
+  private static final ShortVector ZERO = ShortVector.zero(SHORTS);
+  private static final ShortVector ONE = ShortVector.broadcast(SHORTS, (short) 1);
+
+  private static final byte VALID = (byte) VerificationState.VALID.ordinal();
+  private static final byte INVALID = (byte) VerificationState.INVALID.ordinal();
+  private static final byte INCOMPLETE = (byte) VerificationState.INCOMPLETE.ordinal();
+
+  VectorBatchKernel() {
+    // Narrower CPUs run the API in plain Java, far slower than the scalar loop
+    if (ShortVector.SPECIES_PREFERRED.vectorBitSize() < SHORTS.vectorBitSize()) {
+      throw new UnsupportedOperationException("No 256-bit vectors on this CPU");
+    }
+  }
+
+  @Override
+  public byte verifyAt(byte[] b, int offset) {
+    ShortVector colSum = ZERO;
+    ShortVector colOr = ZERO;
+    boolean duplicate = false;
+    for (int band = 0; band < 3; band++) {
+      ShortVector boxSum = ZERO;
+      ShortVector boxOr = ZERO;
+      for (int r = 0; r < 3; r++) {
+        ShortVector bits = bits(b, offset + (band * 3 + r) * 9);
+        duplicate |= bits.reduceLanes(VectorOperators.ADD) != bits.reduceLanes(VectorOperators.OR);
+        boxSum = boxSum.add(bits);
+        boxOr = boxOr.or(bits);
+      }
+      colSum = colSum.add(boxSum);
+      colOr = colOr.or(boxOr);
+      ShortVector foldedSum = boxSum.add(boxSum.slice(1)).add(boxSum.slice(2));
+      ShortVector foldedOr = boxOr.or(boxOr.slice(1)).or(boxOr.slice(2));
+      duplicate |= foldedSum.compare(VectorOperators.NE, foldedOr, BOX_LANES).anyTrue();
+    }
+    duplicate |= colSum.compare(VectorOperators.NE, colOr, COLUMNS).anyTrue();
+    if (duplicate) return INVALID;
+    // With no duplicates a column is full exactly when all nine bits are set
+    return colOr.compare(VectorOperators.NE, (short) 0x1FF, COLUMNS).anyTrue() ? INCOMPLETE : VALID;
+  }
+
+  private static ShortVector bits(byte[] b, int at) {
+    // A full 16-byte load where the array allows, clearing the next row's bytes; masked at the end
+    ByteVector row = at + BYTES.length() <= b.length
+        ? ByteVector.fromArray(BYTES, b, at).blend((byte) 0, PAST_ROW)
+        : ByteVector.fromArray(BYTES, b, at, ROW);
+    ShortVector values = (ShortVector) row.convertShape(VectorOperators.B2S, SHORTS, 0);
+    return ONE.lanewise(VectorOperators.LSHL, values).lanewise(VectorOperators.LSHR, 1);
+  }
+}
@@ -0,0 +1,100 @@
+package com.sudoku.controller;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sudoku.model.DifficultyEnum;
+import com.sudoku.model.Game;
+import com.sudoku.model.VerificationResult;
+import com.sudoku.model.VerificationState;
+import com.sudoku.storage.StorageManager;
+
+// Checks, hints and Solve driven by the stored solution of the current game. Expert puzzles
+// are used because they always have a unique solution.
+class AnswerKeyTest {
+  @TempDir
+  Path root;
+
+  private SudokuController controller;
+  private int[][] board;
+  private int[][] solution;
+
+  @BeforeEach
+  void startGame() throws Exception {
+    controller = new SudokuController(new StorageManager(root));
+    board = controller.getGame(DifficultyEnum.EXPERT).getBoard();
+    controller.awaitAnswerKey();
+    solution = new StorageManager(root).loadCurrentSolution();
+    assertNotNull(solution);
+  }
+
+  @Test
+  void wrongEntriesAreFlaggedAndCorrectedWhileTheBoardIsEditedInPlace() throws Exception {
+    controller.verifyGame(new Game(board));
+    int cell = firstEmpty();
+    int row = cell / 9, col = cell % 9;
+    int wrong = solution[row][col] % 9 + 1;
+    // The view edits the array it was given, as the GUI does
+    board[row][col] = wrong;
+    controller.logUserAction("(" + row + "," + col + "," + wrong + ",0)");
+
+    VerificationResult result = controller.verifyGame(new Game(board));
+    assertTrue(result.isConflict(row, col));
+    assertArrayEquals(new int[] { row, col, solution[row][col] }, controller.getHint(new Game(board)));
+
+    // The starting position must still be recognised as this game
+    Game start = controller.getGameAtMove(0);
+    assertEquals(0, start.get(row, col));
+    assertNotNull(controller.getHint(start));
+  }
+
+  @Test
+  void finishedBoardIsValidAndSolveFillsFromTheSolution() throws Exception {
+    int empty = 0;
+    for (int cell = 0; cell < 81; cell++) {
+      if (board[cell / 9][cell % 9] == 0) empty++;
+    }
+    for (int cell = 0; cell < 81 && empty > 5; cell++) {
+      if (board[cell / 9][cell % 9] == 0) {
+        board[cell / 9][cell % 9] = solution[cell / 9][cell % 9];
+        empty--;
+      }
+    }
+    controller.updateCurrentGame(new Game(board));
+
+    // A fresh controller resumes the game and builds its key from disk
+    SudokuController resumed = new SudokuController(new StorageManager(root));
+    Game current = resumed.getCurrentGame();
+    resumed.awaitAnswerKey();
+    int[][] entries = resumed.solveGame(current);
+    assertEquals(5, entries.length);
+    for (int[] entry : entries) {
+      assertEquals(solution[entry[0]][entry[1]], entry[2]);
+      board[entry[0]][entry[1]] = entry[2];
+    }
+    assertEquals(VerificationState.VALID, resumed.verifyGame(new Game(board)).getState());
+  }
+
+  @Test
+  void completingTheGameDropsItsKey() throws Exception {
+    assertNotNull(controller.getHint(new Game(board)));
+    controller.markGameComplete(DifficultyEnum.EXPERT);
+    assertNull(controller.getHint(new Game(board)));
+  }
+
+  private int firstEmpty() {
+    for (int cell = 0; cell < 81; cell++) {
+      if (board[cell / 9][cell % 9] == 0) return cell;
+    }
+    throw new AssertionError("no empty cell");
+  }
+}
@@ -0,0 +1,136 @@
+package com.sudoku.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sudoku.logic.SolvedGridGenerator;
+import com.sudoku.model.Game;
+import com.sudoku.model.VerificationState;
+import com.sudoku.solver.SolveOptions;
+import com.sudoku.solver.SolveResult;
+import com.sudoku.storage.StorageManager;
+
+// Hammers one shared SudokuController from several threads with the same input boards and
+// checks that every verify/solve answer is right and that no input board is ever written.
+// A watcher thread compares the shared boards with private copies while the workers run,
+// so even a temporary write (fill, check, restore) is caught.
+class ConcurrentCallersTest {
+  private static final int PUZZLES = 16;
+  private static final int THREADS = 4;
+  private static final long RUN_NANOS = 2_000_000_000L;
+
+  @TempDir
+  Path root;
+
+  @Test
+  void sharedInputsAreNeverWrittenAndAnswersStayRight() throws Exception {
+    SudokuController controller = new SudokuController(new StorageManager(root));
+
+    // Shared inputs: a solved grid, a 5-hole puzzle for the permutation solver and a
+    // 30-hole puzzle for the bitmask search, plus private copies to compare against
+    SolvedGridGenerator grids = new SolvedGridGenerator();
+    SplittableRandom setup = new SplittableRandom(42);
+    int[][][] solved = new int[PUZZLES][][];
+    int[][][] fiveHoles = new int[PUZZLES][][];
+    int[][][] manyHoles = new int[PUZZLES][][];
+    for (int i = 0; i < PUZZLES; i++) {
+      solved[i] = grids.grid(i);
+      fiveHoles[i] = punch(solved[i], 5, setup);
+      manyHoles[i] = punch(solved[i], 30, setup);
+    }
+    int[][][][] shared = { solved, fiveHoles, manyHoles };
+    int[][][][] pristine = new int[shared.length][PUZZLES][][];
+    for (int set = 0; set < shared.length; set++) {
+      for (int i = 0; i < PUZZLES; i++) pristine[set][i] = copy(shared[set][i]);
+    }
+
+    AtomicLong failures = new AtomicLong();
+    AtomicLong mutations = new AtomicLong();
+    AtomicReference<Throwable> error = new AtomicReference<>();
+    long end = System.nanoTime() + RUN_NANOS;
+
+    Thread watcher = new Thread(() -> {
+      while (System.nanoTime() < end) {
+        for (int set = 0; set < shared.length; set++) {
+          for (int i = 0; i < PUZZLES; i++) {
+            if (!Arrays.deepEquals(shared[set][i], pristine[set][i])) mutations.incrementAndGet();
+          }
+        }
+        Thread.yield();
+      }
+    }, "watcher");
+    watcher.start();
+
+    Thread[] workers = new Thread[THREADS];
+    for (int t = 0; t < THREADS; t++) {
+      SplittableRandom random = new SplittableRandom(t);
+      workers[t] = new Thread(() -> {
+        while (System.nanoTime() < end) {
+          int i = random.nextInt(PUZZLES);
+          try {
+            if (!check(controller, random.nextInt(4), solved[i], fiveHoles[i], manyHoles[i])) {
+              failures.incrementAndGet();
+            }
+          } catch (Exception e) {
+            error.compareAndSet(null, e);
+          }
+        }
+      }, "stress-" + t);
+      workers[t].start();
+    }
+    for (Thread worker : workers) worker.join();
+    watcher.join();
+
+    if (error.get() != null) throw new AssertionError("Caller failed", error.get());
+    assertEquals(0, failures.get(), "wrong answers");
+    assertEquals(0, mutations.get(), "input mutations observed");
+  }
+
+  private static boolean check(SudokuController controller, int operation, int[][] solved, int[][] fiveHoles,
+      int[][] manyHoles) throws Exception {
+    switch (operation) {
+      case 0:
+        return controller.verifyGame(new Game(solved)).getState() == VerificationState.VALID;
+      case 1:
+        return controller.verifyGame(new Game(manyHoles)).getState() == VerificationState.INCOMPLETE;
+      case 2: {
+        int[][] entries = controller.solveGame(new Game(fiveHoles));
+        for (int[] entry : entries) {
+          if (solved[entry[0]][entry[1]] != entry[2]) return false;
+        }
+        return entries.length == 5;
+      }
+      default: {
+        SolveResult result = controller.solveGame(new Game(manyHoles), SolveOptions.unbounded());
+        return result.getStatus() == SolveResult.Status.SOLVED
+            && controller.verifyGame(new Game(result.getSolution())).getState() == VerificationState.VALID;
+      }
+    }
+  }
+
+  private static int[][] punch(int[][] grid, int holes, SplittableRandom random) {
+    int[][] board = copy(grid);
+    for (int removed = 0; removed < holes; ) {
+      int cell = random.nextInt(81);
+      if (board[cell / 9][cell % 9] != 0) {
+        board[cell / 9][cell % 9] = 0;
+        removed++;
+      }
+    }
+    return board;
+  }
+
+  private static int[][] copy(int[][] board) {
+    int[][] copy = new int[9][];
+    for (int row = 0; row < 9; row++) copy[row] = board[row].clone();
+    return copy;
+  }
+}
@@ -0,0 +1,59 @@
+package com.sudoku.distributed;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sudoku.logic.GameGenerator;
+import com.sudoku.logic.SudokuVerifier;
+import com.sudoku.model.DifficultyEnum;
+import com.sudoku.model.PuzzleKey;
+import com.sudoku.storage.StorageManager;
+
+// Runs real worker JVMs on loopback, the first of which dies in the middle of its first job
+class GenerationCoordinatorTest {
+  private static final int COUNT = 96;
+  private static final int JOB_SIZE = 8;
+  private static final long FIRST_SEED = 1_000;
+  // Expert puzzles are dug, so a job takes long enough for the crashing worker to get one
+  private static final DifficultyEnum DIFFICULTY = DifficultyEnum.EXPERT;
+
+  @TempDir
+  Path root;
+
+  @Test
+  void crashedWorkersRangeIsRedoneExactlyOnce() throws Exception {
+    StorageManager storage = new StorageManager(root);
+    GenerationCoordinator coordinator = new GenerationCoordinator(storage, JOB_SIZE);
+    coordinator.generate(PuzzleKey.GENERATED_SOURCE, null, DIFFICULTY, FIRST_SEED, COUNT, 2, JOB_SIZE / 2);
+
+    assertTrue(coordinator.getReassigned() >= 1, "the crashed job was not reassigned");
+    try (Stream<Path> files = Files.list(root.resolve(DIFFICULTY.getFolderName()))) {
+      assertEquals(COUNT, files.count());
+    }
+
+    // Every seed's puzzle is on disk exactly once: no range lost, none written twice
+    GameGenerator generator = new GameGenerator(new SudokuVerifier(), storage);
+    Set<String> expected = new HashSet<>();
+    for (int i = 0; i < COUNT; i++) {
+      PuzzleKey key = new PuzzleKey(PuzzleKey.GENERATED_SOURCE, FIRST_SEED + i, DIFFICULTY);
+      expected.add(Arrays.deepToString(generator.generatePuzzle(null, key).getBoard()));
+    }
+    assertEquals(COUNT, expected.size());
+    Set<String> stored = new HashSet<>();
+    while (storage.hasGames(DIFFICULTY)) {
+      assertTrue(stored.add(Arrays.deepToString(storage.loadGame(DIFFICULTY))), "puzzle stored twice");
+      storage.deleteGame(DIFFICULTY);
+    }
+    assertEquals(expected, stored);
+  }
+}
@@ -0,0 +1,31 @@
+package com.sudoku.events;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.sudoku.model.BoardSnapshot;
+
+class BoardChangeSubscriberTest {
+  @Test
+  void failingSubscriberReportsToItsErrorHandler() throws Exception {
+    CompletableFuture<Throwable> reported = new CompletableFuture<>();
+    BoardChangeSubscriber failing = new BoardChangeSubscriber(reported::complete) {
+      @Override
+      protected void handle(BoardChange change) {
+        throw new IllegalStateException("disk gone");
+      }
+    };
+    try (BoardChangePublisher publisher = new BoardChangePublisher()) {
+      publisher.subscribe(failing, BoardChangePublisher.Policy.LATEST, 1);
+      publisher.submit(new BoardChange(1, 0, 0, 5, 0, BoardSnapshot.EMPTY.with(0, 0, 5)));
+      Throwable error = reported.get(5, TimeUnit.SECONDS);
+      assertTrue(error instanceof IllegalStateException);
+      assertEquals("disk gone", error.getMessage());
+    }
+  }
+}
@@ -0,0 +1,210 @@
+package com.sudoku.facade;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.sudoku.logic.IngestReport;
+import com.sudoku.model.Catalog;
+import com.sudoku.model.DifficultyEnum;
+import com.sudoku.model.Game;
+import com.sudoku.model.VerificationResult;
+import com.sudoku.solver.SolveOptions;
+import com.sudoku.solver.SolveResult;
+
+// The delegate blocks on latches, so each test decides exactly when a call is in flight
+class AsyncViewableTest {
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+  private final BlockingViewable delegate = new BlockingViewable();
+
+  @AfterEach
+  void stopExecutor() {
+    delegate.release.countDown();
+    executor.shutdownNow();
+  }
+
+  @Test
+  void cancellingAWriteLetsItFinishUninterrupted() throws Exception {
+    AsyncViewable async = new AsyncViewable(delegate, executor);
+    CompletableFuture<Void> write = async.updateCurrentGame(new Game(new int[9][9]));
+    assertTrue(delegate.started.await(5, TimeUnit.SECONDS));
+
+    assertTrue(write.cancel(true));
+    assertThrows(CancellationException.class, write::join);
+    delegate.release.countDown();
+    assertTrue(delegate.finished.await(5, TimeUnit.SECONDS));
+    assertFalse(delegate.interrupted, "a running write was interrupted");
+  }
+
+  @Test
+  void timedOutWriteFailsTheFutureButCompletesOnDisk() throws Exception {
+    AsyncViewable async = new AsyncViewable(delegate, executor).withTimeout(Duration.ofMillis(50));
+    CompletableFuture<Void> write = async.markGameComplete(DifficultyEnum.EASY);
+
+    ExecutionException error = assertThrows(ExecutionException.class, () -> write.get(5, TimeUnit.SECONDS));
+    assertTrue(error.getCause() instanceof TimeoutException);
+    delegate.release.countDown();
+    assertTrue(delegate.finished.await(5, TimeUnit.SECONDS));
+    assertFalse(delegate.interrupted, "a running write was interrupted");
+  }
+
+  @Test
+  void cancellingASolveInterruptsIt() throws Exception {
+    AsyncViewable async = new AsyncViewable(delegate, executor);
+    CompletableFuture<int[][]> solve = async.solveGame(new Game(new int[9][9]));
+    assertTrue(delegate.started.await(5, TimeUnit.SECONDS));
+
+    solve.cancel(true);
+    assertTrue(delegate.finished.await(5, TimeUnit.SECONDS));
+    assertTrue(delegate.interrupted, "the solve kept running after cancel");
+  }
+
+  @Test
+  void timedOutSolveCancelsItsToken() throws Exception {
+    AsyncViewable async = new AsyncViewable(delegate, executor).withTimeout(Duration.ofMillis(50));
+    CompletableFuture<SolveResult> solve = async.solveGame(new Game(new int[9][9]), SolveOptions.unbounded());
+
+    ExecutionException error = assertThrows(ExecutionException.class, () -> solve.get(5, TimeUnit.SECONDS));
+    assertTrue(error.getCause() instanceof TimeoutException);
+    assertTrue(delegate.finished.await(5, TimeUnit.SECONDS));
+    assertEquals(SolveResult.Status.CANCELLED, delegate.solveStatus);
+  }
+
+  @Test
+  void writeCancelledBeforeItStartsNeverRuns() throws Exception {
+    ExecutorService single = Executors.newSingleThreadExecutor();
+    try {
+      AsyncViewable async = new AsyncViewable(delegate, single);
+      CompletableFuture<int[][]> busy = async.solveGame(new Game(new int[9][9]));
+      assertTrue(delegate.started.await(5, TimeUnit.SECONDS));
+      CompletableFuture<Void> queued = async.rewindToMove(3);
+      queued.cancel(true);
+      busy.cancel(true);
+      assertTrue(delegate.finished.await(5, TimeUnit.SECONDS));
+      single.shutdown();
+      assertTrue(single.awaitTermination(5, TimeUnit.SECONDS));
+      assertEquals(-1, delegate.rewoundTo);
+    } finally {
+      single.shutdownNow();
+    }
+  }
+
+  private static class BlockingViewable implements Viewable {
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final CountDownLatch finished = new CountDownLatch(1);
+    volatile boolean interrupted;
+    volatile SolveResult.Status solveStatus;
+    volatile int rewoundTo = -1;
+
+    // Stands in for a call that takes a while; records whether it was interrupted
+    private void block() {
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        interrupted = true;
+      } finally {
+        finished.countDown();
+      }
+    }
+
+    @Override
+    public void updateCurrentGame(Game game) {
+      block();
+    }
+
+    @Override
+    public void markGameComplete(DifficultyEnum difficulty) {
+      block();
+    }
+
+    @Override
+    public int[][] solveGame(Game game) {
+      block();
+      return null;
+    }
+
+    @Override
+    public SolveResult solveGame(Game game, SolveOptions options) {
+      started.countDown();
+      while (!options.getCancellation().isCancelled()) Thread.onSpinWait();
+      solveStatus = SolveResult.Status.CANCELLED;
+      finished.countDown();
+      return new SolveResult(solveStatus, null, 0, 0);
+    }
+
+    @Override
+    public void rewindToMove(int move) {
+      rewoundTo = move;
+    }
+
+    @Override
+    public Catalog getCatalog() {
+      return new Catalog(false, false);
+    }
+
+    @Override
+    public Game getGame(DifficultyEnum level) {
+      return null;
+    }
+
+    @Override
+    public Game getCurrentGame() {
+      return null;
+    }
+
+    @Override
+    public void driveGames(Game sourceGame) {
+    }
+
+    @Override
+    public IngestReport ingestGames(Path source) {
+      return null;
+    }
+
+    @Override
+    public VerificationResult verifyGame(Game game) {
+      return null;
+    }
+
+    @Override
+    public int[] getHint(Game game) {
+      return null;
+    }
+
+    @Override
+    public void logUserAction(String userAction) {
+    }
+
+    @Override
+    public int[] undoLastMove() {
+      return null;
+    }
+
+    @Override
+    public int getMoveCount() {
+      return 0;
+    }
+
+    @Override
+    public Game getGameAtMove(int move) {
+      return null;
+    }
+  }
+}
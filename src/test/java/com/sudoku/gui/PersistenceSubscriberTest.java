@@ -0,0 +1,133 @@
+package com.sudoku.gui;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.sudoku.events.BoardChange;
+import com.sudoku.model.BoardSnapshot;
+import com.sudoku.model.VerificationResult;
+import com.sudoku.view.Controllable;
+import com.sudoku.view.UserAction;
+
+// handle() is called directly, as the publisher's delivery thread would
+class PersistenceSubscriberTest {
+  @Test
+  void failedWriteIsNotTreatedAsPersisted() throws Exception {
+    RecordingController controller = new RecordingController();
+    List<String> errors = new ArrayList<>();
+    PersistenceSubscriber persistence = new PersistenceSubscriber(controller, BoardSnapshot.EMPTY, errors::add);
+
+    // Two cells in one coalesced change; the second log write fails
+    BoardSnapshot first = BoardSnapshot.EMPTY.with(0, 0, 5).with(0, 1, 6);
+    controller.failAfter = 1;
+    persistence.submitted(1);
+    persistence.handle(new BoardChange(1, 0, 1, 6, 0, first));
+    assertFalse(persistence.flush(100), "a failed write must not count as flushed");
+    assertEquals(1, errors.size());
+    assertEquals(1, controller.logged.size());
+
+    // The next change logs the move that was lost, without repeating the one that landed
+    BoardSnapshot second = first.with(0, 2, 7);
+    controller.failAfter = Integer.MAX_VALUE;
+    persistence.submitted(2);
+    persistence.handle(new BoardChange(2, 0, 2, 7, 0, second));
+    assertTrue(persistence.flush(100));
+    assertEquals("[(0, 0, 5, 0), (0, 1, 6, 0), (0, 2, 7, 0)]", controller.logged.toString());
+    assertArrayEquals(second.toArray(), controller.current);
+  }
+
+  @Test
+  void failedGameFileWriteKeepsFlushFalseUntilReset() throws Exception {
+    RecordingController controller = new RecordingController();
+    PersistenceSubscriber persistence = new PersistenceSubscriber(controller, BoardSnapshot.EMPTY, message -> { });
+    BoardSnapshot board = BoardSnapshot.EMPTY.with(4, 4, 9);
+    controller.failGameFile = true;
+    persistence.submitted(1);
+    persistence.handle(new BoardChange(1, 4, 4, 9, 0, board));
+    assertFalse(persistence.flush(100));
+    assertEquals(1, controller.logged.size());
+
+    // A direct write (undo, solve) resets the baseline and clears the failure
+    persistence.reset(board);
+    assertTrue(persistence.flush(100));
+  }
+
+  private static class RecordingController implements Controllable {
+    final List<UserAction> logged = new ArrayList<>();
+    int failAfter = Integer.MAX_VALUE;
+    boolean failGameFile;
+    int[][] current;
+
+    @Override
+    public void logUserAction(UserAction userAction) throws IOException {
+      if (logged.size() >= failAfter) throw new IOException("disk full");
+      logged.add(userAction);
+    }
+
+    @Override
+    public void updateCurrentGame(int[][] game) throws IOException {
+      if (failGameFile) throw new IOException("disk full");
+      current = game;
+    }
+
+    @Override
+    public boolean[] getCatalog() {
+      return new boolean[0];
+    }
+
+    @Override
+    public int[][] getGame(char level) {
+      return null;
+    }
+
+    @Override
+    public void driveGames(String sourcePath) {
+    }
+
+    @Override
+    public VerificationResult verifyGame(int[][] game) {
+      return null;
+    }
+
+    @Override
+    public int[][] solveGame(int[][] game) {
+      return null;
+    }
+
+    @Override
+    public int[] getHint(int[][] game) {
+      return null;
+    }
+
+    @Override
+    public int[] undoLastMove() {
+      return null;
+    }
+
+    @Override
+    public int getMoveCount() {
+      return 0;
+    }
+
+    @Override
+    public int[][] getGameAtMove(int move) {
+      return null;
+    }
+
+    @Override
+    public void rewindToMove(int move) {
+    }
+
+    @Override
+    public void markGameComplete(char level) {
+    }
+  }
+}
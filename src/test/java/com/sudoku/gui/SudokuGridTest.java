@@ -0,0 +1,35 @@
+package com.sudoku.gui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.event.KeyEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+// Runs headless: the grid is never shown or focused, so key events go straight to processKeyEvent
+class SudokuGridTest {
+  @Test
+  void pencilKeyWorksWithoutSelectionAndNotifiesListeners() {
+    SudokuGrid grid = new SudokuGrid(new int[9][9], new int[9][9], (row, col, newValue, oldValue) -> { });
+    List<Object> changes = new ArrayList<>();
+    grid.addPropertyChangeListener(SudokuGrid.PENCIL_MODE, e -> changes.add(e.getNewValue()));
+
+    type(grid, 'p');
+    assertTrue(grid.isPencilMode());
+    type(grid, 'P');
+    assertFalse(grid.isPencilMode());
+
+    // The button path fires the same property, and only on an actual change
+    grid.setPencilMode(true);
+    grid.setPencilMode(true);
+    assertEquals(List.of(true, false, true), changes);
+  }
+
+  private static void type(SudokuGrid grid, char c) {
+    grid.processKeyEvent(new KeyEvent(grid, KeyEvent.KEY_TYPED, System.currentTimeMillis(), 0, KeyEvent.VK_UNDEFINED, c));
+  }
+}
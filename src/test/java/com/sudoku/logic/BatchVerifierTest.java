@@ -0,0 +1,80 @@
+package com.sudoku.logic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class BatchVerifierTest {
+  private static final int COUNT = 2_000;
+
+  @Test
+  void scalarKernelMatchesSudokuVerifier() {
+    byte[] packed = boards();
+    byte[] states = new byte[COUNT];
+    int valid = new BatchVerifier(BatchVerifier.SCALAR).verifyAll(packed, COUNT, states);
+    SudokuVerifier verifier = new SudokuVerifier();
+    int expectedValid = 0;
+    for (int i = 0; i < COUNT; i++) {
+      int state = verifier.verify(BatchVerifier.unpack(packed, i)).getState().ordinal();
+      assertEquals(state, states[i], "board " + i);
+      if (state == 0) expectedValid++;
+    }
+    assertEquals(expectedValid, valid);
+  }
+
+  // Runs only where the jdk17 profile built the kernel and the CPU has 256-bit vectors
+  @Test
+  void vectorKernelMatchesScalar() {
+    BatchVerifier.Kernel vector = BatchVerifier.vectorKernel();
+    assumeTrue(vector != null, "Vector API kernel not available");
+    byte[] packed = boards();
+    byte[] scalarStates = new byte[COUNT];
+    byte[] vectorStates = new byte[COUNT];
+    int scalarValid = new BatchVerifier(BatchVerifier.SCALAR).verifyAll(packed, COUNT, scalarStates);
+    BatchVerifier batch = new BatchVerifier(vector);
+    assertEquals(scalarValid, batch.verifyAll(packed, COUNT, vectorStates));
+    for (int i = 0; i < COUNT; i++) assertEquals(scalarStates[i], vectorStates[i], "board " + i);
+    assertEquals(scalarValid, batch.verifyAllParallel(packed, COUNT, vectorStates));
+  }
+
+  // Solved, incomplete, and with a duplicate in a row, a column or only a box, so each unit
+  // kind is the one that catches some board. The last board exercises the kernel's tail load.
+  private static byte[] boards() {
+    SplittableRandom random = new SplittableRandom(11);
+    SolvedGridGenerator grids = new SolvedGridGenerator();
+    byte[] packed = new byte[COUNT * BatchVerifier.BOARD_BYTES];
+    for (int i = 0; i < COUNT; i++) {
+      int[][] board = grids.grid(i);
+      int row = random.nextInt(9);
+      int col = random.nextInt(9);
+      switch (i % 6) {
+        case 1:
+          board[row][col] = 0;
+          board[random.nextInt(9)][random.nextInt(9)] = 0;
+          break;
+        case 2:
+          board[row][col] = board[row][(col + 1 + random.nextInt(8)) % 9];
+          break;
+        case 3:
+          board[row][col] = board[(row + 1 + random.nextInt(8)) % 9][col];
+          break;
+        case 4:
+          // Another cell of the same box in a different row and column
+          board[row][col] = board[row / 3 * 3 + (row + 1) % 3][col / 3 * 3 + (col + 1) % 3];
+          break;
+        case 5:
+          // Duplicate plus holes: still INVALID
+          board[row][col] = board[row][(col + 1) % 9];
+          board[(row + 1) % 9][col] = 0;
+          break;
+        default:
+          break;
+      }
+      BatchVerifier.pack(board, packed, i);
+    }
+    return packed;
+  }
+}
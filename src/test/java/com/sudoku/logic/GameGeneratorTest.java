@@ -0,0 +1,84 @@
+package com.sudoku.logic;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sudoku.model.DifficultyEnum;
+import com.sudoku.model.Puzzle;
+import com.sudoku.model.PuzzleKey;
+import com.sudoku.model.VerificationState;
+import com.sudoku.solver.SudokuSolver;
+import com.sudoku.storage.StorageManager;
+
+class GameGeneratorTest {
+  @TempDir
+  Path root;
+
+  @Test
+  void drivenSourceIsBankedAsKeysThatRebuildTheSamePuzzle() throws Exception {
+    StorageManager storage = new StorageManager(root);
+    SudokuVerifier verifier = new SudokuVerifier();
+    GameGenerator generator = new GameGenerator(verifier, storage);
+
+    int sourceId = generator.generateFromSolved(new SolvedGridGenerator().grid(3));
+
+    for (DifficultyEnum difficulty : new DifficultyEnum[] { DifficultyEnum.EASY, DifficultyEnum.MEDIUM, DifficultyEnum.HARD }) {
+      List<PuzzleKey> keys = storage.loadKeys(difficulty);
+      assertEquals(1, keys.size());
+      assertEquals(sourceId, keys.get(0).getSourceId());
+      assertTrue(storage.hasGames(difficulty));
+
+      Puzzle first = generator.rebuild(keys.get(0));
+      Puzzle again = new GameGenerator(verifier, new StorageManager(root)).rebuild(keys.get(0));
+      assertArrayEquals(first.getBoard(), again.getBoard());
+      assertEquals(VerificationState.VALID, verifier.verify(first.getSolution()).getState());
+      assertEquals(81 - difficulty.getCellsToRemove(), PuzzleDigger.countClues(first.getBoard()));
+    }
+  }
+
+  @Test
+  void expertPuzzlesAreDugToUniqueSparseBoards() throws Exception {
+    StorageManager storage = new StorageManager(root);
+    SudokuVerifier verifier = new SudokuVerifier();
+    GameGenerator generator = new GameGenerator(verifier, storage);
+    generator.generateFromSolved(new SolvedGridGenerator().grid(6));
+    PuzzleKey key = storage.peekKey(DifficultyEnum.EXPERT);
+    PuzzleDigger digger = new PuzzleDigger();
+
+    Puzzle puzzle = generator.rebuild(key);
+    int clues = PuzzleDigger.countClues(puzzle.getBoard());
+    assertTrue(clues <= 81 - DifficultyEnum.EXPERT.getCellsToRemove() || digger.isMinimal(puzzle.getBoard()),
+        clues + " clues and not minimal");
+    assertEquals(1, new SudokuSolver(verifier).countSolutions(puzzle.getBoard(), 2));
+    assertArrayEquals(puzzle.getBoard(), generator.rebuild(key).getBoard());
+  }
+
+  @Test
+  void completingARebuiltGameConsumesItsKey() throws Exception {
+    StorageManager storage = new StorageManager(root);
+    GameGenerator generator = new GameGenerator(new SudokuVerifier(), storage);
+    generator.generateFromSolved(new SolvedGridGenerator().grid(4));
+    generator.generateFromSolved(new SolvedGridGenerator().grid(5));
+
+    PuzzleKey key = storage.peekKey(DifficultyEnum.MEDIUM);
+    Puzzle puzzle = generator.rebuild(key);
+    storage.startGame(puzzle.getBoard(), puzzle.getSolution(), key);
+    new StorageManager(root).completeCurrentGame(DifficultyEnum.INITIAL);
+
+    List<PuzzleKey> left = storage.loadKeys(DifficultyEnum.MEDIUM);
+    assertEquals(1, left.size());
+    assertFalse(left.contains(key));
+    assertEquals(2, storage.loadKeys(DifficultyEnum.EASY).size());
+    storage.removeKey(left.get(0));
+    assertNull(storage.peekKey(DifficultyEnum.MEDIUM));
+  }
+}
@@ -0,0 +1,34 @@
+package com.sudoku.logic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.sudoku.solver.SudokuSolver;
+
+class PuzzleDiggerTest {
+  private final PuzzleDigger digger = new PuzzleDigger();
+  private final SudokuSolver solver = new SudokuSolver(new SudokuVerifier());
+
+  @Test
+  void minimalPuzzlesAreUniqueAndNeedEveryClue() {
+    int[][][] puzzles = PuzzleDigger.digBatch(PuzzleDigger.MINIMAL, 1, 8, 1);
+    for (int[][] puzzle : puzzles) {
+      assertEquals(1, solver.countSolutions(puzzle, 2));
+      assertTrue(digger.isMinimal(puzzle));
+    }
+  }
+
+  @Test
+  void digStopsAtTheTargetClueCount() {
+    int[][] solution = new SolvedGridGenerator().grid(9);
+    int[][] puzzle = digger.dig(solution, 40, 9);
+    assertEquals(40, PuzzleDigger.countClues(puzzle));
+    assertEquals(1, solver.countSolutions(puzzle, 2));
+    for (int cell = 0; cell < 81; cell++) {
+      int value = puzzle[cell / 9][cell % 9];
+      assertTrue(value == 0 || value == solution[cell / 9][cell % 9]);
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package com.sudoku.logic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import com.sudoku.model.VerificationState;
+import com.sudoku.rules.RuleSet;
+
+class VariantGeneratorTest {
+  @Test
+  void seedsGiveDifferentValidGridsWithoutCages() {
+    RuleSet diagonals = RuleSet.builder().diagonals().build();
+    VariantGenerator generator = new VariantGenerator(diagonals);
+    int[][] first = generator.solvedGrid(1);
+    int[][] second = generator.solvedGrid(2);
+    SudokuVerifier verifier = new SudokuVerifier(diagonals);
+    assertEquals(VerificationState.VALID, verifier.verify(first).getState());
+    assertEquals(VerificationState.VALID, verifier.verify(second).getState());
+    assertFalse(Arrays.deepEquals(first, second));
+  }
+
+  @Test
+  void cagesCutFromAGridAreSatisfied() {
+    int[][] source = new VariantGenerator(RuleSet.CLASSIC).solvedGrid(3);
+    RuleSet killer = triples(source, 0);
+    int[][] grid = new VariantGenerator(killer).solvedGrid(99);
+    assertNotNull(grid);
+    assertEquals(VerificationState.VALID, new SudokuVerifier(killer).verify(grid).getState());
+  }
+
+  @Test
+  void contradictoryCagesGiveNull() {
+    int[][] source = new VariantGenerator(RuleSet.CLASSIC).solvedGrid(3);
+    // Row 0's three cages must add up to 45; moving one from the first to the second keeps
+    // that, but two rows off by one each cannot both hold
+    RuleSet killer = triples(source, 1);
+    assertNull(new VariantGenerator(killer).solvedGrid(5));
+  }
+
+  // Every row cut into three horizontal cages; skew adds 1 to the first cage of row 0 and
+  // takes 1 from the first cage of row 1
+  private static RuleSet triples(int[][] solved, int skew) {
+    RuleSet.Builder builder = RuleSet.builder();
+    for (int cell = 0; cell < 81; cell += 3) {
+      int sum = solved[cell / 9][cell % 9] + solved[cell / 9][cell % 9 + 1] + solved[cell / 9][cell % 9 + 2];
+      if (cell == 0) sum += skew;
+      if (cell == 9) sum -= skew;
+      builder.cage(sum, cell, cell + 1, cell + 2);
+    }
+    return builder.build();
+  }
+}
@@ -0,0 +1,159 @@
+package com.sudoku.multiplayer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+class SharedBoardTest {
+  private static final int PLAYERS = 8;
+  private static final int ROUNDS = 300;
+  private static final int SUBSCRIBERS = 3;
+
+  @Test
+  void lowestPlayerWinsInEveryArrivalOrder() {
+    int[][] orders = { { 1, 2, 3 }, { 1, 3, 2 }, { 2, 1, 3 }, { 2, 3, 1 }, { 3, 1, 2 }, { 3, 2, 1 } };
+    for (int[] order : orders) {
+      SharedBoard board = new SharedBoard(new int[9][9]);
+      for (int player : order) board.set(player, 4, 4, player + 5, 0);
+      assertEquals(6, board.get(4, 4));
+      assertEquals(1, board.getPlayer(4, 4));
+      assertEquals(1, board.getVersion(4, 4));
+    }
+  }
+
+  @Test
+  void givensAndStaleEditsAreRefused() {
+    int[][] puzzle = new int[9][9];
+    puzzle[0][0] = 7;
+    SharedBoard board = new SharedBoard(puzzle);
+    assertEquals(SharedBoard.Outcome.FIXED, board.set(1, 0, 0, 3, 0));
+    assertEquals(SharedBoard.Outcome.ACCEPTED, board.set(2, 0, 1, 3, 0));
+    assertEquals(SharedBoard.Outcome.ACCEPTED, board.set(2, 0, 1, 4, 1));
+    // Two versions behind: the player has to re-read
+    assertEquals(SharedBoard.Outcome.STALE, board.set(1, 0, 1, 5, 0));
+    assertEquals(4, board.get(0, 1));
+  }
+
+  // Every round all players race to write every cell from the same base version, each in its
+  // own random order. Whatever interleaving the scheduler picks, player 1 must hold every
+  // cell afterwards, and each feed must have seen every accepted or replacing edit once.
+  @Test
+  void concurrentWritersConvergeAndEveryEditReachesEveryFeed() throws Exception {
+    SharedBoard board = new SharedBoard(new int[9][9]);
+    List<ChangeFeed.Subscription> subscriptions = new ArrayList<>();
+    for (int i = 0; i < SUBSCRIBERS; i++) subscriptions.add(board.getFeed().subscribe());
+    List<List<CellChange>> received = new ArrayList<>();
+    for (int i = 0; i < SUBSCRIBERS; i++) received.add(new ArrayList<>());
+
+    AtomicLong published = new AtomicLong();
+    AtomicReference<Throwable> error = new AtomicReference<>();
+    AtomicReference<String> divergence = new AtomicReference<>();
+    CyclicBarrier start = new CyclicBarrier(PLAYERS);
+    // Checked by the last player to arrive, before anyone starts the next round
+    CyclicBarrier end = new CyclicBarrier(PLAYERS, () -> {
+      for (int cell = 0; cell < 81; cell++) {
+        if (board.getPlayer(cell / 9, cell % 9) != 1 || board.get(cell / 9, cell % 9) != valueOf(1)) {
+          divergence.compareAndSet(null, "cell " + cell + " held by player " + board.getPlayer(cell / 9, cell % 9));
+        }
+      }
+    });
+
+    // One subscriber is drained while the writers run, the rest afterwards
+    Thread reader = new Thread(() -> {
+      while (!Thread.currentThread().isInterrupted()) {
+        CellChange change = subscriptions.get(0).poll();
+        if (change != null) {
+          received.get(0).add(change);
+        } else {
+          Thread.yield();
+        }
+      }
+    }, "feed-reader");
+    reader.start();
+
+    Thread[] players = new Thread[PLAYERS];
+    for (int p = 0; p < PLAYERS; p++) {
+      int player = p + 1;
+      SplittableRandom random = new SplittableRandom(player);
+      players[p] = new Thread(() -> {
+        try {
+          int[] cells = new int[81];
+          for (int i = 0; i < 81; i++) cells[i] = i;
+          for (int round = 0; round < ROUNDS; round++) {
+            int base = board.getVersion(0, 0);
+            shuffle(cells, random);
+            start.await();
+            for (int cell : cells) {
+              SharedBoard.Outcome outcome = board.set(player, cell / 9, cell % 9, valueOf(player), base);
+              if (outcome == SharedBoard.Outcome.ACCEPTED || outcome == SharedBoard.Outcome.REPLACED) {
+                published.incrementAndGet();
+              }
+            }
+            end.await();
+          }
+        } catch (Throwable e) {
+          error.compareAndSet(null, e);
+          start.reset();
+          end.reset();
+        }
+      }, "player-" + player);
+      players[p].start();
+    }
+    for (Thread player : players) player.join();
+    reader.interrupt();
+    reader.join();
+
+    if (error.get() != null) throw new AssertionError("Player failed", error.get());
+    assertEquals(null, divergence.get());
+    for (int cell = 0; cell < 81; cell++) assertEquals(ROUNDS, board.getVersion(cell / 9, cell % 9));
+
+    for (CellChange change = subscriptions.get(0).poll(); change != null; change = subscriptions.get(0).poll()) {
+      received.get(0).add(change);
+    }
+    for (int i = 1; i < SUBSCRIBERS; i++) {
+      for (CellChange change = subscriptions.get(i).poll(); change != null; change = subscriptions.get(i).poll()) {
+        received.get(i).add(change);
+      }
+    }
+    Set<String> first = null;
+    for (List<CellChange> changes : received) {
+      assertEquals(published.get(), changes.size());
+      Set<String> distinct = new HashSet<>();
+      Map<Integer, CellChange> latest = new HashMap<>();
+      for (CellChange change : changes) {
+        assertTrue(distinct.add(change.toString()), "delivered twice: " + change);
+        int cell = change.getRow() * 9 + change.getCol();
+        if (change.supersedes(latest.get(cell))) latest.put(cell, change);
+      }
+      if (first == null) first = distinct;
+      assertEquals(first, distinct);
+      // Applying supersedes() to whatever order arrived gives the board's final state
+      for (int cell = 0; cell < 81; cell++) assertEquals(1, latest.get(cell).getPlayer());
+    }
+  }
+
+  private static int valueOf(int player) {
+    return player % 9 + 1;
+  }
+
+  private static void shuffle(int[] cells, SplittableRandom random) {
+    for (int i = cells.length - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      int swap = cells[i];
+      cells[i] = cells[j];
+      cells[j] = swap;
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package com.sudoku.rules;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+class RuleSetTest {
+  @Test
+  void builderKeepsItsOwnCopyOfUnitsAndCages() {
+    int[] unit = { 0, 10, 20 };
+    int[] cage = { 30, 31 };
+    RuleSet.Builder builder = RuleSet.builder().unit(unit).cage(3, cage);
+    // Changing the caller's arrays afterwards must not reach the built rules
+    Arrays.fill(unit, 80);
+    Arrays.fill(cage, 79);
+    RuleSet rules = builder.build();
+
+    // 27 classic units, then the custom one, then the cage
+    assertEquals(29, rules.getUnitCount());
+    assertArrayEquals(new int[] { 0, 10, 20 }, cells(rules, 27));
+    assertArrayEquals(new int[] { 30, 31 }, cells(rules, 28));
+  }
+
+  @Test
+  void badUnitsAreRefused() {
+    assertThrows(IllegalArgumentException.class, () -> RuleSet.builder().unit());
+    assertThrows(IllegalArgumentException.class, () -> RuleSet.builder().unit(0, 81));
+    assertThrows(IllegalArgumentException.class, () -> RuleSet.builder().unit(5, 5));
+  }
+
+  private static int[] cells(RuleSet rules, int unit) {
+    return Arrays.copyOfRange(rules.getUnitCells(), rules.getUnitStart()[unit], rules.getUnitStart()[unit + 1]);
+  }
+}
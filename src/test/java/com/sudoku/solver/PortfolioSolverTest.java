@@ -0,0 +1,70 @@
+package com.sudoku.solver;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import com.sudoku.logic.SudokuVerifier;
+import com.sudoku.logic.VariantGenerator;
+import com.sudoku.rules.RuleSet;
+
+// Five-empty classic boards bring the permutation brute force into the race, the one
+// strategy that cannot poll a cancellation token while it runs
+class PortfolioSolverTest {
+  private final VariantGenerator grids = new VariantGenerator(RuleSet.CLASSIC);
+  private final PortfolioSolver portfolio = new PortfolioSolver(new SudokuSolver(new SudokuVerifier()));
+
+  @Test
+  void fiveEmptyBoardsAreSolvedByRacesAndLeaders() {
+    // Enough solves of one feature to go from racing everything to running a leader alone
+    for (int i = 0; i < 40; i++) {
+      int[][] solved = grids.solvedGrid(i);
+      int[][] board = clear(solved, 5, new SplittableRandom(i));
+      SolveResult result = portfolio.solve(board, SolveOptions.unbounded());
+      assertEquals(SolveResult.Status.SOLVED, result.getStatus());
+      assertArrayEquals(solved, result.getSolution());
+    }
+    assertTrue(portfolio.describeProfiles().contains("classic/0-9 empty"), portfolio.describeProfiles());
+  }
+
+  @Test
+  void cancelledParentStopsEveryStrategy() {
+    CancellationToken parent = new CancellationToken();
+    parent.cancel();
+    for (int i = 0; i < 40; i++) {
+      int[][] board = clear(grids.solvedGrid(100 + i), 5, new SplittableRandom(i));
+      SolveResult result = portfolio.solve(board, SolveOptions.unbounded().withCancellation(parent));
+      assertEquals(SolveResult.Status.CANCELLED, result.getStatus(), "solve " + i);
+      assertNull(result.getSolution());
+    }
+  }
+
+  @Test
+  void contradictionWithFiveEmptyCellsHasNoSolution() {
+    int[][] board = grids.solvedGrid(3);
+    // Swapping two digits of a row breaks both their columns; clear() keeps those two cells
+    int swap = board[0][0];
+    board[0][0] = board[0][1];
+    board[0][1] = swap;
+    int[][] holes = clear(board, 5, new SplittableRandom(9));
+    SolveResult result = portfolio.solve(holes, SolveOptions.unbounded());
+    assertEquals(SolveResult.Status.NO_SOLUTION, result.getStatus());
+  }
+
+  private static int[][] clear(int[][] solved, int holes, SplittableRandom random) {
+    int[][] board = new int[9][];
+    for (int row = 0; row < 9; row++) board[row] = solved[row].clone();
+    for (int cleared = 0; cleared < holes; ) {
+      int cell = random.nextInt(81);
+      if (cell < 2 || board[cell / 9][cell % 9] == 0) continue;
+      board[cell / 9][cell % 9] = 0;
+      cleared++;
+    }
+    return board;
+  }
+}
@@ -0,0 +1,190 @@
+package com.sudoku.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import com.sudoku.logic.SudokuVerifier;
+import com.sudoku.logic.VariantGenerator;
+import com.sudoku.model.DifficultyEnum;
+import com.sudoku.model.VerificationState;
+import com.sudoku.rules.RuleSet;
+
+// Every backend behind solve(board, options) must give the same kind of answer: a valid
+// completion that keeps the givens, NO_SOLUTION for a contradiction, and the right stop
+// reason when a limit is reached, including limits that are already reached on entry.
+class SolverBackendsTest {
+  private static final SolveOptions.Backend[] BACKENDS = SolveOptions.Backend.values();
+  private static final String[] HARDEST = {
+      "1....7.9..3..2...8..96..5....53..9...1..8...26....4...3......1..4......7..7...3..",
+      "8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..",
+      ".....6....59.....82....8....45........3........6..3.54...325..6..................",
+  };
+
+  private final SudokuSolver solver = new SudokuSolver(new SudokuVerifier());
+
+  @Test
+  void everyBackendSolvesHardClassics() {
+    for (SolveOptions.Backend backend : BACKENDS) {
+      for (String line : HARDEST) {
+        int[][] board = parse(line);
+        SolveResult result = solver.solve(board, SolveOptions.unbounded().withBackend(backend));
+        assertSolves(RuleSet.CLASSIC, board, result, backend);
+        assertUnchanged(parse(line), board);
+      }
+    }
+  }
+
+  @Test
+  void everyBackendCompletesSparseAndVariantBoards() {
+    VariantGenerator classic = new VariantGenerator(RuleSet.CLASSIC);
+    int[][] sparse = keepClues(classic.solvedGrid(5), 12, new SplittableRandom(5));
+    RuleSet xKnight = RuleSet.builder().diagonals().antiKnight().build();
+    int[][] variant = new VariantGenerator(xKnight).generate(DifficultyEnum.HARD, 11);
+    assertNotNull(variant);
+    for (SolveOptions.Backend backend : BACKENDS) {
+      assertSolves(RuleSet.CLASSIC, sparse,
+          solver.solve(sparse, SolveOptions.unbounded().withBackend(backend)), backend);
+      assertSolves(xKnight, variant,
+          solver.solve(variant, SolveOptions.unbounded().withRules(xKnight).withBackend(backend)), backend);
+    }
+  }
+
+  @Test
+  void killerCagesWithoutGivensAreSolved() {
+    int[][] source = new VariantGenerator(RuleSet.CLASSIC).solvedGrid(7);
+    RuleSet.Builder builder = RuleSet.builder();
+    for (int cell = 0; cell < 81; cell += 3) {
+      builder.cage(source[cell / 9][cell % 9] + source[cell / 9][cell % 9 + 1] + source[cell / 9][cell % 9 + 2],
+          cell, cell + 1, cell + 2);
+    }
+    RuleSet killer = builder.build();
+    for (SolveOptions.Backend backend : BACKENDS) {
+      int[][] empty = new int[9][9];
+      SolveResult result = solver.solve(empty, SolveOptions.unbounded().withRules(killer).withBackend(backend));
+      assertSolves(killer, empty, result, backend);
+    }
+  }
+
+  @Test
+  void contradictionsHaveNoSolution() {
+    // Row 0 holds 1..8, so its last cell needs a 9, which column 8 already has
+    int[][] blocked = new int[9][9];
+    for (int col = 0; col < 8; col++) blocked[0][col] = col + 1;
+    blocked[4][8] = 9;
+    // Two 5s in one row
+    int[][] duplicate = new int[9][9];
+    duplicate[3][1] = 5;
+    duplicate[3][7] = 5;
+    for (SolveOptions.Backend backend : BACKENDS) {
+      for (int[][] board : new int[][][] { blocked, duplicate }) {
+        SolveResult result = solver.solve(board, SolveOptions.unbounded().withBackend(backend));
+        assertEquals(SolveResult.Status.NO_SOLUTION, result.getStatus(), backend.name());
+        assertNull(result.getSolution());
+      }
+    }
+  }
+
+  @Test
+  void cancelledTokenStopsEvenEasyBoards() {
+    int[][] easy = new VariantGenerator(RuleSet.CLASSIC).solvedGrid(3);
+    easy[0][0] = 0;
+    easy[4][4] = 0;
+    easy[8][8] = 0;
+    CancellationToken token = new CancellationToken();
+    token.cancel();
+    for (SolveOptions.Backend backend : BACKENDS) {
+      SolveResult result = solver.solve(easy, SolveOptions.unbounded().withBackend(backend).withCancellation(token));
+      assertEquals(SolveResult.Status.CANCELLED, result.getStatus(), backend.name());
+      assertNull(result.getSolution());
+    }
+  }
+
+  @Test
+  void spentLimitsStopBeforeSearch() {
+    int[][] easy = new VariantGenerator(RuleSet.CLASSIC).solvedGrid(4);
+    easy[2][6] = 0;
+    for (SolveOptions.Backend backend : new SolveOptions.Backend[] { SolveOptions.Backend.BITMASK,
+        SolveOptions.Backend.CDCL }) {
+      SolveOptions options = SolveOptions.unbounded().withBackend(backend);
+      assertEquals(SolveResult.Status.BUDGET_EXHAUSTED,
+          solver.solve(easy, options.withMaxNodes(0)).getStatus(), backend.name());
+      assertEquals(SolveResult.Status.TIMED_OUT,
+          solver.solve(easy, options.withTimeLimit(Duration.ofNanos(-1))).getStatus(), backend.name());
+    }
+  }
+
+  @Test
+  void smallNodeBudgetRunsOutOnHardBoards() {
+    int[][] board = parse(HARDEST[0]);
+    for (SolveOptions.Backend backend : new SolveOptions.Backend[] { SolveOptions.Backend.BITMASK,
+        SolveOptions.Backend.CDCL }) {
+      SolveResult result = solver.solve(board, SolveOptions.unbounded().withBackend(backend).withMaxNodes(5));
+      assertEquals(SolveResult.Status.BUDGET_EXHAUSTED, result.getStatus(), backend.name());
+      assertNull(result.getSolution());
+    }
+  }
+
+  @Test
+  void cdclAnswersSatAndUnsat() {
+    // (a or b) and (not a or b) and (not b or c): satisfiable, b and c forced
+    CdclSolver sat = new CdclSolver(3);
+    sat.addClause(1, 2);
+    sat.addClause(-1, 2);
+    sat.addClause(-2, 3);
+    assertEquals(CdclSolver.Result.SATISFIABLE, sat.solve());
+    assertTrue(sat.isTrue(2));
+    assertTrue(sat.isTrue(3));
+
+    // Every assignment of a and b falsifies one clause
+    CdclSolver unsat = new CdclSolver(2);
+    unsat.addClause(1, 2);
+    unsat.addClause(-1, 2);
+    unsat.addClause(1, -2);
+    unsat.addClause(-1, -2);
+    assertEquals(CdclSolver.Result.UNSATISFIABLE, unsat.solve());
+  }
+
+  private static void assertSolves(RuleSet rules, int[][] board, SolveResult result, SolveOptions.Backend backend) {
+    assertEquals(SolveResult.Status.SOLVED, result.getStatus(), backend.name());
+    int[][] solution = result.getSolution();
+    assertEquals(VerificationState.VALID, new SudokuVerifier(rules).verify(solution).getState(), backend.name());
+    for (int cell = 0; cell < 81; cell++) {
+      int given = board[cell / 9][cell % 9];
+      if (given != 0) assertEquals(given, solution[cell / 9][cell % 9], backend.name() + " changed a given");
+    }
+  }
+
+  // solve(board, options) never writes its input
+  private static void assertUnchanged(int[][] expected, int[][] actual) {
+    for (int row = 0; row < 9; row++) {
+      for (int col = 0; col < 9; col++) assertEquals(expected[row][col], actual[row][col]);
+    }
+  }
+
+  private static int[][] keepClues(int[][] solved, int clues, SplittableRandom random) {
+    int[][] board = new int[9][9];
+    for (int kept = 0; kept < clues; ) {
+      int cell = random.nextInt(81);
+      if (board[cell / 9][cell % 9] != 0) continue;
+      board[cell / 9][cell % 9] = solved[cell / 9][cell % 9];
+      kept++;
+    }
+    return board;
+  }
+
+  private static int[][] parse(String line) {
+    int[][] board = new int[9][9];
+    for (int cell = 0; cell < 81; cell++) {
+      char c = line.charAt(cell);
+      board[cell / 9][cell % 9] = c == '.' ? 0 : c - '0';
+    }
+    return board;
+  }
+}
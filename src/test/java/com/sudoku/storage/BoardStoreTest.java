@@ -0,0 +1,145 @@
+package com.sudoku.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.sudoku.logic.BatchVerifier;
+import com.sudoku.logic.SolvedGridGenerator;
+import com.sudoku.logic.SudokuVerifier;
+import com.sudoku.model.VerificationState;
+import com.sudoku.solver.SudokuSolver;
+
+// Fills just past the first chunk (1 << 16 boards) so every lookup, batch and cursor move
+// can be checked on both sides of the boundary
+class BoardStoreTest {
+  private static final int CHUNK = 1 << 16;
+  private static final int SIZE = CHUNK + 300;
+
+  private static int[][] solved;
+  private static BoardStore store;
+
+  @BeforeAll
+  static void fill() {
+    solved = new SolvedGridGenerator().grid(6);
+    store = new BoardStore();
+    byte[] packed = new byte[BatchVerifier.BOARD_BYTES];
+    for (int i = 0; i < SIZE; i++) {
+      int[][] board = expected(i);
+      long index;
+      // All three add() overloads, alternating
+      switch (i % 3) {
+        case 0:
+          index = store.add(board);
+          break;
+        case 1:
+          index = store.add((row, col) -> board[row][col]);
+          break;
+        default:
+          BatchVerifier.pack(board, packed, 0);
+          index = store.add(packed, 0);
+      }
+      assertEquals(i, index);
+    }
+  }
+
+  @Test
+  void boardsReadBackOnBothSidesOfTheChunkBoundary() {
+    assertEquals(SIZE, store.size());
+    for (long i : new long[] { 0, 1, CHUNK - 2, CHUNK - 1, CHUNK, CHUNK + 1, SIZE - 1 }) {
+      assertArrayEquals(expected((int) i), store.toArray(i), "board " + i);
+    }
+    assertThrows(IndexOutOfBoundsException.class, () -> store.get(SIZE, 0, 0));
+    assertThrows(IndexOutOfBoundsException.class, () -> store.get(-1, 0, 0));
+  }
+
+  @Test
+  void verifyRangeMatchesTheVerifierAcrossTheBoundary() {
+    SudokuVerifier verifier = new SudokuVerifier();
+    long from = CHUNK - 150;
+    int count = 300;
+    byte[] states = new byte[count];
+    int valid = store.verifyRange(new BatchVerifier(), from, count, states);
+
+    int expectedValid = 0;
+    for (int i = 0; i < count; i++) {
+      VerificationState state = verifier.verify(expected((int) from + i)).getState();
+      assertEquals(state.ordinal(), states[i], "board " + (from + i));
+      if (state == VerificationState.VALID) expectedValid++;
+    }
+    assertEquals(expectedValid, valid);
+
+    // The whole store, which takes one full chunk and then the partial one
+    byte[] all = new byte[SIZE];
+    int allValid = store.verifyRange(new BatchVerifier(), 0, SIZE, all);
+    int counted = 0;
+    for (int i = 0; i < SIZE; i++) {
+      assertEquals(kind(i).ordinal(), all[i], "board " + i);
+      if (all[i] == VerificationState.VALID.ordinal()) counted++;
+    }
+    assertEquals(counted, allValid);
+    assertThrows(IndexOutOfBoundsException.class, () -> store.verifyRange(new BatchVerifier(), CHUNK, 301, new byte[301]));
+  }
+
+  @Test
+  void cursorServesVerifierAndSolverWithoutCopies() {
+    SudokuVerifier verifier = new SudokuVerifier();
+    SudokuSolver solver = new SudokuSolver(verifier);
+    BoardStore.Cursor cursor = store.cursor(CHUNK - 3);
+    // Step the same cursor over the boundary
+    for (long i = CHUNK - 3; i < CHUNK + 3; i++) {
+      cursor.moveTo(i);
+      assertEquals(i, cursor.getIndex());
+      assertEquals(kind((int) i), verifier.verify(cursor).getState(), "board " + i);
+      if (kind((int) i) == VerificationState.INCOMPLETE) {
+        // A few holes punched into a valid grid leave exactly one completion
+        assertEquals(1, solver.countSolutions(cursor, 2));
+      }
+    }
+
+    // Writes through the store are visible to a cursor already positioned there
+    cursor.moveTo(CHUNK);
+    int before = store.get(CHUNK, 4, 4);
+    store.set(CHUNK, 4, 4, 0);
+    assertEquals(0, cursor.get(4, 4));
+    store.set(CHUNK, 4, 4, before);
+    assertThrows(IndexOutOfBoundsException.class, () -> cursor.moveTo(SIZE));
+  }
+
+  // Board i relabels the solved grid's digits by i, then is made invalid (a repeated digit)
+  // or incomplete (three holes) depending on i
+  private static int[][] expected(int i) {
+    int shift = i % 9;
+    int[][] board = new int[9][9];
+    for (int row = 0; row < 9; row++) {
+      for (int col = 0; col < 9; col++) board[row][col] = (solved[row][col] - 1 + shift) % 9 + 1;
+    }
+    switch (kind(i)) {
+      case INVALID:
+        board[i % 9][0] = board[i % 9][1];
+        break;
+      case INCOMPLETE:
+        board[i % 9][i % 7] = 0;
+        board[(i + 4) % 9][(i + 2) % 9] = 0;
+        board[(i + 7) % 9][(i + 5) % 9] = 0;
+        break;
+      default:
+        break;
+    }
+    return board;
+  }
+
+  private static VerificationState kind(int i) {
+    switch (i % 5) {
+      case 1:
+        return VerificationState.INVALID;
+      case 3:
+        return VerificationState.INCOMPLETE;
+      default:
+        return VerificationState.VALID;
+    }
+  }
+}
@@ -0,0 +1,180 @@
+package com.sudoku.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sudoku.logic.SolvedGridGenerator;
+
+// Drives the journal through StorageManager and checks every seek against a board that was
+// replayed move by move in memory
+class MoveJournalTest {
+  // Enough moves for several checkpoints plus a partial interval after the last one
+  private static final int MOVES = MoveJournal.CHECKPOINT_INTERVAL * 4 + 7;
+
+  @TempDir
+  Path root;
+
+  private final SplittableRandom random = new SplittableRandom(17);
+  private int[][] initial;
+  // boards.get(k) is the board after k moves
+  private final List<int[][]> boards = new ArrayList<>();
+
+  @BeforeEach
+  void startGame() throws Exception {
+    int[][] solved = new SolvedGridGenerator().grid(4);
+    initial = copy(solved);
+    for (int cell = 0; cell < 81; cell += 2) initial[cell / 9][cell % 9] = 0;
+    new StorageManager(root).startGame(initial, solved);
+    boards.add(copy(initial));
+  }
+
+  @Test
+  void everyMoveCanBeSeekedBeforeAndAfterReopening() throws Exception {
+    StorageManager storage = new StorageManager(root);
+    play(storage, MOVES);
+    assertEquals(MOVES, storage.getMoveCount());
+    assertSeeks(storage);
+    // A new session trusts the index on disk instead of replaying
+    assertSeeks(new StorageManager(root));
+  }
+
+  @Test
+  void undoTruncatesTheLogAndReturnsTheMove() throws Exception {
+    StorageManager storage = new StorageManager(root);
+    List<int[]> moves = play(storage, MoveJournal.CHECKPOINT_INTERVAL + 2);
+    Path log = current("game.log");
+    // Undo across a checkpoint boundary
+    for (int undone = 0; undone < 4; undone++) {
+      long before = Files.size(log);
+      int[] last = moves.remove(moves.size() - 1);
+      assertArrayEquals(last, storage.undoLastMove());
+      boards.remove(boards.size() - 1);
+      assertEquals(moves.size(), storage.getMoveCount());
+      assertEquals(before - line(last).length(), Files.size(log));
+    }
+    assertSeeks(storage);
+    play(storage, 3);
+    assertSeeks(new StorageManager(root));
+  }
+
+  @Test
+  void lostIndexIsRebuiltFromTheLog() throws Exception {
+    play(new StorageManager(root), MOVES);
+    Files.delete(current("game.idx"));
+    assertSeeks(new StorageManager(root));
+    assertEquals(MOVES * Long.BYTES, Files.size(current("game.idx")));
+
+    Files.delete(current("game.ckpt"));
+    assertSeeks(new StorageManager(root));
+  }
+
+  @Test
+  void tornLastLineIsDropped() throws Exception {
+    play(new StorageManager(root), MOVES);
+    long complete = Files.size(current("game.log"));
+    Files.write(current("game.log"), "3,4,".getBytes(StandardCharsets.US_ASCII), StandardOpenOption.APPEND);
+
+    StorageManager storage = new StorageManager(root);
+    assertEquals(MOVES, storage.getMoveCount());
+    assertEquals(complete, Files.size(current("game.log")));
+    assertSeeks(storage);
+  }
+
+  @Test
+  void rewindMakesAnEarlierMoveTheCurrentGame() throws Exception {
+    StorageManager storage = new StorageManager(root);
+    play(storage, MOVES);
+    int target = MoveJournal.CHECKPOINT_INTERVAL + 5;
+    assertArrayEquals(boards.get(target), storage.rewindToMove(target));
+    assertArrayEquals(boards.get(target), storage.loadCurrentGame());
+    assertEquals(target, storage.getMoveCount());
+    boards.subList(target + 1, boards.size()).clear();
+
+    play(storage, 10);
+    assertSeeks(storage);
+    assertSeeks(new StorageManager(root));
+  }
+
+  @Test
+  void changesFromAnotherInstanceAreSeen() throws Exception {
+    StorageManager first = new StorageManager(root);
+    StorageManager second = new StorageManager(root);
+    play(first, 10);
+    assertEquals(10, second.getMoveCount());
+
+    // The second instance logs on top; the first must undo the second's move, not its own
+    List<int[]> theirs = play(second, 3);
+    assertEquals(13, first.getMoveCount());
+    assertArrayEquals(theirs.get(2), first.undoLastMove());
+    boards.remove(boards.size() - 1);
+    assertSeeks(first);
+
+    // An undo by the second instance shortens the log under the first
+    second.undoLastMove();
+    boards.remove(boards.size() - 1);
+    assertEquals(11, first.getMoveCount());
+    assertSeeks(first);
+
+    // A new game from the second instance replaces the journal altogether
+    int[][] fresh = new SolvedGridGenerator().grid(9);
+    fresh[0][0] = 0;
+    second.startGame(fresh, null);
+    assertEquals(0, first.getMoveCount());
+    assertArrayEquals(fresh, first.loadBoardAtMove(0));
+    assertNull(first.undoLastMove());
+  }
+
+  // Random moves on empty cells of the initial board; returns them as {x, y, new, old}
+  private List<int[]> play(StorageManager storage, int count) throws Exception {
+    List<int[]> moves = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      int[][] board = copy(boards.get(boards.size() - 1));
+      int cell;
+      do {
+        cell = random.nextInt(81);
+      } while (initial[cell / 9][cell % 9] != 0);
+      int x = cell / 9;
+      int y = cell % 9;
+      int[] move = { x, y, random.nextInt(10), board[x][y] };
+      storage.logMove(move[0], move[1], move[2], move[3]);
+      board[x][y] = move[2];
+      boards.add(board);
+      moves.add(move);
+    }
+    return moves;
+  }
+
+  private void assertSeeks(StorageManager storage) throws Exception {
+    assertEquals(boards.size() - 1, storage.getMoveCount());
+    for (int move = 0; move < boards.size(); move++) {
+      assertArrayEquals(boards.get(move), storage.loadBoardAtMove(move), "move " + move);
+    }
+  }
+
+  private Path current(String file) {
+    return root.resolve("incomplete").resolve(file);
+  }
+
+  private static String line(int[] move) {
+    return String.format("%d,%d,%d,%d%n", move[0], move[1], move[2], move[3]);
+  }
+
+  private static int[][] copy(int[][] board) {
+    int[][] copy = new int[9][];
+    for (int row = 0; row < 9; row++) copy[row] = board[row].clone();
+    return copy;
+  }
+}
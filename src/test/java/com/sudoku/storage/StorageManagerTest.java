@@ -0,0 +1,78 @@
+package com.sudoku.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sudoku.logic.SolvedGridGenerator;
+import com.sudoku.model.DifficultyEnum;
+
+class StorageManagerTest {
+  @TempDir
+  Path root;
+
+  @Test
+  void completingAResumedBankGameRemovesItFromTheBank() throws Exception {
+    int[][] solution = new SolvedGridGenerator().grid(1);
+    int[][] first = holes(solution, 0);
+    int[][] second = holes(solution, 1);
+    StorageManager storage = new StorageManager(root);
+    storage.saveGame(DifficultyEnum.EASY, first, solution);
+    storage.saveGame(DifficultyEnum.EASY, second, solution);
+    int[][] started = storage.loadGame(DifficultyEnum.EASY);
+
+    // A new session resumes the game without knowing which difficulty it was
+    StorageManager resumed = new StorageManager(root);
+    resumed.completeCurrentGame(DifficultyEnum.INITIAL);
+
+    assertFalse(resumed.hasCurrentGame());
+    assertTrue(resumed.hasGames(DifficultyEnum.EASY));
+    int[][] next = resumed.loadGame(DifficultyEnum.EASY);
+    assertFalse(Arrays.deepEquals(started, next), "the completed puzzle was served again");
+  }
+
+  @Test
+  void completingAGeneratedGameLeavesTheBankAlone() throws Exception {
+    int[][] solution = new SolvedGridGenerator().grid(2);
+    StorageManager storage = new StorageManager(root);
+    storage.saveGame(DifficultyEnum.HARD, holes(solution, 0), solution);
+    storage.startGame(holes(solution, 1), solution);
+
+    storage.completeCurrentGame(DifficultyEnum.HARD);
+
+    assertTrue(storage.hasGames(DifficultyEnum.HARD));
+    assertFalse(Files.exists(root.resolve("incomplete").resolve("game.txt")));
+  }
+
+  @Test
+  void batchesKeepNumberingAfterExistingGames() throws Exception {
+    int[][] solution = new SolvedGridGenerator().grid(3);
+    StorageManager storage = new StorageManager(root);
+    storage.saveGame(DifficultyEnum.MEDIUM, holes(solution, 0), solution);
+    // Written behind the manager's back, e.g. by another process
+    new StorageManager(root).saveGame(DifficultyEnum.MEDIUM, holes(solution, 1), solution);
+    storage.saveGames(DifficultyEnum.MEDIUM, Arrays.asList(holes(solution, 2), holes(solution, 3)), null);
+    storage.saveGames(DifficultyEnum.MEDIUM, Collections.singletonList(holes(solution, 4)), null);
+
+    try (Stream<Path> files = Files.list(root.resolve("medium"))) {
+      assertEquals(5, files.count());
+    }
+    assertTrue(Files.exists(root.resolve("medium").resolve("game_5.txt")));
+  }
+
+  private static int[][] holes(int[][] solution, int row) {
+    int[][] board = new int[9][];
+    for (int r = 0; r < 9; r++) board[r] = solution[r].clone();
+    for (int col = 0; col < 5; col++) board[row][col] = 0;
+    return board;
+  }
+}